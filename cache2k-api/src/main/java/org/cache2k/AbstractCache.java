@@ -26,7 +26,11 @@ import org.cache2k.processor.EntryProcessor;
 
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Base class for implementations of the cache interface. By default every methods throws
@@ -166,11 +170,41 @@ public class AbstractCache<K, V> implements Cache<K, V> {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void getAll(final Iterable<? extends K> keys, final BiConsumer<? super K, ? super V> action) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public CompletableFuture<V> getAsync(final K key) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public CompletableFuture<Map<K, V>> getAllAsync(final Iterable<? extends K> keys) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public Map<K, V> peekAll(final Iterable<? extends K> keys) {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void peekAll(final Iterable<? extends K> keys, final BiConsumer<? super K, ? super V> action) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Map<K, V> peekAllByIndex(final String index, final Object attribute) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Map<K, V> peekRange(final K fromKey, final K toKey) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public void putAll(final Map<? extends K, ? extends V> valueMap) {
     throw new UnsupportedOperationException();
@@ -186,11 +220,38 @@ public class AbstractCache<K, V> implements Cache<K, V> {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void scan(final Predicate<? super CacheEntry<K, V>> filter,
+                   final Consumer<? super CacheEntry<K, V>> action) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void parallelScan(final Predicate<? super CacheEntry<K, V>> filter,
+                           final Consumer<? super CacheEntry<K, V>> action) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void removeIf(final Predicate<? super CacheEntry<K, V>> filter) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public void removeAll() {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void removeAllWithTag(final Object tag) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void removeByPrefix(final String prefix) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public void clear() {
     throw new UnsupportedOperationException();
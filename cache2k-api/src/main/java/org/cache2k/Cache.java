@@ -36,9 +36,13 @@ import org.cache2k.processor.MutableCacheEntry;
 import java.io.Closeable;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /* Credits
  *
@@ -739,6 +743,57 @@ public interface Cache<K, V> extends KeyValueStore<K,V>, Closeable {
   @Override
   Map<K, V> getAll(Iterable<? extends K> keys);
 
+  /**
+   * Retrieves the values like {@link #getAll(Iterable)}, but passes each key and value
+   * to the action instead of building a map. No intermediate map is allocated for
+   * entries present in the cache, which makes this the cheaper variant for large
+   * key sets in latency sensitive code.
+   *
+   * <p>The action is called in the iteration order of the keys. Keys that are passed
+   * more than once may be passed to the action more than once. Keys without a mapping
+   * are not passed to the action. If the cache permits null values, the action
+   * receives {@code null} for keys mapped to a null value.
+   *
+   * <p>Exception handling: If a value was loaded with an exception, that exception is
+   * thrown when the key is reached, like with {@link #get(Object)}, and the remaining
+   * keys are not processed.
+   *
+   * @param keys the keys to retrieve the values for
+   * @param action called with each key and its value
+   * @throws NullPointerException if one of the specified keys is null
+   * @since 1.4
+   */
+  void getAll(Iterable<? extends K> keys, BiConsumer<? super K, ? super V> action);
+
+  /**
+   * Returns a future of the value associated with the key, like {@link #get(Object)},
+   * without blocking the calling thread. If a fresh value is present in the cache, the
+   * returned future is already completed. Otherwise the load is started and the future is
+   * completed when the loader has finished. With an {@link org.cache2k.integration.AsyncCacheLoader}
+   * no thread waits for the load, otherwise the load runs in the loader executor.
+   *
+   * <p>Exception handling: If the loader produced an exception, the future completes
+   * exceptionally with the exception, that {@link #get(Object)} would throw.
+   *
+   * @param key key with which the specified value is associated
+   * @return future of the value, completing with {@code null} if no value is associated
+   * @throws NullPointerException if the specified key is null
+   * @since 1.4
+   */
+  CompletableFuture<V> getAsync(K key);
+
+  /**
+   * Returns a future of the values associated with the keys, like {@link #getAll(Iterable)},
+   * without blocking the calling thread. Exceptions of the loader for a key are thrown
+   * when the value is requested from the map, as with {@link #getAll(Iterable)}.
+   *
+   * @param keys the keys to retrieve the values for
+   * @return future of the map of keys and values
+   * @throws NullPointerException if one of the specified keys is null
+   * @since 1.4
+   */
+  CompletableFuture<Map<K, V>> getAllAsync(Iterable<? extends K> keys);
+
   /**
    * Bulk version for {@link #peek(Object)}
    *
@@ -759,6 +814,55 @@ public interface Cache<K, V> extends KeyValueStore<K,V>, Closeable {
    */
   Map<K, V> peekAll(Iterable<? extends K> keys);
 
+  /**
+   * Bulk version of {@link #peek(Object)}, passing each key with a mapping and its
+   * value to the action instead of building a map. Like {@link #peekAll(Iterable)},
+   * the loader is not invoked. No intermediate map is allocated.
+   *
+   * <p>If the loading of an entry produced an exception, which was not suppressed
+   * and is not yet expired, the exception is thrown when the key is reached.
+   *
+   * @param keys the keys to retrieve the values for
+   * @param action called with each key and its value
+   * @throws NullPointerException if one of the specified keys is null
+   * @since 1.4
+   */
+  void peekAll(Iterable<? extends K> keys, BiConsumer<? super K, ? super V> action);
+
+  /**
+   * Returns a map with all entries whose attribute in the secondary index equals the
+   * requested one. The lookup uses the index and does not scan the cache. Like
+   * {@link #peekAll(Iterable)}, the loader is not invoked and expired entries are not
+   * contained.
+   *
+   * <p>The operation is not performed atomically. Mutations of the cache during
+   * this operation may or may not affect the result.
+   *
+   * @param index name of the index
+   * @param attribute attribute value as returned by the {@link IndexExtractor}
+   * @throws IllegalArgumentException if the index is not defined
+   * @see Cache2kBuilder#addIndex(String, IndexExtractor)
+   */
+  Map<K, V> peekAllByIndex(String index, Object attribute);
+
+  /**
+   * Returns a map with the entries with keys from {@code fromKey}, inclusive, to
+   * {@code toKey}, exclusive. The map iterates in key order. The keys are found via the
+   * ordered key index and the cache is not scanned. Like {@link #peekAll(Iterable)},
+   * the loader is not invoked, expired entries are not contained and exceptions are
+   * thrown when the value is requested from the map.
+   *
+   * <p>The operation is not performed atomically. Mutations of the cache during
+   * this operation may or may not affect the result.
+   *
+   * @param fromKey low end of the key range, inclusive
+   * @param toKey high end of the key range, exclusive
+   * @throws IllegalStateException if the ordered key index is not enabled
+   * @throws IllegalArgumentException if {@code fromKey} is greater than {@code toKey}
+   * @see Cache2kBuilder#orderedKeys(boolean)
+   */
+  Map<K, V> peekRange(K fromKey, K toKey);
+
   /**
    * Insert all elements of the map into the cache.
    *
@@ -787,6 +891,11 @@ public interface Cache<K, V> extends KeyValueStore<K,V>, Closeable {
    * <p><b>Statistics:</b> Iteration is neutral to the cache statistics.
    *
    * <p><b>Efficiency:</b> Iterating keys is faster as iterating complete entries.
+   *
+   * <p><b>Streams:</b> The {@link Iterable#spliterator()} of the returned instance
+   * supports splitting. A parallel stream, e.g. via
+   * {@code StreamSupport.stream(cache.keys().spliterator(), true)}, scans the cache
+   * contents with multiple threads. The same contract as for the iterator applies.
    */
   Iterable<K> keys();
 
@@ -803,6 +912,44 @@ public interface Cache<K, V> extends KeyValueStore<K,V>, Closeable {
    */
   Iterable<CacheEntry<K,V>> entries();
 
+  /**
+   * Scan all entries in the cache and pass the entries matching the filter to the action.
+   * The filter is evaluated on the entries inside the cache, only entries passing the
+   * filter are copied to an entry object for the action. The entry passed to the filter is
+   * only valid during the call and must not be kept.
+   *
+   * <p>See {@link #keys()} for the general contract, the scan is weakly consistent.
+   * Expired entries are skipped. The filter and the action are called in the calling thread.
+   *
+   * <p><b>Statistics:</b> The scan is neutral to the cache statistics.
+   *
+   * @param filter selects the entries for the action
+   * @param action called for each matching entry
+   * @see #parallelScan(Predicate, Consumer)
+   */
+  void scan(Predicate<? super CacheEntry<K,V>> filter, Consumer<? super CacheEntry<K,V>> action);
+
+  /**
+   * Same as {@link #scan(Predicate, Consumer)}, but the hash table is split in ranges which
+   * are scanned in parallel by the calling thread and the executor of the cache. The filter
+   * and the action need to be thread safe. The method returns after all ranges are scanned.
+   *
+   * @param filter selects the entries for the action
+   * @param action called for each matching entry
+   * @see Cache2kBuilder#executor(java.util.concurrent.Executor)
+   */
+  void parallelScan(Predicate<? super CacheEntry<K,V>> filter, Consumer<? super CacheEntry<K,V>> action);
+
+  /**
+   * Remove all entries matching the filter. An entry is only removed, if its value was
+   * not changed since it was examined by the filter. Listeners and the writer are
+   * called, like for {@link #removeIfEquals(Object, Object)}.
+   *
+   * @param filter selects the entries to remove
+   * @see #scan(Predicate, Consumer)
+   */
+  void removeIf(Predicate<? super CacheEntry<K,V>> filter);
+
   /**
    * Removes all cache contents. This has the same semantics of calling
    * remove to every key, except that the cache is trying to optimize the
@@ -810,6 +957,33 @@ public interface Cache<K, V> extends KeyValueStore<K,V>, Closeable {
    */
   void removeAll();
 
+  /**
+   * Removes all entries which have the tag. The entries are found via the tag index,
+   * so the time needed is proportional to the number of tagged entries. An entry is only
+   * removed, if its value was not changed since its tags were examined. Listeners and the
+   * writer are called, like for {@link #removeIfEquals(Object, Object)}.
+   *
+   * @param tag the tag as returned by the {@link TagExtractor}
+   * @throws IllegalStateException if no tag extractor is configured
+   * @see Cache2kBuilder#tagExtractor(TagExtractor)
+   */
+  void removeAllWithTag(Object tag);
+
+  /**
+   * Removes all entries with a string key starting with the prefix. The keys are found
+   * via the ordered key index, so the time needed is proportional to the number of
+   * matching keys. Listeners and the writer are called, like for {@link #remove(Object)}.
+   *
+   * <p>The operation is not performed atomically. Entries inserted during this
+   * operation may or may not be removed.
+   *
+   * @param prefix the key prefix
+   * @throws IllegalStateException if the ordered key index is not enabled or the
+   *         key type is not {@code String}
+   * @see Cache2kBuilder#orderedKeys(boolean)
+   */
+  void removeByPrefix(String prefix);
+
   /**
    * Clear the cache in a fast way, causing minimal disruption. Not calling the listeners.
    */
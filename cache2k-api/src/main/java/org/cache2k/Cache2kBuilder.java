@@ -37,6 +37,7 @@ import org.cache2k.integration.CacheWriter;
 import org.cache2k.integration.ExceptionPropagator;
 import org.cache2k.integration.FunctionalCacheLoader;
 import org.cache2k.integration.LoadDetail;
+import org.cache2k.integration.LoaderConcurrencyLimiter;
 import org.cache2k.integration.ResiliencePolicy;
 import org.cache2k.processor.MutableCacheEntry;
 
@@ -415,6 +416,63 @@ public class Cache2kBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Time duration after the last access, an entry expires. An access is a read, insert
+   * or update of the entry. The idle expiry can be combined with {@link #expireAfterWrite}
+   * or an {@link ExpiryPolicy}, the entry expires by whatever comes first.
+   *
+   * <p>The access time is not recorded exactly. The cache scans for idle entries in
+   * intervals and removes the entries that were not accessed since the previous
+   * scans. An idle entry expires after the specified duration plus a lag of a quarter of
+   * the duration at most. This way, a read operation needs no clock access and no timer
+   * update.
+   *
+   * <p>By default, entries do not expire after access.
+   */
+  public final Cache2kBuilder<K, V> expireAfterAccess(long v, TimeUnit u) {
+    config().setExpireAfterAccess(u.toMillis(v));
+    return this;
+  }
+
+  /**
+   * Time span an expired value is still served by {@link Cache#get} while the cache
+   * reloads it in the background. The first read after the expiry returns the stale value
+   * immediately and starts the load in a loader thread. Subsequent reads get the stale
+   * value as well, until the load is completed. If there is no read within the time span,
+   * the entry expires finally and the next read loads synchronously.
+   *
+   * <p>In contrast to {@link #refreshAhead(boolean)}, only entries that are accessed are
+   * loaded again. The mode needs a loader and has no effect on exceptions, an entry
+   * holding an exception expires as usual. Other operations, like {@link Cache#peek} or
+   * {@link Cache#containsKey}, don't see a stale value.
+   *
+   * <p>By default, stale values are not served.
+   */
+  public final Cache2kBuilder<K, V> staleWhileRevalidate(long v, TimeUnit u) {
+    config().setStaleWhileRevalidate(u.toMillis(v));
+    return this;
+  }
+
+  /**
+   * Cache the absence of a value, when the {@link CacheLoader} returns {@code null},
+   * for the given time span. This avoids that lookups for nonexistent keys reach the
+   * loader on every access. {@link Cache#get} returns {@code null} until the time span
+   * has passed, then the next access calls the loader again. The time span is limited by
+   * the regular expiry, e.g. {@link #expireAfterWrite(long, TimeUnit)}, so it is usually
+   * shorter. The entry holds no value object, but has the usual entry overhead and counts
+   * against the capacity.
+   *
+   * <p>The loader may return {@code null} without {@link #permitNullValues(boolean)}.
+   * If null values are permitted, the time span applies to every {@code null} value,
+   * also if inserted via {@link Cache#put}.
+   *
+   * <p>By default, there is no separate time span for {@code null} values.
+   */
+  public final Cache2kBuilder<K, V> negativeCacheDuration(long v, TimeUnit u) {
+    config().setNegativeCacheDuration(u.toMillis(v));
+    return this;
+  }
+
   /**
    * Sets customization for propagating loader exceptions. By default loader exceptions
    * are wrapped into a {@link org.cache2k.integration.CacheLoaderException}.
@@ -545,6 +603,45 @@ public class Cache2kBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Add a secondary index. The cache maintains the index with the entry lifecycle.
+   * Entries can be retrieved by the extracted attribute via
+   * {@link Cache#peekAllByIndex(String, Object)} without scanning the cache.
+   * Maintaining the index adds overhead to every insert, update and removal.
+   *
+   * @param name name of the index, used to refer to it at the lookup
+   * @param extractor extracts the indexed attribute from the value
+   * @throws IllegalArgumentException if an index with the name is already added
+   */
+  public final Cache2kBuilder<K, V> addIndex(String name, IndexExtractor<K, V> extractor) {
+    if (config().getIndexes().containsKey(name)) {
+      throw new IllegalArgumentException("index already added: " + name);
+    }
+    config().getIndexes().put(name, wrapCustomizationInstance(extractor));
+    return this;
+  }
+
+  /**
+   * Extracts the tags of the values. The cache maintains an index of the tags,
+   * so all entries with a tag can be removed via {@link Cache#removeAllWithTag(Object)}
+   * without scanning the cache.
+   */
+  public final Cache2kBuilder<K, V> tagExtractor(TagExtractor<K, V> v) {
+    config().setTagExtractor(wrapCustomizationInstance(v));
+    return this;
+  }
+
+  /**
+   * When {@code true}, the cache maintains an index of the keys in their natural order.
+   * The index is needed for {@link Cache#peekRange(Object, Object)} and
+   * {@link Cache#removeByPrefix(String)}. The key type needs to be {@link Comparable}.
+   * Maintaining the index adds overhead to every insert and removal.
+   */
+  public final Cache2kBuilder<K, V> orderedKeys(boolean f) {
+    config().setOrderedKeys(f);
+    return this;
+  }
+
   /**
    * A set of listeners. Listeners added in this collection will be
    * executed in a asynchronous mode.
@@ -599,6 +696,42 @@ public class Cache2kBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Spread the refresh of entries over a time window before the expiry time, when
+   * {@link #refreshAhead(boolean)} is enabled. Entries that are loaded at the same time,
+   * e.g. during a warm up phase, would otherwise be refreshed all together every time they
+   * expire, leading to periodic load spikes in the loader threads and the backend system.
+   * With a jitter the refresh of each entry is started up to the specified duration earlier.
+   * The offset is derived from the key hash, so entries are evenly spread within the window.
+   * The offset is limited to half of the remaining time until the expiry. No jitter is
+   * applied when sharp expiry is requested for an entry.
+   *
+   * <p>By default, no jitter is applied.
+   *
+   * @see #refreshAhead(boolean)
+   */
+  public final Cache2kBuilder<K, V> refreshAheadJitter(long v, TimeUnit u) {
+    config().setRefreshAheadJitter(u.toMillis(v));
+    return this;
+  }
+
+  /**
+   * When {@code true} and {@link #refreshAhead(boolean)} is enabled, only entries with
+   * recent accesses are refreshed. The decision is based on the access counter the eviction
+   * algorithm maintains: the entry needs to be accessed after it was loaded, refreshed or
+   * updated the last time. Cold entries expire regularly, instead
+   * of spending loader and backend resources on values that are unlikely to be requested
+   * again.
+   *
+   * <p>By default, every entry is refreshed.
+   *
+   * @see #refreshAhead(boolean)
+   */
+  public final Cache2kBuilder<K, V> refreshAheadSkipCold(boolean f) {
+    config().setRefreshAheadSkipCold(f);
+    return this;
+  }
+
   /**
    * By default the expiry time is not exact, which means, a value might be visible a few
    * milliseconds after the time of expiry. The time lag depends on the system load.
@@ -626,6 +759,71 @@ public class Cache2kBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Run the loads of this cache in a thread pool shared by all caches of the cache manager
+   * that have this option enabled, instead of in a thread pool used exclusively by this cache.
+   * The number of threads in the shared pool depends on the available CPUs and not on the
+   * number of caches. The caches are served in a round robin fashion, so a cache with many
+   * loads does not starve the others. The value of {@link #loaderThreadCount(int)}
+   * limits the number of loads of this cache running in parallel, the remaining loads wait
+   * in a queue.
+   *
+   * <p>If a separate executor is set via {@link #loaderExecutor(Executor)} the parameter
+   * has no effect. By default, each cache uses its own thread pool.
+   *
+   * @see #loaderPoolWeight(int)
+   */
+  public final Cache2kBuilder<K, V> sharedLoaderPool(boolean f) {
+    config().setSharedLoaderPool(f);
+    return this;
+  }
+
+  /**
+   * Share of this cache in the shared loader pool. A cache with weight {@code 2} may
+   * run two loads in its turn, while a cache with weight {@code 1} runs one. The default is
+   * {@code 1}.
+   *
+   * @see #sharedLoaderPool(boolean)
+   */
+  public final Cache2kBuilder<K, V> loaderPoolWeight(int v) {
+    if (v <= 0) {
+      throw new IllegalArgumentException("weight must be positive");
+    }
+    config().setLoaderPoolWeight(v);
+    return this;
+  }
+
+  /**
+   * Run loads and asynchronous listeners on virtual threads, if the JVM supports them.
+   * Each load gets its own thread, the number of parallel loads is not limited by
+   * {@link #loaderThreadCount(int)}. This fits well for loaders doing blocking I/O.
+   * On JVMs without virtual threads the cache uses the usual thread pools.
+   *
+   * <p>If a separate executor is set via {@link #loaderExecutor(Executor)} or
+   * {@link #asyncListenerExecutor(Executor)} it is used instead. By default, platform threads
+   * are used.
+   */
+  public final Cache2kBuilder<K, V> virtualThreads(boolean f) {
+    config().setVirtualThreads(f);
+    return this;
+  }
+
+  /**
+   * Coalesce concurrent loads of single keys into bulk loads. Loads that are requested
+   * within the time window are passed to the loader with one call of
+   * {@link org.cache2k.integration.BulkCacheLoader#loadAll}. The first load in a batch
+   * waits for the time window to pass, or until the batch is full, the other loads wait
+   * for the bulk load to complete. Has only an effect, if a
+   * {@link org.cache2k.integration.BulkCacheLoader} is used.
+   *
+   * <p>The window adds up to its duration to the latency of a single load. It should be
+   * small compared to the time a load takes. By default, loads are not coalesced.
+   */
+  public final Cache2kBuilder<K, V> loaderBatchWindow(long v, TimeUnit u) {
+    config().setLoaderBatchWindow(u.toMillis(v));
+    return this;
+  }
+
   /**
    * Ensure that the cache value is stored via direct object reference and that
    * no serialization takes place. Cache clients leveraging the fact that an in heap
@@ -677,6 +875,25 @@ public class Cache2kBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Number of consecutive loader exceptions, regardless of the key, after which the
+   * backend is considered down. The cache then stops calling the loader and each load
+   * fails immediately with a {@link org.cache2k.integration.CircuitBreakerOpenException},
+   * so a previous value is returned, if available, or an exception is cached and
+   * propagated. After the {@link #retryInterval} one load is let through as probe. If the
+   * probe succeeds the loader is used again for all keys, otherwise the next probe is
+   * done after another retry interval.
+   *
+   * <p>The circuit breaker is implemented by the default resilience policy and enables
+   * it, also when no expiry is configured. In this case loader exceptions are cached
+   * for the retry interval as well, which defaults to one second. By default, no circuit
+   * breaker is used.
+   */
+  public final Cache2kBuilder<K, V> circuitBreakerThreshold(int v) {
+    config().setCircuitBreakerThreshold(v);
+    return this;
+  }
+
   /**
    * Sets a custom resilience policy to control the cache behavior in the presence
    * of exceptions from the loader. A specified policy will be ignored if
@@ -767,6 +984,22 @@ public class Cache2kBuilder<K, V> {
     return this;
   }
 
+  /**
+   * When {@code true}, {@link Cache#invokeAll} runs the entry processor for different keys
+   * in parallel, using the executor set by {@link #executor(Executor)}. The calling thread
+   * takes part in the processing and waits until all keys are processed. The processing
+   * of each single entry stays atomic, but there is no order between the keys. The
+   * entry processor needs to be thread safe.
+   *
+   * <p>Parallel execution is used only if enough keys are passed, so the processing can
+   * be split into multiple chunks. By default, entries are processed sequentially by the
+   * calling thread.
+   */
+  public final Cache2kBuilder<K,V> parallelInvokeAll(boolean f) {
+    config().setParallelInvokeAll(f);
+    return this;
+  }
+
   /**
    * When {@code true} expose statistics via JMX. Disabled by default. It is possible to enable
    * JMX even there is no cache name specified with {@link #name(String)}, since a name will
@@ -789,6 +1022,20 @@ public class Cache2kBuilder<K, V> {
     return this;
   }
 
+  /**
+   * Limits the concurrent calls to the loader and adapts the limit to the load latency.
+   * The same limiter instance can be set for multiple caches that load from the same
+   * backend, to protect the backend as a whole. A load that gets no permit fails with
+   * an exception and is subject to the {@link #resiliencePolicy}. By default, loads
+   * are only limited by the loader thread pool.
+   *
+   * @see LoaderConcurrencyLimiter
+   */
+  public final Cache2kBuilder<K,V> loaderConcurrencyLimiter(LoaderConcurrencyLimiter v) {
+    config().setLoaderConcurrencyLimiter(new CustomizationReferenceSupplier<LoaderConcurrencyLimiter>(v));
+    return this;
+  }
+
   /**
    * Thread pool / executor service to use for refresh ahead and prefetch operations. If not specified the
    * same refresh ahead operation will use the thread pool defined by {@link #loaderExecutor(Executor)}
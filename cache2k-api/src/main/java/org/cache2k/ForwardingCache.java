@@ -26,7 +26,11 @@ import org.cache2k.processor.EntryProcessor;
 
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Wrapper class that forwards all method calls to a delegate. Can be used to implement extensions that
@@ -172,11 +176,41 @@ public abstract class ForwardingCache<K, V> implements Cache<K, V> {
     return delegate().getAll(keys);
   }
 
+  @Override
+  public void getAll(final Iterable<? extends K> keys, final BiConsumer<? super K, ? super V> action) {
+    delegate().getAll(keys, action);
+  }
+
+  @Override
+  public CompletableFuture<V> getAsync(final K key) {
+    return delegate().getAsync(key);
+  }
+
+  @Override
+  public CompletableFuture<Map<K, V>> getAllAsync(final Iterable<? extends K> keys) {
+    return delegate().getAllAsync(keys);
+  }
+
   @Override
   public Map<K, V> peekAll(final Iterable<? extends K> keys) {
     return delegate().peekAll(keys);
   }
 
+  @Override
+  public void peekAll(final Iterable<? extends K> keys, final BiConsumer<? super K, ? super V> action) {
+    delegate().peekAll(keys, action);
+  }
+
+  @Override
+  public Map<K, V> peekAllByIndex(final String index, final Object attribute) {
+    return delegate().peekAllByIndex(index, attribute);
+  }
+
+  @Override
+  public Map<K, V> peekRange(final K fromKey, final K toKey) {
+    return delegate().peekRange(fromKey, toKey);
+  }
+
   @Override
   public void putAll(final Map<? extends K, ? extends V> valueMap) {
     delegate().putAll(valueMap);
@@ -192,11 +226,38 @@ public abstract class ForwardingCache<K, V> implements Cache<K, V> {
     return delegate().entries();
   }
 
+  @Override
+  public void scan(final Predicate<? super CacheEntry<K, V>> filter,
+                   final Consumer<? super CacheEntry<K, V>> action) {
+    delegate().scan(filter, action);
+  }
+
+  @Override
+  public void parallelScan(final Predicate<? super CacheEntry<K, V>> filter,
+                           final Consumer<? super CacheEntry<K, V>> action) {
+    delegate().parallelScan(filter, action);
+  }
+
+  @Override
+  public void removeIf(final Predicate<? super CacheEntry<K, V>> filter) {
+    delegate().removeIf(filter);
+  }
+
   @Override
   public void removeAll() {
     delegate().removeAll();
   }
 
+  @Override
+  public void removeAllWithTag(final Object tag) {
+    delegate().removeAllWithTag(tag);
+  }
+
+  @Override
+  public void removeByPrefix(final String prefix) {
+    delegate().removeByPrefix(prefix);
+  }
+
   @Override
   public void clear() {
     delegate().clear();
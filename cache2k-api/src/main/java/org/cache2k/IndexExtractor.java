@@ -0,0 +1,45 @@
+package org.cache2k;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Extracts the attribute for a secondary index from a cached value. The cache maintains
+ * the index when entries are inserted, updated, removed, evicted or expire, so entries can
+ * be retrieved by the attribute via {@link Cache#peekAllByIndex(String, Object)}
+ * without scanning the whole cache.
+ *
+ * <p>The extractor must be deterministic and the attribute needs to implement
+ * {@code equals} and {@code hashCode}, since the index is a hash map.
+ *
+ * @author Jens Wilke
+ * @see Cache2kBuilder#addIndex(String, IndexExtractor)
+ */
+public interface IndexExtractor<K,V> {
+
+  /**
+   * Returns the attribute of the value. This will be called after a value is inserted or
+   * updated and when it is removed.
+   *
+   * @return the attribute value or {@code null} if the entry should not be indexed
+   */
+  Object extract(K key, V value);
+
+}
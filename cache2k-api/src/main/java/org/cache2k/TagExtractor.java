@@ -0,0 +1,47 @@
+package org.cache2k;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collection;
+
+/**
+ * Extracts the tags of a cached value, for example the tenant or the product the value
+ * belongs to. The cache maintains an index of the tags with the entry lifecycle, so all
+ * entries with a tag can be removed via {@link Cache#removeAllWithTag(Object)} in time
+ * proportional to the number of tagged entries.
+ *
+ * <p>The extractor must be deterministic and the tags need to implement
+ * {@code equals} and {@code hashCode}.
+ *
+ * @author Jens Wilke
+ * @see Cache2kBuilder#tagExtractor(TagExtractor)
+ */
+public interface TagExtractor<K,V> {
+
+  /**
+   * Returns the tags of the value. This will be called after a value is inserted or
+   * updated and when it is removed.
+   *
+   * @return the tags or {@code null} if the value has no tags
+   */
+  Collection<?> extractTags(K key, V value);
+
+}
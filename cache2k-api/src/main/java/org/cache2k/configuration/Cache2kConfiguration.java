@@ -21,6 +21,8 @@ package org.cache2k.configuration;
  */
 
 import org.cache2k.Cache2kBuilder;
+import org.cache2k.IndexExtractor;
+import org.cache2k.TagExtractor;
 import org.cache2k.TimeReference;
 import org.cache2k.Weigher;
 import org.cache2k.event.CacheClosedListener;
@@ -31,12 +33,15 @@ import org.cache2k.integration.AsyncCacheLoader;
 import org.cache2k.integration.CacheWriter;
 import org.cache2k.integration.ExceptionPropagator;
 import org.cache2k.integration.FunctionalCacheLoader;
+import org.cache2k.integration.LoaderConcurrencyLimiter;
 import org.cache2k.integration.ResiliencePolicy;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 /**
@@ -72,23 +77,36 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
   private long entryCapacity = -1;
   private boolean strictEviction = false;
   private boolean refreshAhead = false;
+  private long refreshAheadJitter = 0;
+  private boolean refreshAheadSkipCold = false;
   private long expireAfterWrite = -1;
+  private long expireAfterAccess = -1;
+  private long staleWhileRevalidate = 0;
+  private long negativeCacheDuration = 0;
   private long retryInterval = -1;
   private long maxRetryInterval = -1;
   private long resilienceDuration = -1;
+  private int circuitBreakerThreshold = 0;
   private long maximumWeight = -1;
   private boolean keepDataAfterExpired = false;
   private boolean sharpExpiry = false;
   private boolean suppressExceptions = true;
   private int loaderThreadCount;
+  private long loaderBatchWindow = 0;
+  private boolean sharedLoaderPool = false;
+  private int loaderPoolWeight = 1;
+  private boolean virtualThreads = false;
   private boolean permitNullValues = false;
   private boolean disableStatistics = false;
   private boolean recordRefreshedTime = false;
   private boolean externalConfigurationPresent = false;
   private boolean boostConcurrency = false;
+  private boolean parallelInvokeAll = false;
+  private boolean orderedKeys = false;
   private boolean enableJmx = false;
 
   private CustomizationSupplier<Executor> loaderExecutor;
+  private CustomizationSupplier<LoaderConcurrencyLimiter> loaderConcurrencyLimiter;
   private CustomizationSupplier<Executor> prefetchExecutor;
   private CustomizationSupplier<Executor> asyncListenerExecutor;
   private CustomizationSupplier<Executor> executor;
@@ -101,10 +119,12 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
   private CustomizationSupplier<ExceptionPropagator<K>> exceptionPropagator;
   private CustomizationSupplier<TimeReference> timeReference;
   private CustomizationSupplier<Weigher> weigher;
+  private CustomizationSupplier<TagExtractor<K,V>> tagExtractor;
 
   private CustomizationCollection<CacheEntryOperationListener<K,V>> listeners;
   private CustomizationCollection<CacheEntryOperationListener<K,V>> asyncListeners;
   private CustomizationCollection<CacheClosedListener> closedListeners;
+  private Map<String, CustomizationSupplier<IndexExtractor<K,V>>> indexes;
 
   private ConfigurationSectionContainer sections;
 
@@ -205,6 +225,34 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     this.refreshAhead = v;
   }
 
+  /**
+   * @see Cache2kBuilder#refreshAheadJitter
+   */
+  public long getRefreshAheadJitter() {
+    return refreshAheadJitter;
+  }
+
+  /**
+   * @see Cache2kBuilder#refreshAheadJitter
+   */
+  public void setRefreshAheadJitter(long millis) {
+    refreshAheadJitter = millis;
+  }
+
+  /**
+   * @see Cache2kBuilder#refreshAheadSkipCold(boolean)
+   */
+  public boolean isRefreshAheadSkipCold() {
+    return refreshAheadSkipCold;
+  }
+
+  /**
+   * @see Cache2kBuilder#refreshAheadSkipCold(boolean)
+   */
+  public void setRefreshAheadSkipCold(boolean f) {
+    refreshAheadSkipCold = f;
+  }
+
   public CacheType<K> getKeyType() {
     return keyType;
   }
@@ -298,6 +346,48 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     this.expireAfterWrite = millis;
   }
 
+  /**
+   * @see Cache2kBuilder#expireAfterAccess
+   */
+  public long getExpireAfterAccess() {
+    return expireAfterAccess;
+  }
+
+  /**
+   * @see Cache2kBuilder#expireAfterAccess
+   */
+  public void setExpireAfterAccess(long millis) {
+    expireAfterAccess = millis;
+  }
+
+  /**
+   * @see Cache2kBuilder#staleWhileRevalidate
+   */
+  public long getStaleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+
+  /**
+   * @see Cache2kBuilder#staleWhileRevalidate
+   */
+  public void setStaleWhileRevalidate(long millis) {
+    staleWhileRevalidate = millis;
+  }
+
+  /**
+   * @see Cache2kBuilder#negativeCacheDuration
+   */
+  public long getNegativeCacheDuration() {
+    return negativeCacheDuration;
+  }
+
+  /**
+   * @see Cache2kBuilder#negativeCacheDuration
+   */
+  public void setNegativeCacheDuration(long millis) {
+    negativeCacheDuration = millis;
+  }
+
   /**
    * @see Cache2kBuilder#retryInterval
    */
@@ -329,6 +419,20 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     maxRetryInterval = millis;
   }
 
+  /**
+   * @see Cache2kBuilder#circuitBreakerThreshold
+   */
+  public int getCircuitBreakerThreshold() {
+    return circuitBreakerThreshold;
+  }
+
+  /**
+   * @see Cache2kBuilder#circuitBreakerThreshold
+   */
+  public void setCircuitBreakerThreshold(int v) {
+    circuitBreakerThreshold = v;
+  }
+
   /**
    * @see Cache2kBuilder#resilienceDuration
    */
@@ -460,6 +564,62 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     loaderThreadCount = v;
   }
 
+  /**
+   * @see Cache2kBuilder#loaderBatchWindow
+   */
+  public long getLoaderBatchWindow() {
+    return loaderBatchWindow;
+  }
+
+  /**
+   * @see Cache2kBuilder#loaderBatchWindow
+   */
+  public void setLoaderBatchWindow(final long millis) {
+    loaderBatchWindow = millis;
+  }
+
+  /**
+   * @see Cache2kBuilder#sharedLoaderPool(boolean)
+   */
+  public boolean isSharedLoaderPool() {
+    return sharedLoaderPool;
+  }
+
+  /**
+   * @see Cache2kBuilder#sharedLoaderPool(boolean)
+   */
+  public void setSharedLoaderPool(final boolean f) {
+    sharedLoaderPool = f;
+  }
+
+  /**
+   * @see Cache2kBuilder#loaderPoolWeight(int)
+   */
+  public int getLoaderPoolWeight() {
+    return loaderPoolWeight;
+  }
+
+  /**
+   * @see Cache2kBuilder#loaderPoolWeight(int)
+   */
+  public void setLoaderPoolWeight(final int v) {
+    loaderPoolWeight = v;
+  }
+
+  /**
+   * @see Cache2kBuilder#virtualThreads(boolean)
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * @see Cache2kBuilder#virtualThreads(boolean)
+   */
+  public void setVirtualThreads(final boolean f) {
+    virtualThreads = f;
+  }
+
   public CustomizationSupplier<ExpiryPolicy<K, V>> getExpiryPolicy() {
     return expiryPolicy;
   }
@@ -535,6 +695,35 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     getListeners().addAll(c);
   }
 
+  /**
+   * Secondary indexes by index name.
+   *
+   * @return Mutable map of index extractors
+   * @see Cache2kBuilder#addIndex(String, IndexExtractor)
+   */
+  public Map<String, CustomizationSupplier<IndexExtractor<K,V>>> getIndexes() {
+    if (indexes == null) {
+      indexes = new LinkedHashMap<String, CustomizationSupplier<IndexExtractor<K, V>>>();
+    }
+    return indexes;
+  }
+
+  /**
+   * @return True if indexes are added to this configuration.
+   */
+  public boolean hasIndexes() {
+    return indexes != null && !indexes.isEmpty();
+  }
+
+  /**
+   * Adds the indexes to the existing ones.
+   *
+   * @see Cache2kBuilder#addIndex(String, IndexExtractor)
+   */
+  public void setIndexes(Map<String, CustomizationSupplier<IndexExtractor<K,V>>> m) {
+    getIndexes().putAll(m);
+  }
+
   /**
    * A set of listeners. A listener can be added by adding it to the collection.
    * Duplicate (in terms of equal objects) listeners will be ignored.
@@ -671,6 +860,17 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     loaderExecutor = v;
   }
 
+  public CustomizationSupplier<LoaderConcurrencyLimiter> getLoaderConcurrencyLimiter() {
+    return loaderConcurrencyLimiter;
+  }
+
+  /**
+   * @see Cache2kBuilder#loaderConcurrencyLimiter(LoaderConcurrencyLimiter)
+   */
+  public void setLoaderConcurrencyLimiter(final CustomizationSupplier<LoaderConcurrencyLimiter> v) {
+    loaderConcurrencyLimiter = v;
+  }
+
   public CustomizationSupplier<Executor> getPrefetchExecutor() {
     return prefetchExecutor;
   }
@@ -729,6 +929,31 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     weigher = v;
   }
 
+  public CustomizationSupplier<TagExtractor<K,V>> getTagExtractor() {
+    return tagExtractor;
+  }
+
+  /**
+   * @see Cache2kBuilder#tagExtractor(TagExtractor)
+   */
+  public void setTagExtractor(final CustomizationSupplier<TagExtractor<K,V>> v) {
+    tagExtractor = v;
+  }
+
+  /**
+   * @see Cache2kBuilder#orderedKeys(boolean)
+   */
+  public boolean isOrderedKeys() {
+    return orderedKeys;
+  }
+
+  /**
+   * @see Cache2kBuilder#orderedKeys(boolean)
+   */
+  public void setOrderedKeys(final boolean f) {
+    orderedKeys = f;
+  }
+
   public boolean isBoostConcurrency() {
     return boostConcurrency;
   }
@@ -740,6 +965,20 @@ public class Cache2kConfiguration<K, V> implements ConfigurationBean, Configurat
     boostConcurrency = v;
   }
 
+  /**
+   * @see Cache2kBuilder#parallelInvokeAll(boolean)
+   */
+  public boolean isParallelInvokeAll() {
+    return parallelInvokeAll;
+  }
+
+  /**
+   * @see Cache2kBuilder#parallelInvokeAll(boolean)
+   */
+  public void setParallelInvokeAll(final boolean f) {
+    parallelInvokeAll = f;
+  }
+
   public boolean isEnableJmx() {
     return enableJmx;
   }
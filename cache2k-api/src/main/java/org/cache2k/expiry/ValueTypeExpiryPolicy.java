@@ -0,0 +1,151 @@
+package org.cache2k.expiry;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.CacheEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Declarative expiry policy with an expiry duration per value type. Use this instead
+ * of a custom {@link ExpiryPolicy}, if the expiry duration only depends on the type of
+ * the value. The duration for a value class is looked up once, taking super classes and
+ * interfaces into account, and remembered afterwards, so the calculation on each insert
+ * or update is a single map lookup.
+ *
+ * <p>Values of a type not present in the table and {@code null} values are passed to
+ * the fallback policy. If no fallback policy is specified, they do not expire.
+ *
+ * <p>The table should be completely set up before the policy is passed to the cache.
+ *
+ * @author Jens Wilke
+ * @since 1.4
+ * @see org.cache2k.Cache2kBuilder#expiryPolicy(ExpiryPolicy)
+ */
+public class ValueTypeExpiryPolicy<K, V> implements ExpiryPolicy<K, V> {
+
+  /** Marker in the resolved map for a type that needs the fallback */
+  private static final long USE_FALLBACK = Long.MIN_VALUE;
+
+  private final Map<Class<?>, Long> table = new HashMap<Class<?>, Long>();
+  private final ConcurrentHashMap<Class<?>, Long> resolved = new ConcurrentHashMap<Class<?>, Long>();
+  private final ExpiryPolicy<K, V> fallback;
+
+  /**
+   * Policy with values of other types not expiring.
+   */
+  public ValueTypeExpiryPolicy() {
+    this(null);
+  }
+
+  /**
+   * Policy calling the fallback for values of types not present in the table.
+   *
+   * @param fallback policy for other values or {@code null}, if other values do not expire
+   */
+  public ValueTypeExpiryPolicy(ExpiryPolicy<K, V> fallback) {
+    this.fallback = fallback;
+  }
+
+  /**
+   * Values of the type, or a sub type, expire after the specified duration after
+   * an insert or update. A duration of 0 means the value is not cached, {@link Long#MAX_VALUE}
+   * means the value does not expire.
+   *
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  public synchronized ValueTypeExpiryPolicy<K, V> expireAfterWrite(Class<?> type, long duration, TimeUnit unit) {
+    if (duration < 0) {
+      throw new IllegalArgumentException("duration must not be negative");
+    }
+    table.put(type, unit.toMillis(duration));
+    resolved.clear();
+    return this;
+  }
+
+  @Override
+  public long calculateExpiryTime(K key, V value, long loadTime, CacheEntry<K, V> oldEntry) {
+    if (value == null) {
+      return calculateFallback(key, value, loadTime, oldEntry);
+    }
+    Class<?> type = value.getClass();
+    Long duration = resolved.get(type);
+    if (duration == null) {
+      duration = resolve(type);
+      resolved.put(type, duration);
+    }
+    long millis = duration;
+    if (millis == USE_FALLBACK) {
+      return calculateFallback(key, value, loadTime, oldEntry);
+    }
+    if (millis == 0) {
+      return NO_CACHE;
+    }
+    if (millis >= ETERNAL - loadTime) {
+      return ETERNAL;
+    }
+    return loadTime + millis;
+  }
+
+  private long calculateFallback(K key, V value, long loadTime, CacheEntry<K, V> oldEntry) {
+    if (fallback == null) {
+      return ETERNAL;
+    }
+    return fallback.calculateExpiryTime(key, value, loadTime, oldEntry);
+  }
+
+  /**
+   * Find the duration for the type. The class hierarchy takes precedence over the
+   * interfaces of a class.
+   */
+  private synchronized long resolve(Class<?> type) {
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      Long duration = table.get(c);
+      if (duration != null) {
+        return duration;
+      }
+    }
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      Long duration = resolveInterfaces(c);
+      if (duration != null) {
+        return duration;
+      }
+    }
+    return USE_FALLBACK;
+  }
+
+  private Long resolveInterfaces(Class<?> type) {
+    for (Class<?> c : type.getInterfaces()) {
+      Long duration = table.get(c);
+      if (duration == null) {
+        duration = resolveInterfaces(c);
+      }
+      if (duration != null) {
+        return duration;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,95 @@
+package org.cache2k.integration;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.CacheOperationCompletionListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loader that retrieves the values for multiple keys with one request, e.g. with a SQL
+ * {@code IN} query or a multi get RPC. The cache uses the bulk operation for
+ * {@link Cache#getAll}, {@link Cache#loadAll(Iterable, CacheOperationCompletionListener)}
+ * and {@link Cache#prefetchAll(Iterable, CacheOperationCompletionListener)}, for all keys
+ * that are missing in the cache. A single key is loaded via {@link #load(Object)}, which
+ * calls the bulk operation with one key by default.
+ *
+ * <p>The returned map may contain only a part of the requested keys. Keys missing from the
+ * result are loaded separately via {@link #load(Object)}. To signal exceptions for
+ * individual keys, the loader throws a {@link BulkCacheLoaderException}, containing the
+ * partial result and the exceptions per key. Any other exception applies to all requested
+ * keys. The exceptions of each key are handled by the {@link ResiliencePolicy}, just like
+ * the exception of a single load.
+ *
+ * <p>The bulk operation is used by the heap cache. If a writer or event listeners are
+ * configured, the cache loads each key separately.
+ *
+ * @author Jens Wilke
+ * @since 1.4
+ * @see BulkCacheLoaderException
+ */
+public abstract class BulkCacheLoader<K, V> extends CacheLoader<K, V> {
+
+  /**
+   * Load the values for the given keys.
+   *
+   * <p>From inside this method it is illegal to call methods on the same cache. This
+   * may cause a deadlock.
+   *
+   * @param keys non empty set of keys to load, the set must not be modified
+   * @return the loaded values. A key may map to {@code null} if the cache permits
+   *         {@code null} values. Keys missing in the map will be loaded separately.
+   * @throws BulkCacheLoaderException to return a partial result and exceptions per key
+   * @throws Exception Unhandled exception from the loader, applied to all keys
+   */
+  public abstract Map<K, V> loadAll(Set<K> keys) throws Exception;
+
+  /**
+   * Loads a single value via {@link #loadAll(Set)}. Override, if the single load
+   * can be done more efficiently.
+   *
+   * @throws CacheLoaderException if the value is missing in the result
+   */
+  @Override
+  public V load(K key) throws Exception {
+    Map<K, V> result;
+    try {
+      result = loadAll(Collections.singleton(key));
+    } catch (BulkCacheLoaderException ex) {
+      Throwable t = ex.getExceptions().get(key);
+      if (t instanceof Exception) {
+        throw (Exception) t;
+      }
+      if (t != null) {
+        throw new CacheLoaderException(t);
+      }
+      result = ex.getResult();
+    }
+    if (!result.containsKey(key)) {
+      throw new CacheLoaderException("bulk loader returned no value for key: " + key);
+    }
+    return result.get(key);
+  }
+
+}
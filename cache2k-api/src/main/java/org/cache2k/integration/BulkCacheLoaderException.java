@@ -0,0 +1,65 @@
+package org.cache2k.integration;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Thrown by a {@link BulkCacheLoader} to return a partial result together with the
+ * exceptions for individual keys. Keys that are neither in the result nor in the
+ * exceptions are loaded separately.
+ *
+ * @author Jens Wilke
+ * @since 1.4
+ */
+public class BulkCacheLoaderException extends CacheLoaderException {
+
+  private final Map<?, ?> result;
+  private final Map<?, Throwable> exceptions;
+
+  /**
+   * @param result successfully loaded values
+   * @param exceptions exception per key that could not be loaded
+   */
+  public <K, V> BulkCacheLoaderException(Map<K, V> result, Map<K, ? extends Throwable> exceptions) {
+    super("bulk load partially failed, " + exceptions.size() + " exceptions");
+    this.result = result;
+    this.exceptions = Collections.unmodifiableMap(exceptions);
+  }
+
+  /**
+   * Values that were loaded successfully.
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> Map<K, V> getResult() {
+    return (Map<K, V>) result;
+  }
+
+  /**
+   * Exceptions for the keys that could not be loaded.
+   */
+  @SuppressWarnings("unchecked")
+  public <K> Map<K, Throwable> getExceptions() {
+    return (Map<K, Throwable>) exceptions;
+  }
+
+}
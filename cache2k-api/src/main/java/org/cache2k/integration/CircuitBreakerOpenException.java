@@ -0,0 +1,38 @@
+package org.cache2k.integration;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * The loader was not called, since the resilience policy detected that the backend
+ * is not available. The exception is handled like an exception from the loader, so
+ * the cache may return the previous value or the cached exception.
+ *
+ * @author Jens Wilke
+ * @see ResiliencePolicy#isLoadPermitted(long)
+ * @since 1.4
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+  public CircuitBreakerOpenException() {
+    super("circuit breaker open, loader not called");
+  }
+
+}
@@ -0,0 +1,160 @@
+package org.cache2k.integration;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Limits the number of concurrent loads and adapts the limit to the observed load
+ * latency. The limit is increased by one after a load, when more than half of the permits
+ * were in use. The limit is decreased by a tenth, when a load fails, or when the load
+ * time is above the average load time multiplied by the latency tolerance. This is the
+ * additive increase, multiplicative decrease (AIMD) scheme known from network congestion
+ * control. If the backend gets slow or fails, the concurrency shrinks quickly, and
+ * grows again slowly, when the backend recovers.
+ *
+ * <p>If no permit is available, a load waits up to the maximum wait time. After that, the
+ * load is rejected and fails with a {@link java.util.concurrent.RejectedExecutionException}.
+ * The exception is handled like any other loader exception, so the
+ * {@link ResiliencePolicy} may decide to keep the current value.
+ *
+ * <p>A limiter instance may be used by multiple caches, if the caches load from the
+ * same backend.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#loaderConcurrencyLimiter(LoaderConcurrencyLimiter)
+ * @since 1.4
+ */
+public class LoaderConcurrencyLimiter {
+
+  private static final int AVERAGE_WEIGHT = 16;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long maxWaitMillis;
+  private final double latencyTolerance;
+  private int limit;
+  private int inFlight;
+  private long averageLatency = -1;
+  private long rejectedCount;
+
+  /**
+   * Limiter with the number of available processors as initial limit, growing up to
+   * four times the processors, and a maximum wait of one second.
+   */
+  public LoaderConcurrencyLimiter() {
+    this(Runtime.getRuntime().availableProcessors(),
+      Runtime.getRuntime().availableProcessors() * 4, 1000, 2.0);
+  }
+
+  /**
+   * @param _initialLimit initial number of concurrent loads
+   * @param _maxLimit the limit does not grow above this value
+   * @param _maxWaitMillis maximum time a load waits for a permit, before it is rejected
+   * @param _latencyTolerance a load taking longer than the average load time multiplied
+   *                          by this factor decreases the limit
+   */
+  public LoaderConcurrencyLimiter(int _initialLimit, int _maxLimit, long _maxWaitMillis,
+                                  double _latencyTolerance) {
+    if (_initialLimit < 1 || _maxLimit < _initialLimit) {
+      throw new IllegalArgumentException("limit must be positive and not above maximum");
+    }
+    minLimit = 1;
+    maxLimit = _maxLimit;
+    limit = _initialLimit;
+    maxWaitMillis = _maxWaitMillis;
+    latencyTolerance = _latencyTolerance;
+  }
+
+  /**
+   * Acquire a permit for a load. Waits up to the maximum wait time, if the limit is reached.
+   *
+   * @return {@code true} if the load can proceed, {@code false} if it should be rejected
+   */
+  public final synchronized boolean acquire() {
+    if (inFlight >= limit && maxWaitMillis > 0) {
+      long _deadline = System.currentTimeMillis() + maxWaitMillis;
+      long _wait = maxWaitMillis;
+      try {
+        while (inFlight >= limit && _wait > 0) {
+          wait(_wait);
+          _wait = _deadline - System.currentTimeMillis();
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (inFlight >= limit) {
+      rejectedCount++;
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * Return the permit after the load completed and adapt the limit.
+   *
+   * @param _latencyMillis the time the load took
+   * @param _failed {@code true} if the load produced an exception
+   */
+  public final synchronized void release(long _latencyMillis, boolean _failed) {
+    int _inFlightBefore = inFlight--;
+    boolean _slow =
+      averageLatency >= 0 && _latencyMillis > Math.max(1, averageLatency) * latencyTolerance;
+    if (!_failed) {
+      averageLatency = averageLatency < 0 ? _latencyMillis :
+        averageLatency + (_latencyMillis - averageLatency) / AVERAGE_WEIGHT;
+    }
+    if (_failed || _slow) {
+      limit = Math.max(minLimit, limit - Math.max(1, limit / 10));
+    } else if (_inFlightBefore * 2 > limit) {
+      limit = Math.min(maxLimit, limit + 1);
+    }
+    notifyAll();
+  }
+
+  /**
+   * Current limit of concurrent loads.
+   */
+  public final synchronized int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Number of loads currently running.
+   */
+  public final synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Number of loads rejected because no permit was available within the maximum wait time.
+   */
+  public final synchronized long getRejectedCount() {
+    return rejectedCount;
+  }
+
+  @Override
+  public String toString() {
+    return "LoaderConcurrencyLimiter(limit=" + getLimit() + ", inFlight=" + getInFlight() +
+      ", rejected=" + getRejectedCount() + ")";
+  }
+
+}
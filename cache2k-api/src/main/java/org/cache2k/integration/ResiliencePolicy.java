@@ -76,6 +76,33 @@ public abstract class ResiliencePolicy<K, V> implements ExpiryTimeValues {
   public abstract long retryLoadAfter(K key,
                                       ExceptionInformation exceptionInformation);
 
+  /**
+   * Called before the loader is called. If {@code false} is returned, the loader is not
+   * called and the load fails with a {@link CircuitBreakerOpenException}, which is handled
+   * like any other loader exception. This is intended to implement a circuit breaker,
+   * which stops the load attempts for all keys, if the backend is down.
+   * The default implementation permits every load.
+   *
+   * @param now the current time in millis
+   */
+  public boolean isLoadPermitted(long now) {
+    return true;
+  }
+
+  /**
+   * Called after the loader returned a value.
+   *
+   * @param now the current time in millis
+   */
+  public void loadSucceeded(long now) { }
+
+  /**
+   * Called after the loader threw an exception. Not called if the load was not permitted.
+   *
+   * @param now the current time in millis
+   */
+  public void loadFailed(long now) { }
+
   /**
    * Provides additional context information. At the moment, this interface provides the
    * relevant configuration settings.
@@ -114,6 +141,14 @@ public abstract class ResiliencePolicy<K, V> implements ExpiryTimeValues {
      */
     long getMaxRetryIntervalMillis();
 
+    /**
+     * Number of consecutive load exceptions, after which loads are not attempted any more.
+     * 0 if no circuit breaker is requested.
+     *
+     * @see org.cache2k.Cache2kBuilder#circuitBreakerThreshold
+     */
+    int getCircuitBreakerThreshold();
+
   }
 
 }
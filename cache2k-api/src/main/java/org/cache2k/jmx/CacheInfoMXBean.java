@@ -110,6 +110,15 @@ public interface CacheInfoMXBean {
    */
   long getRefreshFailedCount();
 
+  /**
+   * Counter how many times a refresh was not done, because the entry was not
+   * accessed since it was loaded.
+   *
+   * @see org.cache2k.Cache2kBuilder#refreshAheadSkipCold(boolean)
+   * @since 1.4
+   */
+  long getRefreshSkippedCount();
+
   /**
    * How many times we had a hit on a refreshed entry.
    */
@@ -192,6 +201,57 @@ public interface CacheInfoMXBean {
    */
   long getTotalLoadMillis();
 
+  /**
+   * Median of the load duration in milliseconds. Only loads that did not end with an
+   * exception are counted, refreshes are counted separately. The reported value has
+   * a relative error up to 12.5 percent.
+   */
+  long getLoadMillisP50();
+
+  /**
+   * 99th percentile of the load duration in milliseconds.
+   *
+   * @see #getLoadMillisP50()
+   */
+  long getLoadMillisP99();
+
+  /**
+   * 99.9th percentile of the load duration in milliseconds.
+   *
+   * @see #getLoadMillisP50()
+   */
+  long getLoadMillisP999();
+
+  /**
+   * 99th percentile of the refresh duration in milliseconds.
+   *
+   * @see #getLoadMillisP50()
+   */
+  long getRefreshMillisP99();
+
+  /**
+   * 99.9th percentile of the refresh duration in milliseconds.
+   *
+   * @see #getLoadMillisP50()
+   */
+  long getRefreshMillisP999();
+
+  /**
+   * 99th percentile of the duration of loads and refreshes ending with an exception,
+   * in milliseconds.
+   *
+   * @see #getLoadMillisP50()
+   */
+  long getLoadExceptionMillisP99();
+
+  /**
+   * 99.9th percentile of the duration of loads and refreshes ending with an exception,
+   * in milliseconds.
+   *
+   * @see #getLoadMillisP50()
+   */
+  long getLoadExceptionMillisP999();
+
   /**
    * Implementation class of the cache.
    */
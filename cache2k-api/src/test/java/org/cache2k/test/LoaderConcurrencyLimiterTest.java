@@ -0,0 +1,88 @@
+package org.cache2k.test;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.integration.LoaderConcurrencyLimiter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jens Wilke
+ */
+public class LoaderConcurrencyLimiterTest {
+
+  LoaderConcurrencyLimiter limiter = new LoaderConcurrencyLimiter(2, 4, 0, 2.0);
+
+  @Test
+  public void rejectAboveLimit() {
+    assertTrue(limiter.acquire());
+    assertTrue(limiter.acquire());
+    assertFalse(limiter.acquire());
+    assertEquals(2, limiter.getInFlight());
+    assertEquals(1, limiter.getRejectedCount());
+  }
+
+  @Test
+  public void additiveIncrease() {
+    limiter.acquire();
+    limiter.acquire();
+    limiter.release(10, false);
+    assertEquals("more than half of the permits in use", 3, limiter.getLimit());
+    limiter.release(10, false);
+    assertEquals(3, limiter.getLimit());
+    for (int i = 0; i < 10; i++) {
+      limiter.acquire();
+      limiter.acquire();
+      limiter.release(10, false);
+      limiter.release(10, false);
+    }
+    assertEquals("maximum", 4, limiter.getLimit());
+  }
+
+  @Test
+  public void decreaseOnFailure() {
+    limiter.acquire();
+    limiter.release(10, true);
+    assertEquals(1, limiter.getLimit());
+    limiter.acquire();
+    limiter.release(10, true);
+    assertEquals("minimum", 1, limiter.getLimit());
+  }
+
+  @Test
+  public void decreaseOnHighLatency() {
+    limiter.acquire();
+    limiter.release(10, false);
+    limiter.acquire();
+    limiter.release(15, false);
+    assertEquals("within tolerance", 2, limiter.getLimit());
+    limiter.acquire();
+    limiter.release(100, false);
+    assertEquals(1, limiter.getLimit());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void illegalLimit() {
+    new LoaderConcurrencyLimiter(0, 4, 0, 2.0);
+  }
+
+}
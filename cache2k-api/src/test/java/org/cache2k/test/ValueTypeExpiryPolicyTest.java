@@ -0,0 +1,101 @@
+package org.cache2k.test;
+
+/*
+ * #%L
+ * cache2k API
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.CacheEntry;
+import org.cache2k.expiry.ExpiryPolicy;
+import org.cache2k.expiry.ExpiryTimeValues;
+import org.cache2k.expiry.ValueTypeExpiryPolicy;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jens Wilke
+ */
+public class ValueTypeExpiryPolicyTest {
+
+  static final long NOW = 1000000;
+
+  ValueTypeExpiryPolicy<Integer, Object> policy = new ValueTypeExpiryPolicy<Integer, Object>()
+    .expireAfterWrite(String.class, 5, TimeUnit.SECONDS)
+    .expireAfterWrite(Number.class, 7, TimeUnit.SECONDS)
+    .expireAfterWrite(CharSequence.class, 11, TimeUnit.SECONDS)
+    .expireAfterWrite(Boolean.class, 0, TimeUnit.SECONDS)
+    .expireAfterWrite(Character.class, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+  long calc(Object v) {
+    return policy.calculateExpiryTime(1, v, NOW, null);
+  }
+
+  @Test
+  public void exactType() {
+    assertEquals(NOW + 5000, calc("abc"));
+    assertEquals(NOW + 5000, calc("again"));
+  }
+
+  @Test
+  public void superClass() {
+    assertEquals(NOW + 7000, calc(123));
+    assertEquals(NOW + 7000, calc(123L));
+  }
+
+  @Test
+  public void viaInterface() {
+    assertEquals(NOW + 11000, calc(new StringBuilder()));
+  }
+
+  @Test
+  public void noCacheAndEternal() {
+    assertEquals(ExpiryTimeValues.NO_CACHE, calc(true));
+    assertEquals(ExpiryTimeValues.ETERNAL, calc('x'));
+  }
+
+  @Test
+  public void otherTypeAndNull() {
+    assertEquals(ExpiryTimeValues.ETERNAL, calc(new Object()));
+    assertEquals(ExpiryTimeValues.ETERNAL, calc(null));
+  }
+
+  @Test
+  public void fallback() {
+    ValueTypeExpiryPolicy<Integer, Object> p = new ValueTypeExpiryPolicy<Integer, Object>(
+      new ExpiryPolicy<Integer, Object>() {
+        @Override
+        public long calculateExpiryTime(final Integer key, final Object value, final long loadTime,
+                                        final CacheEntry<Integer, Object> oldEntry) {
+          return loadTime + 42;
+        }
+      })
+      .expireAfterWrite(String.class, 5, TimeUnit.MILLISECONDS);
+    assertEquals(NOW + 5, p.calculateExpiryTime(1, "abc", NOW, null));
+    assertEquals(NOW + 42, p.calculateExpiryTime(1, new Object(), NOW, null));
+    assertEquals(NOW + 42, p.calculateExpiryTime(1, null, NOW, null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeDuration() {
+    policy.expireAfterWrite(Object.class, -1, TimeUnit.SECONDS);
+  }
+
+}
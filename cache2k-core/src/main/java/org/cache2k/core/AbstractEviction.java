@@ -23,6 +23,9 @@ package org.cache2k.core;
 import org.cache2k.core.concurrency.Job;
 import org.cache2k.Weigher;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Basic eviction functionality.
  *
@@ -34,6 +37,7 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
   public static final int MINIMAL_CHUNK_SIZE = 4;
   public static final int MAXIMAL_CHUNK_SIZE = 64;
   public static final long MINIMUM_CAPACITY_FOR_CHUNKING = 1000;
+  public static final int RELEASE_CHUNK_SIZE = 1000;
 
   protected final long maxSize;
   protected final long maxWeight;
@@ -53,6 +57,8 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
   private int evictionRunningCount = 0;
   private long evictionRunningWeight = 0;
   private final Weigher weigher;
+  private int detachCount = 0;
+  private final List<DetachedList> detachedLists = new ArrayList<DetachedList>();
 
   public AbstractEviction(final HeapCache heapCache, final HeapCacheListener listener,
                           final long maxSize, final Weigher weigher, final long maxWeight,
@@ -157,14 +163,16 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
       return;
     }
     Entry[] evictionChunk = null;
+    int _detachCount;
     synchronized (lock) {
       updateWeightInLock(e);
       if (currentWeight <= (correctedMaxSizeOrWeight + evictionRunningWeight)) {
         return;
       }
       evictionChunk = fillEvictionChunk();
+      _detachCount = detachCount;
     }
-    evictChunk(evictionChunk);
+    evictChunk(evictionChunk, _detachCount);
   }
 
   /** Safe GC overhead by reusing the chunk array. */
@@ -220,13 +228,27 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
     }
   }
 
+  /**
+   * Size or weight is above the limit. In contrast to {@link #isEvictionNeeded()}
+   * there is no room needed for an entry that is about to be inserted.
+   */
+  boolean isLimitExceeded() {
+    if (isWeigherPresent()) {
+      return currentWeight > (correctedMaxSizeOrWeight + evictionRunningWeight);
+    } else {
+      return getSize() > (correctedMaxSizeOrWeight + evictionRunningCount);
+    }
+  }
+
   @Override
   public void evictEventually() {
     Entry[] chunk;
+    int _detachCount;
     synchronized (lock) {
       chunk = fillEvictionChunk();
+      _detachCount = detachCount;
     }
-    evictChunk(chunk);
+    evictChunk(chunk, _detachCount);
   }
 
   @Override
@@ -234,6 +256,25 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
     evictEventually();
   }
 
+  /**
+   * Evict chunks until no eviction is needed. Stops when no entry in a chunk
+   * could be evicted, since all are in processing.
+   */
+  @Override
+  public void evictUntilWithinLimit() {
+    for (;;) {
+      Entry[] chunk;
+      int _detachCount;
+      synchronized (lock) {
+        chunk = isLimitExceeded() ? refillChunk(reuseChunkArray()) : null;
+        _detachCount = detachCount;
+      }
+      if (chunk == null || evictChunk(chunk, _detachCount) == 0) {
+        return;
+      }
+    }
+  }
+
   private Entry[] fillEvictionChunk() {
     if (!isEvictionNeeded()) {
       return null;
@@ -256,12 +297,17 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
     return chunk;
   }
 
-  private int evictChunk(Entry[] chunk) {
+  /**
+   * Evict the entries of the chunk. If the replacement lists were detached meanwhile,
+   * the entries belong to the detached lists and are released by the job returned
+   * from {@link #detachAll()}.
+   */
+  private int evictChunk(Entry[] chunk, int _detachCount) {
     if (chunk == null) { return 0; }
     int processCount = removeFromHash(chunk);
     if (processCount > 0) {
       synchronized (lock) {
-        removeAllFromReplacementListOnEvict(chunk);
+        removeAllFromReplacementListOnEvict(chunk, _detachCount == detachCount);
         evictChunkReuse = chunk;
       }
     }
@@ -318,11 +364,11 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
     return processCount;
   }
 
-  private void removeAllFromReplacementListOnEvict(final Entry[] chunk) {
+  private void removeAllFromReplacementListOnEvict(final Entry[] chunk, final boolean _attached) {
     for (int i = 0; i < chunk.length; i++) {
       Entry e = chunk[i];
       if (e != null) {
-        if (!e.isRemovedFromReplacementList()) {
+        if (_attached && !e.isRemovedFromReplacementList()) {
           removeFromReplacementListOnEvict(e);
           updateTotalWeightForRemove(e);
           evictedCount++;
@@ -410,6 +456,79 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
 
   protected void removeFromReplacementListOnEvict(Entry e) { removeFromReplacementList(e); }
 
+  /**
+   * Replace the replacement lists with empty ones. Evictions running concurrently
+   * recognize the detached entries by the changed detach count.
+   */
+  @Override
+  public Runnable detachAll() {
+    synchronized (lock) {
+      detachCount++;
+      currentWeight = 0;
+      final List<DetachedList> _lists = new ArrayList<DetachedList>();
+      for (Entry _head : detachReplacementLists()) {
+        if (_head != null) {
+          _lists.add(new DetachedList(_head));
+        }
+      }
+      detachedLists.addAll(_lists);
+      return new Runnable() {
+        @Override
+        public void run() {
+          for (DetachedList l : _lists) {
+            releaseDetachedList(l);
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Mark all entries of the detached cyclic list as removed. The lock is released
+   * after each chunk, so concurrent cache operations are not blocked for long.
+   */
+  private void releaseDetachedList(final DetachedList l) {
+    boolean _done = false;
+    while (!_done) {
+      synchronized (lock) {
+        Entry e = l.next;
+        for (int i = 0; i < RELEASE_CHUNK_SIZE && e != null; i++) {
+          Entry _next = e.next;
+          releaseDetachedEntry(e);
+          e = _next == l.head ? null : _next;
+        }
+        l.next = e;
+        if (e == null) {
+          detachedLists.remove(l);
+          _done = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sum of the hit counters of the detached entries, which are not released yet.
+   * Called with the eviction lock held.
+   */
+  protected long sumUpDetachedHits() {
+    long cnt = 0;
+    for (DetachedList l : detachedLists) {
+      Entry e = l.next;
+      do {
+        cnt += e.hitCnt;
+        e = e.next;
+      } while (e != l.head);
+    }
+    return cnt;
+  }
+
+  /**
+   * Mark the entry of a detached list as removed. Called with the eviction lock held.
+   */
+  protected void releaseDetachedEntry(Entry e) {
+    e.removedFromList();
+  }
+
   /**
    * Find a candidate for eviction. The caller needs to provide the previous eviction
    * candidate if this method is called multiple times until a fit is found.
@@ -423,6 +542,28 @@ public abstract class AbstractEviction implements Eviction, EvictionMetrics {
   protected abstract void removeFromReplacementList(Entry e);
   protected abstract void insertIntoReplacementList(Entry e);
 
+  /**
+   * Replace the replacement lists with empty ones and reset the size.
+   *
+   * @return heads of the detached cyclic lists, an element may be {@code null}
+   */
+  protected abstract Entry[] detachReplacementLists();
+
+  /**
+   * Detached cyclic replacement list. Entries from {@code next} up to the list end
+   * are not released yet.
+   */
+  static class DetachedList {
+
+    final Entry head;
+    Entry next;
+
+    DetachedList(final Entry _head) {
+      head = next = _head;
+    }
+
+  }
+
   @Override
   public String getExtraStatistics() {
     return
@@ -0,0 +1,200 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Maps attributes extracted from the cached values to the entries. Common base of the
+ * secondary indexes and the tag index, which differ only in how the attributes of a
+ * value are extracted. The index is updated when a value is set or an entry is removed
+ * from the hash table, see {@link HeapCache#updateIndexes(Entry, Object)}.
+ *
+ * <p>The attributes indexed for an entry are recorded, so the entry is removed from
+ * the index without calling the extractor again. The extractor may not be deterministic,
+ * may throw an exception, or the value may have been mutated after it was inserted.
+ *
+ * <p>Updates are done while holding the entry lock, except for the eviction. An update
+ * racing with the eviction removes the entry again, after it was recorded. A lookup
+ * checks every entry again and drops entries that are gone.
+ *
+ * <p>An exception from the extractor is logged and counted as internal exception and
+ * the value is not indexed. Propagating it would leave the entry half updated, since
+ * the index is updated after the value was set.
+ *
+ * @author Jens Wilke
+ */
+abstract class AttributeIndex<K, V> {
+
+  private final InternalCache<K, V> cache;
+  private volatile ConcurrentHashMap<Object, Set<Entry<K, V>>> map =
+    new ConcurrentHashMap<Object, Set<Entry<K, V>>>();
+  /** Attributes the entry is indexed with, entries without attributes are not contained */
+  private volatile ConcurrentHashMap<Entry<K, V>, Set<Object>> entry2attributes =
+    new ConcurrentHashMap<Entry<K, V>, Set<Object>>();
+
+  AttributeIndex(final InternalCache<K, V> _cache) {
+    cache = _cache;
+  }
+
+  /**
+   * Call the extractor.
+   *
+   * @return the attributes of the value or {@code null}, if not indexed
+   */
+  protected abstract Collection<?> extractAttributes(K key, V value);
+
+  /**
+   * Attributes of the value. Exceptions, {@code null} values and the initial value of
+   * a new entry are not indexed.
+   */
+  final Collection<?> attributes(Entry<K, V> e, V _valueOrException) {
+    if (_valueOrException == null || _valueOrException instanceof ExceptionWrapper ||
+      _valueOrException == Entry.INITIAL_VALUE) {
+      return Collections.emptySet();
+    }
+    Collection<?> _attributes;
+    try {
+      _attributes = extractAttributes(e.getKey(), _valueOrException);
+    } catch (Throwable t) {
+      cache.logAndCountInternalException("Index extractor exception, value not indexed", t);
+      return Collections.emptySet();
+    }
+    return _attributes == null ? Collections.emptySet() : _attributes;
+  }
+
+  /**
+   * True, if the value has the attribute. Used to check the entries of a lookup.
+   */
+  final boolean matches(Entry<K, V> e, V _valueOrException, Object _attribute) {
+    return attributes(e, _valueOrException).contains(_attribute);
+  }
+
+  /**
+   * The value of the entry was changed. The attributes are copied, since the
+   * extractor may return a collection that is part of the value.
+   */
+  final void update(Entry<K, V> e, V _valueOrException) {
+    Set<Object> _attributes = new HashSet<Object>(attributes(e, _valueOrException));
+    Set<Object> _previous = _attributes.isEmpty() ?
+      entry2attributes.remove(e) : entry2attributes.put(e, _attributes);
+    if (_previous != null) {
+      for (Object a : _previous) {
+        if (!_attributes.contains(a)) {
+          remove(a, e);
+        }
+      }
+    }
+    for (Object a : _attributes) {
+      if (_previous == null || !_previous.contains(a)) {
+        add(a, e);
+      }
+    }
+    if (e.isGone()) {
+      // racing eviction, which sets the entry gone before removing it from the index
+      remove(e);
+    }
+  }
+
+  /**
+   * The entry is removed from the cache or was found to be gone by a lookup.
+   * Removes the attributes recorded by the last update.
+   */
+  final void remove(Entry<K, V> e) {
+    Set<Object> _attributes = entry2attributes.remove(e);
+    if (_attributes == null) {
+      return;
+    }
+    for (Object a : _attributes) {
+      remove(a, e);
+    }
+  }
+
+  private void add(Object _attribute, final Entry<K, V> e) {
+    map.compute(_attribute, new BiFunction<Object, Set<Entry<K, V>>, Set<Entry<K, V>>>() {
+      @Override
+      public Set<Entry<K, V>> apply(final Object _key, Set<Entry<K, V>> _entries) {
+        if (_entries == null) {
+          _entries = ConcurrentHashMap.newKeySet();
+        }
+        _entries.add(e);
+        return _entries;
+      }
+    });
+  }
+
+  /**
+   * Remove the entry, drop the attribute when no entry is left.
+   */
+  private void remove(Object _attribute, final Entry<K, V> e) {
+    map.computeIfPresent(_attribute, new BiFunction<Object, Set<Entry<K, V>>, Set<Entry<K, V>>>() {
+      @Override
+      public Set<Entry<K, V>> apply(final Object _key, final Set<Entry<K, V>> _entries) {
+        _entries.remove(e);
+        return _entries.isEmpty() ? null : _entries;
+      }
+    });
+  }
+
+  /**
+   * Copy of the entries indexed with the attribute. The entries need to be checked by
+   * the caller.
+   */
+  final List<Entry<K, V>> lookup(Object _attribute) {
+    Set<Entry<K, V>> _entries = map.get(_attribute);
+    if (_entries == null) {
+      return Collections.emptyList();
+    }
+    return new ArrayList<Entry<K, V>>(_entries);
+  }
+
+  /**
+   * Replace the map instead of clearing it, which would need time proportional
+   * to the number of attributes.
+   */
+  final void clear() {
+    map = new ConcurrentHashMap<Object, Set<Entry<K, V>>>();
+    entry2attributes = new ConcurrentHashMap<Entry<K, V>, Set<Object>>();
+  }
+
+  /**
+   * Number of distinct attributes in the index.
+   */
+  final int getAttributeCount() {
+    return map.size();
+  }
+
+  /**
+   * Number of entries in the index.
+   */
+  final int getEntryCount() {
+    return entry2attributes.size();
+  }
+
+}
@@ -33,10 +33,16 @@ import org.cache2k.core.operation.Semantic;
 import org.cache2k.core.storageApi.StorageAdapter;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Some default implementations for a cache.
@@ -60,6 +66,15 @@ public abstract class BaseCache<K, V> implements InternalCache<K, V> {
 
   protected abstract Iterator<CacheEntry<K, V>> iterator();
 
+  /**
+   * Spliterator over all entries, used for streams over {@link #entries()} and {@link #keys()}.
+   * The default wraps the iterator and does not support efficient splitting.
+   */
+  protected Spliterator<CacheEntry<K, V>> spliterator() {
+    return Spliterators.spliteratorUnknownSize(iterator(),
+      Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.NONNULL);
+  }
+
   /**
    * Key iteration on top of normal iterator.
    */
@@ -86,9 +101,63 @@ public abstract class BaseCache<K, V> implements InternalCache<K, V> {
           }
         };
       }
+
+      @Override
+      public Spliterator<K> spliterator() {
+        return new KeySpliterator<K, V>(BaseCache.this.spliterator());
+      }
     };
   }
 
+  /**
+   * Maps the entry spliterator to the keys.
+   */
+  private static class KeySpliterator<K, V> implements Spliterator<K> {
+
+    private final Spliterator<CacheEntry<K, V>> spliterator;
+
+    KeySpliterator(Spliterator<CacheEntry<K, V>> _spliterator) {
+      spliterator = _spliterator;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super K> _action) {
+      return spliterator.tryAdvance(new Consumer<CacheEntry<K, V>>() {
+        @Override
+        public void accept(CacheEntry<K, V> e) {
+          _action.accept(e.getKey());
+        }
+      });
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super K> _action) {
+      spliterator.forEachRemaining(new Consumer<CacheEntry<K, V>>() {
+        @Override
+        public void accept(CacheEntry<K, V> e) {
+          _action.accept(e.getKey());
+        }
+      });
+    }
+
+    @Override
+    public Spliterator<K> trySplit() {
+      Spliterator<CacheEntry<K, V>> _split = spliterator.trySplit();
+      return _split == null ? null : new KeySpliterator<K, V>(_split);
+    }
+
+    @Override
+    public long estimateSize() {
+      return spliterator.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+      return spliterator.characteristics();
+    }
+
+  }
+
   @Override
   public Iterable<CacheEntry<K, V>> entries() {
     return new Iterable<CacheEntry<K, V>>() {
@@ -96,6 +165,11 @@ public abstract class BaseCache<K, V> implements InternalCache<K, V> {
       public Iterator<CacheEntry<K, V>> iterator() {
         return BaseCache.this.iterator();
       }
+
+      @Override
+      public Spliterator<CacheEntry<K, V>> spliterator() {
+        return BaseCache.this.spliterator();
+      }
     };
   }
 
@@ -132,50 +206,93 @@ public abstract class BaseCache<K, V> implements InternalCache<K, V> {
   @Override
   public StorageAdapter getStorage() { return null; }
 
+  @SuppressWarnings("unchecked")
   @Override
   public <R> Map<K, EntryProcessingResult<R>> invokeAll(Iterable<? extends K> keys, EntryProcessor<K, V, R> entryProcessor) {
+    Executor _executor = getInvokeAllExecutor();
+    int _chunkSize = HeapCache.TUNABLE.invokeAllChunkSize;
+    if (_executor != null) {
+      List<K> _keyList = new ArrayList<K>();
+      for (K k : keys) {
+        _keyList.add(k);
+      }
+      if (_keyList.size() > _chunkSize) {
+        K[] _keys = (K[]) _keyList.toArray();
+        return new ParallelInvokeAll<K, V, R>(this, _keys, entryProcessor, _chunkSize)
+          .execute(_executor, Runtime.getRuntime().availableProcessors());
+      }
+      keys = _keyList;
+    }
     Map<K, EntryProcessingResult<R>> m = new HashMap<K, EntryProcessingResult<R>>();
     for (K k : keys) {
       try {
-        final R _result = invoke(k, entryProcessor);
+        R _result = invoke(k, entryProcessor);
         if (_result == null) {
           continue;
         }
-        m.put(k, new EntryProcessingResult<R>() {
-          @Override
-          public R getResult() {
-            return _result;
-          }
-
-          @Override
-          public Throwable getException() {
-            return null;
-          }
-        });
+        m.put(k, new ProcessingResult<R>(_result, null));
       } catch (EntryProcessingException t) {
-        final Throwable _cause = t.getCause();
-        m.put(k, new EntryProcessingResult<R>() {
-          @Override
-          public R getResult() {
-            throw new EntryProcessingException(_cause);
-          }
-
-          @Override
-          public Throwable getException() {
-            return _cause;
-          }
-        });
+        m.put(k, new ProcessingResult<R>(null, t.getCause()));
       }
     }
     return m;
   }
 
+  /**
+   * Executor to run {@link #invokeAll} in parallel or {@code null}, if parallel execution
+   * is not enabled.
+   *
+   * @see org.cache2k.Cache2kBuilder#parallelInvokeAll(boolean)
+   */
+  protected Executor getInvokeAllExecutor() {
+    return null;
+  }
+
+  /**
+   * Result of {@link #invokeAll} for one key.
+   */
+  static final class ProcessingResult<R> implements EntryProcessingResult<R> {
+
+    private final R result;
+    private final Throwable exception;
+
+    ProcessingResult(final R _result, final Throwable _exception) {
+      result = _result;
+      exception = _exception;
+    }
+
+    @Override
+    public R getResult() {
+      if (exception != null) {
+        throw new EntryProcessingException(exception);
+      }
+      return result;
+    }
+
+    @Override
+    public Throwable getException() {
+      return exception;
+    }
+
+  }
+
   protected <R> R execute(K key, Entry<K, V> e, Semantic<K, V, R> op) {
     EntryAction<K, V, R> _action = createEntryAction(key, e, op);
     return execute(_action);
   }
 
-  protected abstract <R> EntryAction<K, V, R> createEntryAction(K key, Entry<K, V> e, Semantic<K, V, R> op);
+  protected <R> EntryAction<K, V, R> createEntryAction(K key, Entry<K, V> e, Semantic<K, V, R> op) {
+    return createEntryAction(key, e, op, null);
+  }
+
+  /**
+   * Create an entry action. With a callback the action runs asynchronously and
+   * the callback is called on completion.
+   *
+   * @param cb completion callback or {@code null} for a synchronous call
+   */
+  protected abstract <R> EntryAction<K, V, R> createEntryAction(K key, Entry<K, V> e, Semantic<K, V, R> op,
+                                                                EntryAction.CompletedCallback cb);
 
   protected <R> R execute(final EntryAction<K, V, R> _action) {
     _action.start();
@@ -0,0 +1,186 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.CacheEntry;
+import org.cache2k.integration.AdvancedCacheLoader;
+import org.cache2k.integration.BulkCacheLoader;
+import org.cache2k.integration.BulkCacheLoaderException;
+import org.cache2k.integration.CacheLoaderException;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalesces concurrent single key loads into bulk loads. The first load starts a new
+ * batch and waits until the time window has passed or the batch is full. Then it
+ * calls the bulk loader for all keys collected in the batch. The other loads in the
+ * batch wait for the result. Keys missing in the bulk result are loaded separately.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#loaderBatchWindow
+ */
+public class BatchingBulkLoader<K, V> extends AdvancedCacheLoader<K, V> {
+
+  private final BulkCacheLoader<K, V> forward;
+  private final long windowMillis;
+  private final int maxBatchSize;
+  private Batch<K, V> current;
+
+  public BatchingBulkLoader(BulkCacheLoader<K, V> _forward, long _windowMillis, int _maxBatchSize) {
+    forward = _forward;
+    windowMillis = _windowMillis;
+    maxBatchSize = _maxBatchSize;
+  }
+
+  @Override
+  public V load(final K key, final long startTime, final CacheEntry<K, V> currentEntry) throws Exception {
+    Batch<K, V> b;
+    boolean _leader = false;
+    boolean _full = false;
+    synchronized (this) {
+      b = current;
+      if (b == null) {
+        b = current = new Batch<K, V>();
+        _leader = true;
+      }
+      b.keys.add(key);
+      if (b.keys.size() >= maxBatchSize) {
+        current = null;
+        _full = true;
+      }
+    }
+    if (_leader) {
+      if (!_full) {
+        b.awaitWindow(windowMillis);
+      }
+      synchronized (this) {
+        if (current == b) {
+          current = null;
+        }
+      }
+      b.execute(forward);
+    } else {
+      if (_full) {
+        b.signalFull();
+      }
+      b.awaitResult();
+    }
+    return b.getResult(key, forward);
+  }
+
+  static class Batch<K, V> {
+
+    /** Keys in the batch, modified when holding the lock of the batching loader */
+    final Set<K> keys = new HashSet<K>();
+    private boolean full = false;
+    private boolean done = false;
+    private Map<K, V> result = Collections.emptyMap();
+    private Map<K, Throwable> exceptions = Collections.emptyMap();
+    private Throwable commonException;
+
+    synchronized void signalFull() {
+      full = true;
+      notifyAll();
+    }
+
+    synchronized void awaitWindow(long _millis) {
+      long _deadline = System.currentTimeMillis() + _millis;
+      boolean _interrupted = false;
+      long _wait;
+      while (!full && (_wait = _deadline - System.currentTimeMillis()) > 0) {
+        try {
+          wait(_wait);
+        } catch (InterruptedException ex) {
+          _interrupted = true;
+          break;
+        }
+      }
+      if (_interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Run the bulk load. The batch is not reachable for new loads any more, so
+     * the key set is stable.
+     */
+    void execute(BulkCacheLoader<K, V> _loader) {
+      Map<K, V> _result = Collections.emptyMap();
+      Map<K, Throwable> _exceptions = Collections.emptyMap();
+      Throwable _commonException = null;
+      try {
+        _result = _loader.loadAll(Collections.unmodifiableSet(keys));
+      } catch (BulkCacheLoaderException ex) {
+        _result = ex.getResult();
+        _exceptions = ex.getExceptions();
+      } catch (Throwable ex) {
+        _commonException = ex;
+      }
+      synchronized (this) {
+        result = _result;
+        exceptions = _exceptions;
+        commonException = _commonException;
+        done = true;
+        notifyAll();
+      }
+    }
+
+    synchronized void awaitResult() {
+      boolean _interrupted = false;
+      while (!done) {
+        try {
+          wait();
+        } catch (InterruptedException ex) {
+          _interrupted = true;
+        }
+      }
+      if (_interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Value or exception for the key. Called after the result is available. Keys missing
+     * in the result are loaded separately.
+     */
+    V getResult(K key, BulkCacheLoader<K, V> _loader) throws Exception {
+      Throwable t = commonException != null ? commonException : exceptions.get(key);
+      if (t instanceof Exception) {
+        throw (Exception) t;
+      }
+      if (t instanceof Error) {
+        throw (Error) t;
+      }
+      if (t != null) {
+        throw new CacheLoaderException(t);
+      }
+      if (result.containsKey(key)) {
+        return result.get(key);
+      }
+      return _loader.load(key);
+    }
+
+  }
+
+}
@@ -52,6 +52,9 @@ class CacheBaseInfo implements InternalCacheInfo {
   private int loaderThreadsLimit = -1;
   private long asyncLoadsStarted = -1;
   private long asyncLoadsInFlight = -1;
+  private LatencyHistogram loadLatency;
+  private LatencyHistogram refreshLatency;
+  private LatencyHistogram loadExceptionLatency;
   private int loaderThreadsMaxActive = -1;
 
   /*
@@ -108,8 +111,16 @@ class CacheBaseInfo implements InternalCacheInfo {
       asyncLoadsStarted = ex.getTaskCount();
       loaderThreadsLimit = ex.getCorePoolSize();
       loaderThreadsMaxActive = ex.getLargestPoolSize();
+    } else if (_heapCache.loaderExecutor instanceof SharedLoaderPool.Client) {
+      SharedLoaderPool.Client c = (SharedLoaderPool.Client) _heapCache.loaderExecutor;
+      asyncLoadsInFlight = c.getRunningCount();
+      asyncLoadsStarted = c.getStartedCount();
+      loaderThreadsLimit = c.getMaxConcurrency();
     }
     totalLoadCnt = metrics.getLoadCount() + metrics.getReloadCount() + metrics.getRefreshCount();
+    loadLatency = metrics.getLoadLatency().copy();
+    refreshLatency = metrics.getRefreshLatency().copy();
+    loadExceptionLatency = metrics.getLoadExceptionLatency().copy();
   }
 
   String percentString(double d) {
@@ -168,6 +179,12 @@ class CacheBaseInfo implements InternalCacheInfo {
   @Override
   public long getRefreshFailedCount() { return metrics.getRefreshFailedCount(); }
   @Override
+  public long getRefreshJitterCount() { return metrics.getRefreshJitterCount(); }
+  @Override
+  public long getRefreshJitterMillis() { return metrics.getRefreshJitterMillis(); }
+  @Override
+  public long getRefreshSkippedCount() { return metrics.getRefreshSkippedCount(); }
+  @Override
   public long getSuppressedExceptionCount() { return metrics.getSuppressedExceptionCount(); }
   @Override
   public long getLoadExceptionCount() { return metrics.getLoadExceptionCount() + metrics.getSuppressedExceptionCount(); }
@@ -219,6 +236,12 @@ class CacheBaseInfo implements InternalCacheInfo {
   @Override
   public long getLoadMillis() { return metrics.getLoadMillis(); }
   @Override
+  public LatencyHistogram getLoadLatency() { return loadLatency; }
+  @Override
+  public LatencyHistogram getRefreshLatency() { return refreshLatency; }
+  @Override
+  public LatencyHistogram getLoadExceptionLatency() { return loadExceptionLatency; }
+  @Override
   public int getHashCollisionCount() { return collisionInfo.collisionCnt; }
   @Override
   public int getHashCollisionSlotCount() { return collisionInfo.collisionSlotCnt; }
@@ -317,6 +340,9 @@ class CacheBaseInfo implements InternalCacheInfo {
       .append("refresh=").append(getRefreshCount()).append(", ")
       .append("refreshFailed=").append(getRefreshFailedCount()).append(", ")
       .append("refreshedHit=").append(getRefreshedHitCount()).append(", ")
+      .append("refreshJitter=").append(getRefreshJitterCount()).append(", ")
+      .append("refreshJitterMillis=").append(getRefreshJitterMillis()).append(", ")
+      .append("refreshSkipped=").append(getRefreshSkippedCount()).append(", ")
       .append("loadException=").append(getLoadExceptionCount()).append(", ")
       .append("suppressedException=").append(getSuppressedExceptionCount()).append(", ")
       .append("new=").append(getNewEntryCount()).append(", ")
@@ -93,6 +93,11 @@ public class CacheMXBeanImpl implements CacheMXBean {
     return getInfo().getRefreshFailedCount();
   }
 
+  @Override
+  public long getRefreshSkippedCount() {
+    return getInfo().getRefreshSkippedCount();
+  }
+
   @Override
   public long getRefreshedHitCount() {
     return getInfo().getRefreshedHitCount();
@@ -168,6 +173,41 @@ public class CacheMXBeanImpl implements CacheMXBean {
     return getInfo().getLoadMillis();
   }
 
+  @Override
+  public long getLoadMillisP50() {
+    return getInfo().getLoadLatency().getValueAtPercentile(50);
+  }
+
+  @Override
+  public long getLoadMillisP99() {
+    return getInfo().getLoadLatency().getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getLoadMillisP999() {
+    return getInfo().getLoadLatency().getValueAtPercentile(99.9);
+  }
+
+  @Override
+  public long getRefreshMillisP99() {
+    return getInfo().getRefreshLatency().getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getRefreshMillisP999() {
+    return getInfo().getRefreshLatency().getValueAtPercentile(99.9);
+  }
+
+  @Override
+  public long getLoadExceptionMillisP99() {
+    return getInfo().getLoadExceptionLatency().getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getLoadExceptionMillisP999() {
+    return getInfo().getLoadExceptionLatency().getValueAtPercentile(99.9);
+  }
+
   @Override
   public String getIntegrityDescriptor() {
     return getInfo().getIntegrityDescriptor();
@@ -103,6 +103,7 @@ public class CacheManagerImpl extends CacheManager {
   private boolean defaultManager;
   private Cache2kCoreProviderImpl provider;
   private boolean closing;
+  private SharedLoaderPool sharedLoaderPool;
 
   public CacheManagerImpl(Cache2kCoreProviderImpl _provider, ClassLoader cl, String _name, boolean _default) {
     provider = _provider;
@@ -309,6 +310,9 @@ public class CacheManagerImpl extends CacheManager {
       for (Cache c : cacheNames.values()) {
         log.warn("unable to close cache: " + c.getName());
       }
+      if (sharedLoaderPool != null) {
+        sharedLoaderPool.close();
+      }
     }
     eventuallyThrowException(_suppressedExceptions);
     cacheNames = null;
@@ -373,6 +377,23 @@ public class CacheManagerImpl extends CacheManager {
     return closing;
   }
 
+  /**
+   * Loader thread pool shared by the caches, created on first use.
+   *
+   * @see org.cache2k.Cache2kBuilder#sharedLoaderPool(boolean)
+   */
+  public SharedLoaderPool getSharedLoaderPool() {
+    synchronized (lock) {
+      if (sharedLoaderPool == null) {
+        int _threadCount =
+          Runtime.getRuntime().availableProcessors() * HeapCache.TUNABLE.loaderThreadCountCpuFactor;
+        sharedLoaderPool = new SharedLoaderPool(_threadCount,
+          HeapCache.TUNABLE.sharedLoaderPoolQueueCapacity, "cache2k-loader-" + name);
+      }
+      return sharedLoaderPool;
+    }
+  }
+
   /**
    * Used for JSR107 cache manager implementation
    */
@@ -104,42 +104,30 @@ public class ClockProPlusEviction extends AbstractEviction {
 
   @Override
   public long getHitCount() {
-    return hotHits + coldHits + sumUpListHits(handCold) + sumUpListHits(handHot);
+    return hotHits + coldHits + sumUpListHits(handCold) + sumUpListHits(handHot) + sumUpDetachedHits();
   }
 
   @Override
-  public long removeAll() {
-    Entry e, head;
-    int count = 0;
-    e = head = handCold;
-    long hits = 0;
-    if (e != null) {
-      do {
-        hits += e.hitCnt;
-        Entry next = e.prev;
-        e.removedFromList();
-        count++;
-        e = next;
-      } while (e != head);
-      coldHits += hits;
-    }
+  protected Entry[] detachReplacementLists() {
+    Entry[] _heads = new Entry[]{handCold, handHot};
     handCold = null;
     coldSize = 0;
-    e = head = handHot;
-    if (e != null) {
-      hits = 0;
-      do {
-        hits += e.hitCnt;
-        Entry next = e.prev;
-        e.removedFromList();
-        count++;
-        e = next;
-      } while (e != head);
-      hotHits += hits;
-    }
     handHot = null;
     hotSize = 0;
-    return count;
+    return _heads;
+  }
+
+  /**
+   * Keep the hits of the detached entry in the counters of its clock.
+   */
+  @Override
+  protected void releaseDetachedEntry(final Entry e) {
+    if (e.isHot()) {
+      hotHits += e.hitCnt;
+    } else {
+      coldHits += e.hitCnt;
+    }
+    super.releaseDetachedEntry(e);
   }
 
   /**
@@ -134,6 +134,28 @@ public interface CommonMetrics {
    */
   long getRefreshFailedCount();
 
+  /**
+   * Refresh timer was scheduled before the expiry time, because a refresh
+   * jitter is configured.
+   *
+   * @see InternalCacheInfo#getRefreshJitterCount()
+   */
+  long getRefreshJitterCount();
+
+  /**
+   * Accumulated milliseconds the refresh timers were scheduled before the expiry time.
+   *
+   * @see InternalCacheInfo#getRefreshJitterMillis()
+   */
+  long getRefreshJitterMillis();
+
+  /**
+   * Refresh was not done, because the entry was not accessed since the last load.
+   *
+   * @see InternalCacheInfo#getRefreshSkippedCount()
+   */
+  long getRefreshSkippedCount();
+
   /**
    * Entry was removed while waiting to get the mutation lock.
    *
@@ -141,6 +163,27 @@ public interface CommonMetrics {
    */
   long getGoneSpinCount();
 
+  /**
+   * Latency of loads and reloads in milliseconds, that did not end with an exception.
+   *
+   * @see InternalCacheInfo#getLoadLatency()
+   */
+  LatencyHistogram getLoadLatency();
+
+  /**
+   * Latency of refreshes in milliseconds, that did not end with an exception.
+   *
+   * @see InternalCacheInfo#getRefreshLatency()
+   */
+  LatencyHistogram getRefreshLatency();
+
+  /**
+   * Latency of loads, reloads and refreshes in milliseconds, that ended with an exception.
+   *
+   * @see InternalCacheInfo#getLoadExceptionLatency()
+   */
+  LatencyHistogram getLoadExceptionLatency();
+
   /**
    * True if statistics are disabled.
    */
@@ -190,9 +233,21 @@ public interface CommonMetrics {
     void refreshFailed();
     void refreshFailed(long cnt);
 
+    void refreshJitter(long _millis);
+    void refreshJitter(long cnt, long _millis);
+
+    void refreshSkipped();
+    void refreshSkipped(long cnt);
+
     void goneSpin();
     void goneSpin(long cnt);
 
+    void loadLatency(long _millis);
+
+    void refreshLatency(long _millis);
+
+    void loadExceptionLatency(long _millis);
+
   }
 
   class BlackHole implements Updater {
@@ -337,6 +392,26 @@ public interface CommonMetrics {
 
     }
 
+    @Override
+    public void refreshJitter(final long _millis) {
+
+    }
+
+    @Override
+    public void refreshJitter(final long cnt, final long _millis) {
+
+    }
+
+    @Override
+    public void refreshSkipped() {
+
+    }
+
+    @Override
+    public void refreshSkipped(final long cnt) {
+
+    }
+
     @Override
     public void goneSpin() {
 
@@ -422,11 +497,56 @@ public interface CommonMetrics {
       return 0;
     }
 
+    @Override
+    public long getRefreshJitterCount() {
+      return 0;
+    }
+
+    @Override
+    public long getRefreshJitterMillis() {
+      return 0;
+    }
+
+    @Override
+    public long getRefreshSkippedCount() {
+      return 0;
+    }
+
     @Override
     public long getGoneSpinCount() {
       return 0;
     }
 
+    @Override
+    public void loadLatency(final long _millis) {
+
+    }
+
+    @Override
+    public void refreshLatency(final long _millis) {
+
+    }
+
+    @Override
+    public void loadExceptionLatency(final long _millis) {
+
+    }
+
+    @Override
+    public LatencyHistogram getLoadLatency() {
+      return new LatencyHistogram();
+    }
+
+    @Override
+    public LatencyHistogram getRefreshLatency() {
+      return new LatencyHistogram();
+    }
+
+    @Override
+    public LatencyHistogram getLoadExceptionLatency() {
+      return new LatencyHistogram();
+    }
+
     @Override
     public boolean isDisabled() {
       return true;
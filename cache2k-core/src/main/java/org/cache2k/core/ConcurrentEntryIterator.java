@@ -20,19 +20,18 @@ package org.cache2k.core;
  * #L%
  */
 
-import org.cache2k.core.concurrency.Job;
-
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * Iterator over all cache entries.
  *
  * <p>Hash expansion: During the iteration a hash expansion may happen, which means every
- * entry is rehashed. In this case it is most likely that entries are missed.
- * If an expansion occurred, the iteration will restart from the beginning. To ensure that every
- * entry is only iterated once, the iterator has an internal bookkeeping, what was previously iterated.
+ * entry is rehashed. The iteration works on bucket groups relative to the table length
+ * at the start of the iteration, see {@link ConcurrentEntrySpliterator}. Every entry
+ * is only iterated once, without internal bookkeeping of the previously iterated keys.
+ * The extra memory needed is constant, apart from the entries of one bucket group.
  *
  * <p>Clear: A clear operation stops current iterations.
  *
@@ -42,36 +41,46 @@ import java.util.NoSuchElementException;
  */
 public class ConcurrentEntryIterator<K,V> implements Iterator<Entry<K,V>> {
 
-  private HeapCache<K, V> cache;
-  private Entry<K, V> lastEntry = null;
+  private ConcurrentEntrySpliterator<K,V> spliterator;
   private Entry<K, V> nextEntry = null;
-  private long clearCount;
-  private Hash2<K,V> hash;
-  private Entry<K,V>[] hashArray;
-  private HashMap<K,K> seen = new HashMap<K, K>();
+  private final Consumer<Entry<K,V>> capture = new Consumer<Entry<K, V>>() {
+    @Override
+    public void accept(Entry<K, V> e) {
+      nextEntry = e;
+    }
+  };
 
   public ConcurrentEntryIterator(HeapCache<K,V> _cache) {
-    cache = _cache;
-    hash = cache.hash;
-    switchAndCheckAbort();
+    spliterator = new ConcurrentEntrySpliterator<K,V>(_cache);
   }
 
   @Override
   public boolean hasNext() {
-    return (nextEntry = nextEntry()) != null;
+    if (nextEntry != null) {
+      return true;
+    }
+    if (spliterator == null) {
+      return false;
+    }
+    try {
+      if (spliterator.tryAdvance(capture)) {
+        return true;
+      }
+    } catch (CacheClosedException ex) {
+      clearOutReferences();
+      throw ex;
+    }
+    clearOutReferences();
+    return false;
   }
 
   @Override
   public Entry<K,V> next() {
-    if (nextEntry != null) {
-      Entry<K,V> e = nextEntry;
-      nextEntry = null;
-      return e;
-    }
-    Entry<K,V> e = nextEntry();
-    if (e == null) {
+    if (!hasNext()) {
       throw new NoSuchElementException("not available");
     }
+    Entry<K,V> e = nextEntry;
+    nextEntry = null;
     return e;
   }
 
@@ -80,138 +89,13 @@ public class ConcurrentEntryIterator<K,V> implements Iterator<Entry<K,V>> {
     throw new UnsupportedOperationException();
   }
 
-  /** Used by the storage code to filter out already iterated keys */
-  public boolean hasBeenIterated(K key, @SuppressWarnings("UnusedParameters") int _hashCode) {
-    return seen.containsKey(key);
-  }
-
-  /**
-   * Mark the key as returned by the iteration to suppress doubled iterations when we
-   * need to scan throw twice ore more, e.g. in case of a hash table expansion.
-   *
-   * @param key key object
-   * @param _hashCode corresponding modified hash, unused but we keep it if we want to switch to
-   *                  a more efficient hash table
-   */
-  public void markIterated(K key, @SuppressWarnings("UnusedParameters") int _hashCode) {
-    seen.put(key, key);
-  }
-
-  private Entry<K,V> nextEntry() {
-    Entry<K,V> e;
-    if (hashArray == null) {
-      return null;
-    }
-    if (needsAbort()) {
-      if (hash != null && cache.isClosed()) {
-        clearOutReferences();
-        throw new CacheClosedException(cache);
-      }
-      clearOutReferences();
-      return null;
-    }
-    int idx = 0;
-    if (lastEntry != null) {
-      e = lastEntry.another;
-      if (e != null) {
-        e = checkIteratedOrNext(e);
-        if (e != null) {
-          lastEntry = e;
-          return e;
-        }
-      }
-      idx = (cache.extractModifiedHash(lastEntry) & (hashArray.length - 1) ) + 1;
-    }
-    for (;;) {
-      if (idx >= hashArray.length) {
-        if (switchAndCheckAbort()) {
-          return null;
-        }
-        idx = 0;
-      }
-      e = hashArray[idx];
-      if (e != null) {
-        e = checkIteratedOrNext(e);
-        if (e != null) {
-          lastEntry = e;
-          return e;
-        }
-      }
-      idx++;
-    }
-  }
-
-  private boolean needsAbort() {
-    return clearCount != hash.getClearOrCloseCount();
-  }
-
-  private Entry<K,V> checkIteratedOrNext(Entry<K,V> e) {
-    do {
-      K _key = cache.extractKeyObj(e);
-      boolean _notYetIterated = !seen.containsKey(_key);
-      if (_notYetIterated) {
-        markIterated(_key, cache.extractModifiedHash(e));
-        return e;
-      }
-      e = e.another;
-    } while (e != null);
-    return null;
-  }
-
-  /**
-   * Check for expansion and abort criteria.
-   *
-   * @return true, if iteration should abort
-   */
-  private boolean switchAndCheckAbort() {
-    if (Thread.holdsLock(cache.lock)) {
-      return switchCheckAndAbortLocked();
-    }
-    return cache.executeWithGlobalLock(new Job<Boolean>() {
-      @Override
-      public Boolean call() {
-        return switchCheckAndAbortLocked();
-      }
-    });
-  }
-
-  /**
-   * Check for expansion and abort criteria.
-   *
-   * @return true, if iteration should abort
-   */
-  private Boolean switchCheckAndAbortLocked() {
-    if (!hasExpansionOccurred()) {
-      clearOutReferences();
-      return true;
-    }
-    hashArray = hash.getEntries();
-    clearCount = hash.getClearOrCloseCount();
-    boolean _cacheClosed = hashArray == null;
-    if (_cacheClosed) {
-      clearOutReferences();
-      throw new CacheClosedException(cache);
-    }
-    return false;
-  }
-
   /**
    * At the end or at an iteration abort, clear the references. This is a memory leak protection:
    * if this is not happening a kept reference to an iterator may prevent the whole cache from
    * being garbage collected.
    */
   private void clearOutReferences() {
-    hash = null;
-    hashArray = null;
-    seen = null;
-  }
-
-  /**
-   * True if hash table expanded while iterating. Triggers another
-   * scan over the hash tables. True also before first run.
-   */
-  private boolean hasExpansionOccurred() {
-    return hashArray != hash.getEntries();
+    spliterator = null;
   }
 
 }
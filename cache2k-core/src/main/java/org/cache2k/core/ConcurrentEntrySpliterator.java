@@ -0,0 +1,149 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over all cache entries in the heap hash table. The table is split in ranges of
+ * buckets, so a full scan can be done by multiple threads in parallel.
+ *
+ * <p>Hash expansion: The buckets are addressed relative to the table length at the time
+ * the spliterator was created, see {@link Hash2#collectBucketGroup(int, int, int, List)}.
+ * An expansion during the scan does not lead to missed or duplicate entries and there is no
+ * need to remember already iterated keys.
+ *
+ * <p>Clear: A clear operation stops current scans.
+ *
+ * <p>Close: A close operation will stop the scan and yield a {@link CacheClosedException}
+ *
+ * @author Jens Wilke
+ */
+public class ConcurrentEntrySpliterator<K,V> implements Spliterator<Entry<K,V>> {
+
+  private final Hash2<K,V> hash;
+  private final int baseLength;
+  private final int clearCount;
+  private int index;
+  private int fence;
+  private long estimatedSize;
+  private final List<Entry<K,V>> buffer = new ArrayList<Entry<K,V>>();
+  private int bufferIndex;
+
+  public ConcurrentEntrySpliterator(HeapCache<K,V> _cache) {
+    hash = _cache.hash;
+    clearCount = hash.getClearOrCloseCount();
+    baseLength = hash.getTableLength();
+    fence = baseLength;
+    estimatedSize = hash.getSize();
+  }
+
+  private ConcurrentEntrySpliterator(ConcurrentEntrySpliterator<K,V> _parent, int _index, int _fence, long _estimatedSize) {
+    hash = _parent.hash;
+    clearCount = _parent.clearCount;
+    baseLength = _parent.baseLength;
+    index = _index;
+    fence = _fence;
+    estimatedSize = _estimatedSize;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Entry<K,V>> _action) {
+    for (;;) {
+      if (bufferIndex < buffer.size() && !needsAbort()) {
+        Entry<K,V> e = buffer.get(bufferIndex);
+        buffer.set(bufferIndex++, null);
+        _action.accept(e);
+        return true;
+      }
+      if (!fillBuffer()) {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super Entry<K,V>> _action) {
+    do {
+      while (bufferIndex < buffer.size()) {
+        Entry<K,V> e = buffer.get(bufferIndex);
+        buffer.set(bufferIndex++, null);
+        _action.accept(e);
+      }
+    } while (fillBuffer());
+  }
+
+  /**
+   * A clear or close happened. The next {@link #fillBuffer()} stops the scan or throws
+   * the {@link CacheClosedException}.
+   */
+  private boolean needsAbort() {
+    return clearCount != hash.getClearOrCloseCount();
+  }
+
+  /**
+   * Collect the entries of the next bucket group. The entries are passed to the
+   * consumer outside of the segment lock.
+   *
+   * @return false, if end of range is reached or the scan is aborted
+   */
+  private boolean fillBuffer() {
+    buffer.clear();
+    bufferIndex = 0;
+    if (index >= fence) {
+      return false;
+    }
+    if (!hash.collectBucketGroup(index++, baseLength, clearCount, buffer)) {
+      index = fence;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Split off the lower half of the remaining buckets.
+   */
+  @Override
+  public Spliterator<Entry<K,V>> trySplit() {
+    int _low = index;
+    int _mid = (_low + fence) >>> 1;
+    if (_mid <= _low) {
+      return null;
+    }
+    index = _mid;
+    estimatedSize >>>= 1;
+    return new ConcurrentEntrySpliterator<K,V>(this, _low, _mid, estimatedSize);
+  }
+
+  @Override
+  public long estimateSize() {
+    return estimatedSize;
+  }
+
+  @Override
+  public int characteristics() {
+    return CONCURRENT | DISTINCT | NONNULL;
+  }
+
+}
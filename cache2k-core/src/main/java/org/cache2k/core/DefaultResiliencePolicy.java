@@ -30,6 +30,12 @@ import java.util.Random;
  * Default resilience policy which implements a exponential back off and randomization
  * of the retry intervals.
  *
+ * <p>If a circuit breaker threshold is configured, the policy counts consecutive load
+ * exceptions over all keys. When the threshold is reached, the circuit opens and loads
+ * are not permitted for the retry interval. After that, a single load is permitted as
+ * probe and the next probe is scheduled after another retry interval. The first successful
+ * load closes the circuit.
+ *
  * @author Jens Wilke
  */
 public class DefaultResiliencePolicy<K,V> extends ResiliencePolicy<K,V> {
@@ -48,6 +54,11 @@ public class DefaultResiliencePolicy<K,V> extends ResiliencePolicy<K,V> {
   private long resilienceDuration;
   private long maxRetryInterval;
   private long retryInterval;
+  private int circuitBreakerThreshold;
+  private long circuitOpenDuration;
+  private volatile int consecutiveFailures;
+  /** Time when the next probe is permitted, 0 if the circuit is closed */
+  private volatile long circuitOpenUntil;
 
   /**
    * Construct a resilience policy with multiplier 1.5 and randomization 0.5.
@@ -88,6 +99,10 @@ public class DefaultResiliencePolicy<K,V> extends ResiliencePolicy<K,V> {
 
   public long getRetryInterval() { return retryInterval; }
 
+  public int getCircuitBreakerThreshold() { return circuitBreakerThreshold; }
+
+  public boolean isCircuitOpen() { return circuitOpenUntil != 0; }
+
   @Override
   public void init(final Context ctx) {
     resilienceDuration = ctx.getResilienceDurationMillis();
@@ -118,6 +133,8 @@ public class DefaultResiliencePolicy<K,V> extends ResiliencePolicy<K,V> {
     if (maxRetryInterval > resilienceDuration && resilienceDuration != 0) {
       resilienceDuration = maxRetryInterval;
     }
+    circuitBreakerThreshold = ctx.getCircuitBreakerThreshold();
+    circuitOpenDuration = Math.max(MIN_RETRY_INTERVAL, retryInterval);
   }
 
   @Override
@@ -154,4 +171,49 @@ public class DefaultResiliencePolicy<K,V> extends ResiliencePolicy<K,V> {
     return exceptionInformation.getLoadTime() + calculateRetryDelta(exceptionInformation);
   }
 
+  @Override
+  public boolean isLoadPermitted(final long now) {
+    if (circuitOpenUntil == 0) {
+      return true;
+    }
+    synchronized (this) {
+      if (circuitOpenUntil == 0) {
+        return true;
+      }
+      if (now < circuitOpenUntil) {
+        return false;
+      }
+      circuitOpenUntil = openUntil(now);
+      return true;
+    }
+  }
+
+  @Override
+  public void loadSucceeded(final long now) {
+    if (circuitBreakerThreshold == 0 || (circuitOpenUntil == 0 && consecutiveFailures == 0)) {
+      return;
+    }
+    synchronized (this) {
+      consecutiveFailures = 0;
+      circuitOpenUntil = 0;
+    }
+  }
+
+  @Override
+  public void loadFailed(final long now) {
+    if (circuitBreakerThreshold == 0) {
+      return;
+    }
+    synchronized (this) {
+      if (circuitOpenUntil != 0 || ++consecutiveFailures >= circuitBreakerThreshold) {
+        circuitOpenUntil = openUntil(now);
+      }
+    }
+  }
+
+  private long openUntil(final long now) {
+    long t = now + circuitOpenDuration;
+    return t < 0 ? Long.MAX_VALUE : t;
+  }
+
 }
@@ -78,6 +78,22 @@ class CompactEntry<K, V> {
    */
   public long hitCnt;
 
+  /**
+   * Round of the idle scan, when the entry was accessed last. Modified by heap cache.
+   *
+   * @see HeapCache#recordHit(Entry)
+   * @see HeapCache#timerEventIdleScan()
+   */
+  public int accessRound;
+
+  /**
+   * Lower bits of the hit counter, when the value was loaded or updated. Only
+   * maintained if refresh ahead skips cold entries.
+   *
+   * @see HeapCache#isColdForRefresh(Entry)
+   */
+  public int refreshHitCnt;
+
   public CompactEntry(final K _key, final int _hashCode) {
     key = _key;
     hashCode = _hashCode;
@@ -180,6 +196,9 @@ public class Entry<K, V> extends CompactEntry<K, V>
   /** Entry is in refresh probation phase */
   public static final int EXPIRED_REFRESHED = 6;
 
+  /** @see #isStale() */
+  public static final int STALE = 7;
+
   /** @see #isGone() */
   public static final int GONE = 8;
   public static final int GONE_OTHER = 15;
@@ -487,6 +506,16 @@ public class Entry<K, V> extends CompactEntry<K, V>
     return nextRefreshTime == EXPIRED;
   }
 
+  /**
+   * The entry expired, but its value may still be returned by a get, while
+   * the entry is loaded again in the background.
+   *
+   * @see org.cache2k.Cache2kBuilder#staleWhileRevalidate
+   */
+  public boolean isStale() {
+    return nextRefreshTime == STALE;
+  }
+
   public void setGone() {
     long nrt = nextRefreshTime;
     if (nrt >= 0 && nrt < GONE) {
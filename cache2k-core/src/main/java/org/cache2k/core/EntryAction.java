@@ -31,6 +31,7 @@ import org.cache2k.event.CacheEntryCreatedListener;
 import org.cache2k.event.CacheEntryRemovedListener;
 import org.cache2k.event.CacheEntryUpdatedListener;
 import org.cache2k.integration.CacheWriter;
+import org.cache2k.integration.CircuitBreakerOpenException;
 import org.cache2k.integration.CacheWriterException;
 import org.cache2k.CustomizationException;
 import org.cache2k.integration.AsyncCacheLoader;
@@ -284,14 +285,15 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
   @Override
   public boolean isPresent() {
     doNotCountAccess = true;
-    return successfulLoad || heapEntry.hasFreshData(heapCache.getClock());
+    return (successfulLoad || heapEntry.hasFreshData(heapCache.getClock())) &&
+      !heapCache.isNegativeCached(heapEntry);
   }
 
   @Override
   public boolean isExpiryTimeReachedOrInRefreshProbation() {
     doNotCountAccess = true;
     long nrt = heapEntry.getNextRefreshTime();
-    if (nrt == Entry.EXPIRED_REFRESHED) {
+    if (nrt == Entry.EXPIRED_REFRESHED || nrt == Entry.STALE) {
       return true;
     }
     if (nrt >=0 && nrt < Entry.DATA_VALID) {
@@ -304,20 +306,27 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
   public boolean isPresentOrInRefreshProbation() {
     doNotCountAccess = true;
     return
-      successfulLoad ||
       heapEntry.getNextRefreshTime() == Entry.EXPIRED_REFRESHED ||
-      heapEntry.hasFreshData(heapCache.getClock());
+      ((successfulLoad || heapEntry.hasFreshData(heapCache.getClock())) &&
+        !heapCache.isNegativeCached(heapEntry));
   }
 
   @Override
   public boolean isPresentOrMiss() {
-    if (successfulLoad || heapEntry.hasFreshData(heapCache.getClock())) {
+    if ((successfulLoad || heapEntry.hasFreshData(heapCache.getClock())) &&
+      !heapCache.isNegativeCached(heapEntry)) {
       return true;
     }
     countMiss = true;
     return false;
   }
 
+  @Override
+  public boolean isNegativeCached() {
+    return (successfulLoad || heapEntry.hasFreshData(heapCache.getClock())) &&
+      heapCache.isNegativeCached(heapEntry);
+  }
+
   @Override
   public void run() {
     try {
@@ -425,8 +434,10 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
         }
       }
       if (justExpired) {
-        CacheEntry<K, V> entryCopy = heapCache.returnCacheEntry(heapEntry);
-        sendExpiryEvents(entryCopy);
+        if (!heapCache.isNegativeCached(heapEntry)) {
+          CacheEntry<K, V> entryCopy = heapCache.returnCacheEntry(heapEntry);
+          sendExpiryEvents(entryCopy);
+        }
         metrics().expiredKept();
       }
     }
@@ -478,6 +489,10 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
         return;
       }
     }
+    if (!timing().isLoadPermitted(t0)) {
+      onLoadFailureIntern(new CircuitBreakerOpenException());
+      return;
+    }
     AsyncCacheLoader<K, V> _asyncLoader;
     if ((_asyncLoader = asyncLoader()) != null) {
       heapEntry.nextProcessingStep(LOAD_ASYNC);
@@ -504,9 +519,11 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
         v = loader.load(key, t0, e);
       }
     } catch (Throwable ouch) {
+      timing().loadFailed(millis());
       onLoadFailureIntern(ouch);
       return;
     }
+    timing().loadSucceeded(millis());
     onLoadSuccessIntern(v);
   }
 
@@ -572,7 +589,7 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
     if (!e.isGone()) {
       e.startProcessing(ps, this);
       entryLocked = true;
-      heapDataValid = e.isDataValidOrProbation();
+      heapDataValid = (e.isDataValidOrProbation() || e.isStale()) && !heapCache.isNegativeCached(e);
       heapHit = !e.isVirgin();
       heapEntry = e;
       return true;
@@ -583,6 +600,7 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
   @Override
   public void onLoadSuccess(V v) {
     checkEntryStateOnLoadCallback();
+    timing().loadSucceeded(millis());
     onLoadSuccessIntern(v);
   }
 
@@ -593,6 +611,7 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
   @Override
   public void onLoadFailure(Throwable t) {
     checkEntryStateOnLoadCallback();
+    timing().loadFailed(millis());
     onLoadFailureIntern(t);
   }
 
@@ -644,6 +663,13 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
       } else {
         metrics().reload(_delta);
       }
+      if (newValueOrException instanceof ExceptionWrapper) {
+        metrics().loadExceptionLatency(_delta);
+      } else if (refresh) {
+        metrics().refreshLatency(_delta);
+      } else {
+        metrics().loadLatency(_delta);
+      }
     }
     mutationCalculateExpiry();
   }
@@ -729,7 +755,8 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
       try {
         expiry = 0;
         ExceptionWrapper ew = (ExceptionWrapper) newValueOrException;
-        if ((heapEntry.isDataValid() || heapEntry.isExpiredState()) && heapEntry.getException() == null) {
+        if ((heapEntry.isDataValid() || heapEntry.isExpiredState() || heapEntry.isStale()) &&
+          heapEntry.getException() == null) {
           expiry = timing().suppressExceptionUntil(heapEntry, ew);
         }
         if (expiry > loadStartedTime) {
@@ -758,7 +785,8 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
         expiry = timing().calculateNextRefreshTime(
           heapEntry, newValueOrException,
           lastRefreshTime);
-        if (newValueOrException == null && heapCache.isRejectNullValues() && expiry != ExpiryTimeValues.NO_CACHE) {
+        if (newValueOrException == null && heapCache.isRejectNullValues() && expiry != ExpiryTimeValues.NO_CACHE &&
+          !(load && heapCache.isNegativeCaching())) {
           RuntimeException _ouch = heapCache.returnNullValueDetectedException();
           if (load) {
             decideForLoaderExceptionAfterExpiryCalculation(new ResiliencePolicyException(_ouch));
@@ -963,6 +991,7 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
         if (expiredImmediately) {
           heapEntry.setNextRefreshTime(Entry.EXPIRED);
           heapEntry.setValueOrException(newValueOrException);
+          heapCache.updateIndexes(heapEntry, newValueOrException);
         } else {
           if (!heapEntry.isVirgin()) {
             heapEntry.setNextRefreshTime(Entry.REMOVE_PENDING);
@@ -971,6 +1000,8 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
       } else {
         oldValueOrException = heapEntry.getValueOrException();
         heapEntry.setValueOrException(newValueOrException);
+        heapCache.updateIndexes(heapEntry, newValueOrException);
+        heapCache.recordRefreshHitCount(heapEntry);
       }
     }
     heapCache.eviction.updateWeight(heapEntry);
@@ -1003,13 +1034,14 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
     } else if (remove) {
       if (storageDataValid || heapDataValid) {
         if (entryRemovedListeners() != null) {
-          for (CacheEntryRemovedListener<K,V> l : entryRemovedListeners()) {
-            try {
-              l.onEntryRemoved(userCache, entryCopy);
-            } catch (Throwable t) {
-              exceptionToPropagate = new ListenerException(t);
-            }
-          }
+          sendRemovedEvents(entryCopy);
+        }
+      }
+    } else if (heapCache.isNegativeCached(heapEntry)) {
+      // a load replaced the value by the negative cache marker, the key is absent now
+      if (storageDataValid || heapDataValid) {
+        if (entryRemovedListeners() != null) {
+          sendRemovedEvents(heapCache.returnCacheEntry(heapEntry.getKey(), oldValueOrException));
         }
       }
     } else {
@@ -1040,6 +1072,16 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
     mutationReleaseLockAndStartTimer();
   }
 
+  private void sendRemovedEvents(final CacheEntry<K, V> _entryCopy) {
+    for (CacheEntryRemovedListener<K,V> l : entryRemovedListeners()) {
+      try {
+        l.onEntryRemoved(userCache, _entryCopy);
+      } catch (Throwable t) {
+        exceptionToPropagate = new ListenerException(t);
+      }
+    }
+  }
+
   private void sendExpiryEvents(final CacheEntry<K, V> _entryCopy) {
     for (CacheEntryExpiredListener<K,V> l : entryExpiredListeners()) {
       try {
@@ -1080,7 +1122,7 @@ public abstract class EntryAction<K, V, R> extends Entry.PiggyBack implements
       }
     }
     if (justExpired) {
-      heapDataValid = true;
+      heapDataValid = !heapCache.isNegativeCached(heapEntry);
       heapEntry.nextProcessingStep(EXPIRE);
       expiry = 0;
       checkKeepOrRemove();
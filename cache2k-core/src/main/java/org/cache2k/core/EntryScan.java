@@ -0,0 +1,253 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.CacheEntry;
+import org.cache2k.CacheException;
+import org.cache2k.integration.ExceptionPropagator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Scans the heap hash table and evaluates the filter directly on the entries. Only
+ * for matching entries the action is called. Entries without fresh data are skipped.
+ *
+ * <p>For a parallel scan the table is split in ranges via {@link ConcurrentEntrySpliterator}.
+ * The calling thread and the tasks submitted to the executor take the next range until
+ * all are done, like in {@link ParallelInvokeAll}.
+ *
+ * @author Jens Wilke
+ * @see Cache#scan
+ * @see Cache#parallelScan
+ * @see Cache#removeIf
+ */
+class EntryScan<K, V> implements Runnable {
+
+  private final HeapCache<K, V> cache;
+  private final Predicate<? super CacheEntry<K, V>> filter;
+  private final Action<K, V> action;
+  private List<Spliterator<Entry<K, V>>> ranges;
+  private final AtomicInteger nextRange = new AtomicInteger();
+  private int completedRanges;
+  private Throwable failure;
+
+  EntryScan(final HeapCache<K, V> _cache, final Predicate<? super CacheEntry<K, V>> _filter,
+            final Action<K, V> _action) {
+    cache = _cache;
+    filter = _filter;
+    action = _action;
+  }
+
+  /**
+   * Action that passes a copy of the matching entry to the consumer.
+   */
+  static <K, V> Action<K, V> consume(final HeapCache<K, V> _cache,
+                                     final Consumer<? super CacheEntry<K, V>> _consumer) {
+    return new Action<K, V>() {
+      @Override
+      public void matched(final K key, final V _valueOrException) {
+        _consumer.accept(_cache.returnCacheEntry(key, _valueOrException));
+      }
+    };
+  }
+
+  /**
+   * Action that removes the matching entry, if it was not modified in the meantime.
+   *
+   * @param _cache the user facing cache, so listeners and writer are called
+   */
+  static <K, V> Action<K, V> remove(final Cache<K, V> _cache) {
+    return new Action<K, V>() {
+      @Override
+      public void matched(final K key, final V _valueOrException) {
+        _cache.removeIfEquals(key, _valueOrException);
+      }
+    };
+  }
+
+  /**
+   * Scan the whole table in the calling thread.
+   */
+  void scan() {
+    scanRange(new ConcurrentEntrySpliterator<K, V>(cache));
+  }
+
+  /**
+   * Scan the table in parallel, using up to {@code _parallelism} threads including the
+   * calling one.
+   */
+  void execute(Executor ex, int _parallelism) {
+    ranges = split(new ConcurrentEntrySpliterator<K, V>(cache),
+      _parallelism * HeapCache.TUNABLE.scanRangesPerThread);
+    int _tasks = Math.min(_parallelism, ranges.size()) - 1;
+    for (int i = 0; i < _tasks; i++) {
+      try {
+        ex.execute(this);
+      } catch (RejectedExecutionException ignore) {
+        break;
+      }
+    }
+    run();
+    awaitCompletion();
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    if (failure != null) {
+      throw new CacheException(failure);
+    }
+  }
+
+  /**
+   * Split the spliterator evenly until the requested number of ranges is reached or
+   * no further split is possible.
+   */
+  static <T> List<Spliterator<T>> split(Spliterator<T> _spliterator, int _count) {
+    List<Spliterator<T>> _ranges = new ArrayList<Spliterator<T>>();
+    _ranges.add(_spliterator);
+    boolean _splitted = true;
+    while (_splitted && _ranges.size() < _count) {
+      _splitted = false;
+      for (int i = _ranges.size() - 1; i >= 0 && _ranges.size() < _count; i--) {
+        Spliterator<T> s = _ranges.get(i).trySplit();
+        if (s != null) {
+          _ranges.add(s);
+          _splitted = true;
+        }
+      }
+    }
+    return _ranges;
+  }
+
+  @Override
+  public void run() {
+    int _range;
+    int _count = ranges.size();
+    while ((_range = nextRange.getAndIncrement()) < _count) {
+      try {
+        scanRange(ranges.get(_range));
+      } catch (Throwable t) {
+        synchronized (this) {
+          if (failure == null) {
+            failure = t;
+          }
+        }
+      } finally {
+        synchronized (this) {
+          completedRanges++;
+          if (completedRanges == _count) {
+            notifyAll();
+          }
+        }
+      }
+    }
+  }
+
+  private void scanRange(Spliterator<Entry<K, V>> _range) {
+    final ScanEntry<K, V> _scanEntry = new ScanEntry<K, V>(cache.exceptionPropagator);
+    _range.forEachRemaining(new Consumer<Entry<K, V>>() {
+      @Override
+      public void accept(final Entry<K, V> e) {
+        if (!cache.hasFreshValue(e)) {
+          return;
+        }
+        K _key = e.getKey();
+        V _valueOrException = e.getValueOrException();
+        _scanEntry.key = _key;
+        _scanEntry.valueOrException = _valueOrException;
+        if (filter.test(_scanEntry)) {
+          action.matched(_key, _valueOrException);
+        }
+      }
+    });
+  }
+
+  private synchronized void awaitCompletion() {
+    boolean _interrupt = false;
+    while (completedRanges < ranges.size()) {
+      try {
+        wait();
+      } catch (InterruptedException ignore) {
+        _interrupt = true;
+      }
+    }
+    if (_interrupt) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Called for each entry matching the filter.
+   */
+  interface Action<K, V> {
+
+    void matched(K key, V valueOrException);
+
+  }
+
+  /**
+   * Entry passed to the filter. One instance is reused for all entries of a range,
+   * so no entry object is created for entries not matching the filter.
+   */
+  static final class ScanEntry<K, V> extends HeapCache.BaseCacheEntry<K, V> {
+
+    private final ExceptionPropagator<K> exceptionPropagator;
+    K key;
+    V valueOrException;
+
+    ScanEntry(final ExceptionPropagator<K> _exceptionPropagator) {
+      exceptionPropagator = _exceptionPropagator;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      if (valueOrException instanceof ExceptionWrapper) {
+        throw exceptionPropagator.propagateException(key, (ExceptionWrapper) valueOrException);
+      }
+      return valueOrException;
+    }
+
+    @Override
+    public Throwable getException() {
+      if (valueOrException instanceof ExceptionWrapper) {
+        return ((ExceptionWrapper) valueOrException).getException();
+      }
+      return null;
+    }
+
+  }
+
+}
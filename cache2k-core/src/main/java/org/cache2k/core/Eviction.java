@@ -55,11 +55,20 @@ public interface Eviction {
   void evictEventually();
 
   /**
-   * Remove all entries from the eviction data structure.
+   * Evict until the size or weight is within the limit again. Called after inserting
+   * multiple entries without eviction.
+   */
+  void evictUntilWithinLimit();
+
+  /**
+   * Remove all entries from the eviction data structure in constant time, by replacing
+   * the replacement lists with empty ones. The entries stay linked to each other until
+   * the returned job marks them as removed. The job needs to run after the eviction
+   * lock is released, it locks the eviction in chunks.
    *
-   * @return entry count
+   * @return job to release the detached entries
    */
-  long removeAll();
+  Runnable detachAll();
 
   /**
    * Drain eviction queue and do updates in the eviction data structures.
@@ -0,0 +1,70 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Completes the future with the result of the entry action or exceptionally, if
+ * the action produced an exception.
+ *
+ * @author Jens Wilke
+ */
+abstract class FutureCallback<R> implements EntryAction.CompletedCallback {
+
+  private final CompletableFuture<?> future;
+
+  FutureCallback(final CompletableFuture<?> _future) {
+    future = _future;
+  }
+
+  void start(EntryAction _action) {
+    try {
+      _action.start();
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+    }
+  }
+
+  /**
+   * The action could not be started.
+   */
+  void failed(Throwable t) {
+    future.completeExceptionally(t);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void entryActionCompleted(final EntryAction ea) {
+    if (ea.exceptionToPropagate != null) {
+      future.completeExceptionally(ea.exceptionToPropagate);
+      return;
+    }
+    try {
+      completed((R) ea.result);
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+    }
+  }
+
+  protected abstract void completed(R _result);
+
+}
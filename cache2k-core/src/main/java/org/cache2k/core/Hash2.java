@@ -25,6 +25,7 @@ import org.cache2k.core.concurrency.Job;
 import org.cache2k.core.concurrency.Locks;
 import org.cache2k.core.concurrency.OptimisticLock;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -202,6 +203,18 @@ public class Hash2<K,V> {
     return locks[_hash & LOCK_MASK];
   }
 
+  /**
+   * Index of the lock segment for the hash code. Used to group bulk operations,
+   * so each segment lock is acquired once.
+   */
+  public int getSegmentIndex(int _hash) {
+    return _hash & LOCK_MASK;
+  }
+
+  public int getSegmentCount() {
+    return LOCK_SEGMENTS;
+  }
+
   /**
    * Remove existing entry from the hash.
    *
@@ -417,6 +430,60 @@ public class Hash2<K,V> {
     return _count;
   }
 
+  /**
+   * Length of the entry table, read within a segment lock. Used as base length for
+   * scans, see {@link #collectBucketGroup(int, int, int, List)}.
+   */
+  public int getTableLength() {
+    OptimisticLock l = locks[0];
+    long _stamp = l.readLock();
+    try {
+      Entry<K,V>[] tab = entries;
+      if (tab == null) {
+        throw new CacheClosedException(cache);
+      }
+      return tab.length;
+    } finally {
+      l.unlockRead(_stamp);
+    }
+  }
+
+  /**
+   * Copy all entries of a bucket group into the buffer. A bucket group consists of all
+   * buckets that hold the entries of the bucket with the index {@code _baseIndex} when
+   * the table had the length {@code _baseLength}. Since the table only grows by doubling,
+   * each entry stays in the same bucket group after an expansion and a scan over all bucket
+   * groups visits each entry at most once, without the need to remember iterated keys.
+   * All buckets of a group are protected by the same segment lock.
+   *
+   * @return false, if a clear happened since {@code _clearCount} was obtained
+   * @throws CacheClosedException if the cache was closed
+   */
+  public boolean collectBucketGroup(int _baseIndex, int _baseLength, int _clearCount,
+                                    List<Entry<K,V>> _buffer) {
+    OptimisticLock l = locks[_baseIndex & LOCK_MASK];
+    long _stamp = l.readLock();
+    try {
+      Entry<K,V>[] tab = entries;
+      if (tab == null) {
+        throw new CacheClosedException(cache);
+      }
+      if (clearOrCloseCount != _clearCount || tab.length < _baseLength) {
+        return false;
+      }
+      for (int idx = _baseIndex; idx < tab.length; idx += _baseLength) {
+        Entry<K,V> e = tab[idx];
+        while (e != null) {
+          _buffer.add(e);
+          e = e.another;
+        }
+      }
+      return true;
+    } finally {
+      l.unlockRead(_stamp);
+    }
+  }
+
   /**
    * Entry table for used by the iterator.
    */
@@ -32,34 +32,49 @@ import org.cache2k.core.concurrency.DefaultThreadFactoryProvider;
 import org.cache2k.core.concurrency.Job;
 import org.cache2k.core.concurrency.OptimisticLock;
 import org.cache2k.core.concurrency.ThreadFactoryProvider;
+import org.cache2k.core.concurrency.VirtualThreadExecutor;
 
 import org.cache2k.core.util.InternalClock;
 import org.cache2k.core.util.Log;
 import org.cache2k.core.util.TunableConstants;
 import org.cache2k.core.util.TunableFactory;
 import org.cache2k.event.CacheClosedListener;
+import org.cache2k.expiry.ExpiryTimeValues;
 import org.cache2k.integration.AdvancedCacheLoader;
+import org.cache2k.integration.BulkCacheLoader;
+import org.cache2k.integration.BulkCacheLoaderException;
 import org.cache2k.integration.CacheLoaderException;
+import org.cache2k.integration.CircuitBreakerOpenException;
 import org.cache2k.integration.ExceptionPropagator;
 import org.cache2k.integration.RefreshedTimeWrapper;
 import org.cache2k.processor.EntryProcessor;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.cache2k.core.util.Util.*;
 
@@ -99,6 +114,9 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
   protected String name;
   public CacheManagerImpl manager;
   protected AdvancedCacheLoader<K,V> loader;
+
+  /** Set additionally to the loader, if the loader supports bulk operation */
+  protected BulkCacheLoader<K,V> bulkLoader;
   protected InternalClock clock;
   protected TimingHandler<K,V> timing = TimingHandler.ETERNAL;
 
@@ -188,13 +206,55 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
 
   private Collection<CustomizationSupplier<CacheClosedListener>> cacheClosedListeners = Collections.EMPTY_LIST;
 
+  /**
+   * Secondary indexes or {@code null} if no index is defined.
+   */
+  private AttributeIndex<K,V>[] indexes;
+
+  /**
+   * Tag index, also contained in {@link #indexes} or {@code null}.
+   */
+  private TagIndex<K,V> tagIndex;
+
+  /**
+   * Ordered index of the keys or {@code null} if not enabled.
+   */
+  private OrderedKeyIndex<K,V> keyIndex;
+
   private int featureBits = 0;
 
+  /**
+   * Current round of the idle scan. Copied to the entry on each access.
+   *
+   * @see #timerEventIdleScan()
+   */
+  private volatile int accessRound = 0;
+
+  /**
+   * The idle scan stops, when the cache is empty, and is resumed by the next insert.
+   */
+  private final AtomicBoolean idleScanStopped = new AtomicBoolean();
+
+  /**
+   * Position of the idle scan within the current round. Only used by the timer task
+   * of the idle scan, {@code null} if the next batch starts a new round.
+   */
+  private volatile ConcurrentEntryIterator<K,V> idleScanIterator;
+
+  /**
+   * Number of entries scanned within the current round.
+   */
+  private int idleScanCount;
+
   private static final int KEEP_AFTER_EXPIRED = 2;
   private static final int REJECT_NULL_VALUES = 8;
   private static final int BACKGROUND_REFRESH = 16;
   private static final int UPDATE_TIME_NEEDED = 32;
   private static final int RECORD_REFRESH_TIME = 64;
+  private static final int REFRESH_SKIP_COLD = 128;
+  private static final int NEGATIVE_CACHING = 256;
+  private static final int PARALLEL_INVOKE_ALL = 512;
+  private static final int IDLE_SCAN = 1024;
 
   protected final boolean isKeepAfterExpired() {
     return (featureBits & KEEP_AFTER_EXPIRED) > 0;
@@ -215,6 +275,39 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
 
   protected final boolean isRecordRefreshTime() { return (featureBits & RECORD_REFRESH_TIME) > 0; }
 
+  protected final boolean isRefreshSkipCold() { return (featureBits & REFRESH_SKIP_COLD) > 0; }
+
+  /**
+   * Entries expire after access, the access round is recorded on each hit.
+   *
+   * @see org.cache2k.Cache2kBuilder#expireAfterAccess
+   */
+  protected final boolean isIdleScan() { return (featureBits & IDLE_SCAN) > 0; }
+
+  /**
+   * A {@code null} from the loader is cached, also if null values are not permitted.
+   *
+   * @see org.cache2k.Cache2kBuilder#negativeCacheDuration
+   */
+  protected final boolean isNegativeCaching() { return (featureBits & NEGATIVE_CACHING) > 0; }
+
+  /**
+   * The entry is the marker of a negatively cached key, if it holds {@code null} while
+   * null values are not permitted. Only meaningful, if the entry has fresh data.
+   * The key is treated as absent by all operations, only a get returns {@code null}
+   * without calling the loader.
+   */
+  protected final boolean isNegativeCached(Entry<K,V> e) {
+    return isNegativeCaching() && e.getValueOrException() == null && isRejectNullValues();
+  }
+
+  /**
+   * Entry has fresh data and is not the marker of a negatively cached key.
+   */
+  protected final boolean hasFreshValue(Entry<K,V> e) {
+    return e.hasFreshData(clock) && !isNegativeCached(e);
+  }
+
   protected final void setFeatureBit(int _bitmask, boolean _flag) {
     if (_flag) {
       featureBits |= _bitmask;
@@ -258,6 +351,13 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     setFeatureBit(BACKGROUND_REFRESH, c.isRefreshAhead());
     setFeatureBit(UPDATE_TIME_NEEDED, c.isRecordRefreshedTime());
     setFeatureBit(RECORD_REFRESH_TIME, c.isRecordRefreshedTime());
+    setFeatureBit(REFRESH_SKIP_COLD, c.isRefreshAheadSkipCold());
+    setFeatureBit(NEGATIVE_CACHING, c.getNegativeCacheDuration() > 0);
+    setFeatureBit(PARALLEL_INVOKE_ALL, c.isParallelInvokeAll());
+    setFeatureBit(IDLE_SCAN, c.getExpireAfterAccess() > 0 && c.getExpireAfterAccess() < Long.MAX_VALUE);
+    if (c.isOrderedKeys()) {
+      keyIndex = new OrderedKeyIndex<K,V>();
+    }
 
     metrics = TUNABLE.commonMetricsFactory.create(new CommonMetricsFactory.Parameters() {
       @Override
@@ -273,6 +373,12 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
 
     if (c.getLoaderExecutor() != null) {
       loaderExecutor = createCustomization((CustomizationSupplier<Executor>) c.getLoaderExecutor());
+    } else if (c.isVirtualThreads() && VirtualThreadExecutor.isSupported()) {
+      loaderExecutor = new VirtualThreadExecutor(getThreadNamePrefix());
+    } else if (c.isSharedLoaderPool()) {
+      int _maxConcurrency = c.getLoaderThreadCount() > 0 ? c.getLoaderThreadCount() :
+        Runtime.getRuntime().availableProcessors() * HeapCache.TUNABLE.loaderThreadCountCpuFactor;
+      loaderExecutor = manager.getSharedLoaderPool().newClient(c.getLoaderPoolWeight(), _maxConcurrency);
     } else {
       if (c.getLoaderThreadCount() > 0) {
         loaderExecutor = provideDefaultLoaderExecutor(c.getLoaderThreadCount());
@@ -316,6 +422,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
 
   public void setTiming(final TimingHandler<K,V> rh) {
     timing = rh;
+    rh.setCommonMetrics(metrics);
     if (!(rh instanceof TimingHandler.TimeAgnostic)) {
       setFeatureBit(UPDATE_TIME_NEEDED, true);
     }
@@ -333,6 +440,10 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     loader = al;
   }
 
+  public void setBulkLoader(final BulkCacheLoader<K,V> bl) {
+    bulkLoader = bl;
+  }
+
   /**
    * Set the name and configure a logging, used within cache construction.
    */
@@ -382,29 +493,54 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     }
   }
 
+  /**
+   * Clear by replacing the hash table and the replacement lists. The time the global
+   * lock is held does not depend on the cache size. The detached entries are released
+   * from the eviction afterwards in the executor.
+   */
   public final void clear() {
-    executeWithGlobalLock(new Job<Void>() {
+    Runnable _release = executeWithGlobalLock(new Job<Runnable>() {
       @Override
-      public Void call() {
-        clearLocalCache();
-        return null;
+      public Runnable call() {
+        return clearLocalCache();
       }
     });
+    try {
+      executor.execute(_release);
+    } catch (RejectedExecutionException ex) {
+      _release.run();
+    }
   }
 
-  public final void clearLocalCache() {
-    long _removed = eviction.removeAll();
-    clearRemovedCnt += _removed;
+  /**
+   * Remove all entries. Needs the global lock.
+   *
+   * @return job releasing the removed entries from the eviction
+   */
+  public final Runnable clearLocalCache() {
+    Runnable _release = eviction.detachAll();
+    clearRemovedCnt += hash.getSize();
     clearCnt++;
     initializeHeapCache();
     hash.clearWhenLocked();
+    if (indexes != null) {
+      for (AttributeIndex<K,V> idx : indexes) {
+        idx.clear();
+      }
+    }
+    if (keyIndex != null) {
+      keyIndex.clear();
+    }
     clearedTime = clock.millis();
+    return _release;
   }
 
   protected void initializeHeapCache() {
     if (startedTime == 0) {
       startedTime = clock.millis();
     }
+    idleScanStopped.set(false);
+    idleScanIterator = null;
     timing.reset();
   }
 
@@ -469,11 +605,250 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     cacheClosedListeners = l;
   }
 
+  /**
+   * Add a secondary index. Only called while the cache is built.
+   */
+  @SuppressWarnings("unchecked")
+  public void addIndex(String _name, IndexExtractor<K,V> _extractor) {
+    addIndex(new SecondaryIndex<K,V>(this, _name, _extractor));
+  }
+
+  /**
+   * Set the tag extractor. Only called while the cache is built.
+   */
+  public void setTagExtractor(TagExtractor<K,V> _extractor) {
+    tagIndex = new TagIndex<K,V>(this, _extractor);
+    addIndex(tagIndex);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addIndex(AttributeIndex<K,V> _index) {
+    int n = indexes == null ? 0 : indexes.length;
+    AttributeIndex<K,V>[] _indexes = new AttributeIndex[n + 1];
+    if (n > 0) {
+      System.arraycopy(indexes, 0, _indexes, 0, n);
+    }
+    _indexes[n] = _index;
+    indexes = _indexes;
+  }
+
+  /**
+   * The value of the entry was changed. Called while holding the entry lock.
+   */
+  final void updateIndexes(Entry<K,V> e, V _valueOrException) {
+    AttributeIndex<K,V>[] _indexes = indexes;
+    if (_indexes == null) {
+      return;
+    }
+    for (AttributeIndex<K,V> idx : _indexes) {
+      idx.update(e, _valueOrException);
+    }
+  }
+
+  /**
+   * The entry is removed from the hash table.
+   */
+  final void removeFromIndexes(Entry<K,V> e) {
+    if (keyIndex != null) {
+      keyIndex.remove(e);
+    }
+    AttributeIndex<K,V>[] _indexes = indexes;
+    if (_indexes == null) {
+      return;
+    }
+    for (AttributeIndex<K,V> idx : _indexes) {
+      idx.remove(e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private SecondaryIndex<K,V> getIndex(String _name) {
+    if (indexes != null) {
+      for (AttributeIndex<K,V> idx : indexes) {
+        if (idx instanceof SecondaryIndex && _name.equals(((SecondaryIndex) idx).getName())) {
+          return (SecondaryIndex<K,V>) idx;
+        }
+      }
+    }
+    throw new IllegalArgumentException("index not defined: " + _name);
+  }
+
+  @Override
+  public void removeAllWithTag(Object _tag) {
+    removeAllWithTag(_tag, this);
+  }
+
+  /**
+   * Remove the entries having the tag via {@code _userCache}, so that listeners and writer
+   * are called when wired.
+   */
+  final void removeAllWithTag(Object _tag, Cache<K, V> _userCache) {
+    TagIndex<K,V> idx = tagIndex;
+    if (idx == null) {
+      throw new IllegalStateException("no tag extractor configured");
+    }
+    for (Entry<K,V> e : idx.lookup(_tag)) {
+      if (e.isGone()) {
+        idx.remove(e);
+        continue;
+      }
+      V v = e.getValueOrException();
+      if (idx.matches(e, v, _tag)) {
+        _userCache.removeIfEquals(e.getKey(), v);
+      }
+    }
+  }
+
+  private OrderedKeyIndex<K,V> getKeyIndex() {
+    if (keyIndex == null) {
+      throw new IllegalStateException("ordered keys not enabled");
+    }
+    return keyIndex;
+  }
+
+  @Override
+  public void removeByPrefix(String _prefix) {
+    removeByPrefix(_prefix, this);
+  }
+
+  /**
+   * Remove the entries via {@code _userCache}, so that listeners and writer
+   * are called when wired.
+   */
+  final void removeByPrefix(String _prefix, Cache<K, V> _userCache) {
+    OrderedKeyIndex<K,V> _index = getKeyIndex();
+    if (keyType.getType() != String.class) {
+      throw new IllegalStateException("removeByPrefix needs string keys, key type: " + keyType.getTypeName());
+    }
+    for (Entry<K,V> e : _index.prefix(_prefix)) {
+      _userCache.remove(e.getKey());
+    }
+  }
+
+  @Override
+  public Map<K, V> peekRange(K _fromKey, K _toKey) {
+    Map<K, ExaminationEntry<K, V>> map = new LinkedHashMap<K, ExaminationEntry<K, V>>();
+    for (Entry<K,V> e : getKeyIndex().range(_fromKey, _toKey)) {
+      if (hasFreshValue(e)) {
+        map.put(e.getKey(), ReadOnlyCacheEntry.of(e));
+      }
+    }
+    return convertValueMap(map);
+  }
+
+  /**
+   * Entries that are gone are dropped from the index. Entries which are not fresh or that
+   * have a different attribute because of a concurrent update, are skipped.
+   */
+  @Override
+  public Map<K, V> peekAllByIndex(String _index, Object _attribute) {
+    SecondaryIndex<K,V> idx = getIndex(_index);
+    Map<K, V> map = new HashMap<K, V>();
+    for (Entry<K,V> e : idx.lookup(_attribute)) {
+      if (e.isGone()) {
+        idx.remove(e);
+        continue;
+      }
+      V v = e.getValueOrException();
+      if (!hasFreshValue(e) || !idx.matches(e, v, _attribute)) {
+        continue;
+      }
+      map.put(e.getKey(), v);
+    }
+    return map;
+  }
+
   @Override
   public Iterator<CacheEntry<K, V>> iterator() {
     return new IteratorFilterEntry2Entry(this, iterateAllHeapEntries(), true);
   }
 
+  @Override
+  public void scan(final Predicate<? super CacheEntry<K, V>> filter,
+                   final Consumer<? super CacheEntry<K, V>> action) {
+    new EntryScan<K,V>(this, filter, EntryScan.consume(this, action)).scan();
+  }
+
+  @Override
+  public void parallelScan(final Predicate<? super CacheEntry<K, V>> filter,
+                           final Consumer<? super CacheEntry<K, V>> action) {
+    new EntryScan<K,V>(this, filter, EntryScan.consume(this, action))
+      .execute(executor, Runtime.getRuntime().availableProcessors());
+  }
+
+  @Override
+  public void removeIf(final Predicate<? super CacheEntry<K, V>> filter) {
+    new EntryScan<K,V>(this, filter, EntryScan.remove(this)).scan();
+  }
+
+  @Override
+  public Spliterator<CacheEntry<K, V>> spliterator() {
+    return new SpliteratorFilterEntry2Entry<K,V>(this, new ConcurrentEntrySpliterator<K,V>(this));
+  }
+
+  /**
+   * Filter out non valid entries and wrap each entry with a cache
+   * entry object. Counterpart of {@link IteratorFilterEntry2Entry} for parallel scans.
+   */
+  static class SpliteratorFilterEntry2Entry<K,V> implements Spliterator<CacheEntry<K, V>> {
+
+    private final HeapCache<K,V> cache;
+    private final Spliterator<Entry<K,V>> spliterator;
+
+    SpliteratorFilterEntry2Entry(HeapCache<K,V> c, Spliterator<Entry<K,V>> _spliterator) {
+      cache = c;
+      spliterator = _spliterator;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super CacheEntry<K, V>> _action) {
+      final boolean[] _found = new boolean[1];
+      Consumer<Entry<K,V>> _filter = new Consumer<Entry<K, V>>() {
+        @Override
+        public void accept(Entry<K, V> e) {
+          if (cache.hasFreshValue(e)) {
+            _found[0] = true;
+            _action.accept(cache.returnEntry(e));
+          }
+        }
+      };
+      while (!_found[0] && spliterator.tryAdvance(_filter)) { }
+      return _found[0];
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super CacheEntry<K, V>> _action) {
+      spliterator.forEachRemaining(new Consumer<Entry<K, V>>() {
+        @Override
+        public void accept(Entry<K, V> e) {
+          if (cache.hasFreshValue(e)) {
+            _action.accept(cache.returnEntry(e));
+          }
+        }
+      });
+    }
+
+    @Override
+    public Spliterator<CacheEntry<K, V>> trySplit() {
+      Spliterator<Entry<K,V>> _split = spliterator.trySplit();
+      if (_split == null) {
+        return null;
+      }
+      return new SpliteratorFilterEntry2Entry<K,V>(cache, _split);
+    }
+
+    @Override
+    public long estimateSize() {
+      return spliterator.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+      return spliterator.characteristics();
+    }
+
+  }
+
   /**
    * Filter out non valid entries and wrap each entry with a cache
    * entry object.
@@ -509,7 +884,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
       while (iterator.hasNext()) {
         Entry e = iterator.next();
         if (filter) {
-          if (e.hasFreshData(cache.getClock())) {
+          if (cache.hasFreshValue(e)) {
             entry = e;
             return true;
           }
@@ -558,6 +933,9 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
    */
   protected void recordHit(Entry e) {
     e.hitCnt++;
+    if (isIdleScan()) {
+      e.accessRound = accessRound;
+    }
   }
 
   @Override
@@ -633,7 +1011,11 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
 
   @Override
   public CacheEntry<K, V> getEntry(K key) {
-    return returnEntry(getEntryInternal(key));
+    Entry<K,V> e = getEntryInternal(key);
+    if (e != null && isNegativeCached(e)) {
+      return null;
+    }
+    return returnEntry(e);
   }
 
   protected Entry getEntryInternal(K key) {
@@ -651,6 +1033,9 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
       if (e.hasFreshData(clock)) {
         return e;
       }
+      if (e.isStale() && revalidateStaleEntry(e)) {
+        return e;
+      }
       synchronized (e) {
         e.waitForProcessing();
         if (e.hasFreshData(clock)) {
@@ -717,6 +1102,9 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     } finally {
       l.unlockWrite(_stamp);
     }
+    if (_removed) {
+      removeFromIndexes(e);
+    }
     checkForHashCodeChange(e);
     timing.cancelExpiryTimer(e);
     return _removed;
@@ -737,7 +1125,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
           metrics.goneSpin();
           continue;
         }
-        _hasFreshData = e.hasFreshData(clock);
+        _hasFreshData = hasFreshValue(e);
         if (_hasFreshData) {
           _previousValue = (V) e.getValueOrException();
         } else {
@@ -765,7 +1153,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
           metrics.goneSpin();
           continue;
         }
-        if (e.hasFreshData(clock)) {
+        if (hasFreshValue(e)) {
           V _previousValue = (V) e.getValueOrException();
           putValue(e, _value);
           return returnValue(_previousValue);
@@ -811,7 +1199,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     }
     synchronized (e) {
       e.waitForProcessing();
-      if (e.isGone() || !e.hasFreshData(clock)) {
+      if (e.isGone() || !hasFreshValue(e)) {
         return false;
       }
       if (_compare && !e.equalsValue(_oldValue)) {
@@ -842,7 +1230,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
       return null;
     }
     if (e.hasFreshData(clock)) {
-      return e;
+      return isNegativeCached(e) ? null : e;
     }
     metrics.peekHitNotFresh();
     return null;
@@ -853,7 +1241,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     Entry e = lookupEntry(key);
     if (e != null) {
       metrics.heapHitButNoRead();
-      return e.hasFreshData(clock);
+      return hasFreshValue(e);
     }
     return false;
   }
@@ -880,12 +1268,12 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     Entry<K,V> e;
     for (;;) {
       e = lookupOrNewEntry(key);
-      if (e.hasFreshData(clock)) {
+      if (hasFreshValue(e)) {
         return returnValue(e);
       }
       synchronized (e) {
         e.waitForProcessing();
-        if (e.hasFreshData(clock)) {
+        if (hasFreshValue(e)) {
           return returnValue(e);
         }
         if (e.isGone()) {
@@ -936,7 +1324,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
           metrics.goneSpin();
           continue;
         }
-        if (e.hasFreshData(clock)) {
+        if (hasFreshValue(e)) {
           return false;
         }
         metrics.peekMiss();
@@ -976,7 +1364,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
       if (e.isGone()) {
         return false;
       }
-      boolean f = e.hasFreshData(clock);
+      boolean f = hasFreshValue(e);
       removeEntry(e);
       return f;
     }
@@ -998,7 +1386,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
         metrics.peekMiss();
         return false;
       }
-      boolean f = e.hasFreshData(clock);
+      boolean f = hasFreshValue(e);
       if (f) {
         if (!e.equalsValue(_value)) {
           return false;
@@ -1030,7 +1418,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
         return null;
       }
       V _value = null;
-      boolean f = e.hasFreshData(clock);
+      boolean f = hasFreshValue(e);
       if (f) {
         _value = (V) e.getValueOrException();
       } else {
@@ -1045,6 +1433,11 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     return prefetchExecutor;
   }
 
+  @Override
+  protected Executor getInvokeAllExecutor() {
+    return (featureBits & PARALLEL_INVOKE_ALL) > 0 ? executor : null;
+  }
+
   @Override
   public void prefetch(final K key) {
     if (loader == null) {
@@ -1072,7 +1465,25 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
       _listener.onCompleted();
       return;
     }
-    Set<K> _keysToLoad = checkAllPresent(_keys);
+    final Set<K> _keysToLoad = checkAllPresent(_keys);
+    if (bulkLoader != null && !_keysToLoad.isEmpty()) {
+      Runnable r = new RunWithCatch(this) {
+        @Override
+        public void action() {
+          try {
+            bulkLoad(_keysToLoad, null);
+          } finally {
+            _listener.onCompleted();
+          }
+        }
+      };
+      try {
+        getPrefetchExecutor().execute(r);
+      } catch (RejectedExecutionException ex) {
+        _listener.onCompleted();
+      }
+      return;
+    }
     final AtomicInteger _count = new AtomicInteger(2);
     try {
       for (K k : _keysToLoad) {
@@ -1105,11 +1516,29 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
   public void loadAll(final Iterable<? extends K> _keys, final CacheOperationCompletionListener l) {
     checkLoaderPresent();
     final CacheOperationCompletionListener _listener= l != null ? l : DUMMY_LOAD_COMPLETED_LISTENER;
-    Set<K> _keysToLoad = checkAllPresent(_keys);
+    final Set<K> _keysToLoad = checkAllPresent(_keys);
     if (_keysToLoad.isEmpty()) {
       _listener.onCompleted();
       return;
     }
+    if (bulkLoader != null) {
+      Runnable r = new RunWithCatch(this) {
+        @Override
+        public void action() {
+          try {
+            bulkLoad(_keysToLoad, null);
+          } finally {
+            _listener.onCompleted();
+          }
+        }
+      };
+      try {
+        loaderExecutor.execute(r);
+      } catch (RejectedExecutionException ex) {
+        r.run();
+      }
+      return;
+    }
     final AtomicInteger _countDown = new AtomicInteger(_keysToLoad.size());
     for (K k : _keysToLoad) {
       final K key = k;
@@ -1310,6 +1739,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
    */
   protected Entry<K, V> insertNewEntry(K key, int hc, int val) {
     Entry<K,V> e = new Entry<K,V>(extractIntKeyObj(key), val);
+    e.accessRound = accessRound;
     Entry<K, V> e2;
     eviction.evictEventually(hc);
     final OptimisticLock l = hash.getSegmentLock(hc);
@@ -1318,11 +1748,17 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
       e2 = hash.insertWithinLock(e, hc, val);
       if (e == e2) {
         eviction.submitWithoutEviction(e);
+        if (keyIndex != null) {
+          keyIndex.add(e);
+        }
       }
     } finally {
       l.unlockWrite(_stamp);
     }
     hash.checkExpand(hc);
+    if (idleScanStopped.get() && idleScanStopped.compareAndSet(true, false)) {
+      timing.resumeIdleScan();
+    }
     return e2;
   }
 
@@ -1338,9 +1774,12 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
    */
   public void removeEntryForEviction(Entry<K, V> e) {
     boolean f = hash.remove(e);
+    e.setGone();
+    if (f) {
+      removeFromIndexes(e);
+    }
     checkForHashCodeChange(e);
     timing.cancelExpiryTimer(e);
-    e.setGone();
   }
 
   /**
@@ -1377,8 +1816,13 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
         return;
       }
     }
+    boolean _permitted = false;
     try {
       checkLoaderPresent();
+      if (!timing.isLoadPermitted(t0)) {
+        throw new CircuitBreakerOpenException();
+      }
+      _permitted = true;
       if (e.isVirgin()) {
         v = loader.load(extractKeyObj(e), t0, null);
       } else {
@@ -1394,6 +1838,9 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
       if (!metrics.isDisabled() && isUpdateTimeNeeded()) {
         t = clock.millis();
       }
+      if (_permitted) {
+        timing.loadFailed(t);
+      }
       loadGotException(e, t0, t, _ouch);
       return;
     }
@@ -1401,9 +1848,112 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     if (!metrics.isDisabled() && isUpdateTimeNeeded()) {
       t = clock.millis();
     }
+    timing.loadSucceeded(t);
     insertOrUpdateAndCalculateExpiry(e, v, t0, t, refreshTime, INSERT_STAT_LOAD);
   }
 
+  /**
+   * Load the keys with one call to the bulk loader. Keys with fresh data, or being
+   * processed by another thread, are skipped. Keys missing in the loader result are
+   * loaded separately. Exceptions are handled per entry, so each key is subject to the
+   * resilience policy.
+   *
+   * @param _loadedEntries if not {@code null}, receives the loaded entries, as
+   *                       {@link #getEntryInternal(Object)} would return them
+   */
+  protected void bulkLoad(Set<K> _keys, Map<K, ExaminationEntry<K, V>> _loadedEntries) {
+    List<Entry<K,V>> _entries = new ArrayList<Entry<K,V>>(_keys.size());
+    Set<K> _keysToLoad = new HashSet<K>();
+    for (K key : _keys) {
+      Entry<K,V> e;
+      for (;;) {
+        e = lookupOrNewEntry(key);
+        if (e.hasFreshData(clock)) {
+          e = null;
+          break;
+        }
+        synchronized (e) {
+          if (e.isProcessing() || e.hasFreshData(clock)) {
+            e = null;
+            break;
+          }
+          if (e.isGone()) {
+            metrics.goneSpin();
+            continue;
+          }
+          e.startProcessing(Entry.ProcessingState.LOAD, null);
+          break;
+        }
+      }
+      if (e == null) {
+        continue;
+      }
+      if (e.getNextRefreshTime() == Entry.EXPIRED_REFRESHED &&
+        entryInRefreshProbationAccessed(e, clock.millis())) {
+        continue;
+      }
+      _entries.add(e);
+      _keysToLoad.add(key);
+    }
+    if (_entries.isEmpty()) {
+      return;
+    }
+    int _finishedCount = 0;
+    try {
+      long t0 = !isUpdateTimeNeeded() ? 0 : clock.millis();
+      Map<K, V> _result = Collections.emptyMap();
+      Map<K, Throwable> _exceptions = Collections.emptyMap();
+      Throwable _commonException = null;
+      boolean _permitted = timing.isLoadPermitted(t0);
+      try {
+        if (!_permitted) {
+          throw new CircuitBreakerOpenException();
+        }
+        _result = bulkLoader.loadAll(_keysToLoad);
+      } catch (BulkCacheLoaderException ex) {
+        _result = ex.getResult();
+        _exceptions = ex.getExceptions();
+      } catch (Throwable _ouch) {
+        _commonException = _ouch;
+      }
+      long t = t0;
+      if (!metrics.isDisabled() && isUpdateTimeNeeded()) {
+        t = clock.millis();
+      }
+      if (_commonException == null) {
+        timing.loadSucceeded(t);
+      } else if (_permitted) {
+        timing.loadFailed(t);
+      }
+      for (Entry<K,V> e : _entries) {
+        K key = extractKeyObj(e);
+        Throwable _exception = _commonException != null ? _commonException : _exceptions.get(key);
+        if (_exception != null) {
+          loadGotException(e, t0, t, _exception);
+        } else if (_result.containsKey(key)) {
+          V v = _result.get(key);
+          long _refreshTime = t0;
+          if (v instanceof RefreshedTimeWrapper) {
+            RefreshedTimeWrapper wr = RefreshedTimeWrapper.class.cast(v);
+            _refreshTime = wr.getRefreshTime();
+            v = (V) wr.getValue();
+          }
+          insertOrUpdateAndCalculateExpiry(e, v, t0, t, _refreshTime, INSERT_STAT_LOAD);
+        } else {
+          load(e);
+        }
+        _finishedCount++;
+        if (_loadedEntries != null && !(e.getValueOrException() == null && isRejectNullValues())) {
+          _loadedEntries.put(key, ReadOnlyCacheEntry.of(e));
+        }
+      }
+    } finally {
+      for (int i = _finishedCount; i < _entries.size(); i++) {
+        _entries.get(i).ensureAbort(false);
+      }
+    }
+  }
+
   /**
    * Entry was refreshed before, reset timer and make entry visible again.
    */
@@ -1428,7 +1978,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     long _nextRefreshTime = 0;
     boolean _suppressException = false;
     try {
-      if ((e.isDataValid() || e.isExpiredState()) && e.getException() == null) {
+      if ((e.isDataValid() || e.isExpiredState() || e.isStale()) && e.getException() == null) {
         _nextRefreshTime = timing.suppressExceptionUntil(e, _value);
       }
       if (_nextRefreshTime > t0) {
@@ -1449,6 +1999,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
           e.setRefreshTime(t0);
         }
         e.setValueOrException((V) _value);
+        updateIndexes(e, (V) _value);
       }
       _value.setUntil(Math.abs(_nextRefreshTime));
       finishLoadOrEviction(e, _nextRefreshTime);
@@ -1508,7 +2059,7 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
 
   protected final void insert(Entry<K, V> e, V _value, long t0, long t, final long _refreshTime, byte _updateStatistics, long _nextRefreshTime) {
     if (_updateStatistics == INSERT_STAT_LOAD) {
-      if (_value == null && isRejectNullValues() && _nextRefreshTime != 0) {
+      if (_value == null && isRejectNullValues() && !isNegativeCaching() && _nextRefreshTime != 0) {
         loadGotException(e, t0, t, returnNullValueDetectedException());
         return;
       }
@@ -1518,6 +2069,8 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
         }
         insertUpdateStats(e, _value, t0, t, _updateStatistics, _nextRefreshTime, false);
         e.setValueOrException(_value);
+        updateIndexes(e, _value);
+        recordRefreshHitCount(e);
         e.resetSuppressedLoadExceptionInformation();
         finishLoadOrEviction(e, _nextRefreshTime);
       }
@@ -1529,6 +2082,8 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
         e.setRefreshTime(_refreshTime);
       }
       e.setValueOrException(_value);
+      updateIndexes(e, _value);
+      recordRefreshHitCount(e);
       e.resetSuppressedLoadExceptionInformation();
       insertUpdateStats(e, _value, t0, t, _updateStatistics, _nextRefreshTime, false);
       restartTimer(e, _nextRefreshTime);
@@ -1554,6 +2109,13 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
           metrics.reload(_millis);
         }
       }
+      if (_suppressException || _value instanceof ExceptionWrapper) {
+        metrics.loadExceptionLatency(_millis);
+      } else if (e.isGettingRefresh()) {
+        metrics.refreshLatency(_millis);
+      } else {
+        metrics.loadLatency(_millis);
+      }
     } else {
       if (_nextRefreshTime != 0) {
         metrics.putNewEntry();
@@ -1566,6 +2128,14 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     metrics.timerEvent();
     synchronized (e) {
       if (e.getTask() != task) { return; }
+      if (isColdForRefresh(e)) {
+        long nrt = e.getNextRefreshTime();
+        if (nrt < 0 || clock.millis() >= nrt) {
+          metrics.refreshSkipped();
+        }
+        expireOrScheduleFinalExpireEvent(e);
+        return;
+      }
       Runnable r = new Runnable() {
         @Override
         public void run() {
@@ -1582,6 +2152,31 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     }
   }
 
+  /**
+   * A refresh is most likely wasted if the entry had no access since it was loaded,
+   * refreshed or updated. We use the hit counter the eviction keeps anyway and compare
+   * it with the snapshot taken when the value was set. The hot flag of the Clock-Pro
+   * eviction is no indicator, since new entries are inserted as hot during warm up.
+   * The eviction decreases the hit counter, which counts as access, so in doubt the
+   * entry is refreshed.
+   *
+   * @see Cache2kConfiguration#isRefreshAheadSkipCold()
+   * @see #recordRefreshHitCount(Entry)
+   */
+  final boolean isColdForRefresh(Entry e) {
+    return isRefreshSkipCold() && (int) e.hitCnt == e.refreshHitCnt;
+  }
+
+  /**
+   * A value was loaded or updated, take the snapshot of the hit counter.
+   * Called while holding the entry lock.
+   */
+  final void recordRefreshHitCount(Entry e) {
+    if (isRefreshSkipCold()) {
+      e.refreshHitCnt = (int) e.hitCnt;
+    }
+  }
+
   /**
    * Executed in loader thread. Load the entry again. After the load we copy the entry to the
    * refresh hash and expire it in the main hash. The entry needs to stay in the main hash
@@ -1613,6 +2208,49 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     }
   }
 
+  /**
+   * The entry is stale. Start a load in the loader thread pool, if not already running,
+   * so the caller can return the stale value. The entry stays in processing state until
+   * the load is finished, concurrent reads return the stale value as well.
+   *
+   * @return {@code true} if the stale value can be returned, {@code false} if the entry
+   *         is not stale any more or no loader thread is available
+   * @see Cache2kConfiguration#getStaleWhileRevalidate()
+   */
+  private boolean revalidateStaleEntry(final Entry<K, V> e) {
+    synchronized (e) {
+      if (!e.isStale()) {
+        return false;
+      }
+      if (e.isProcessing()) {
+        return true;
+      }
+      e.startProcessing(Entry.ProcessingState.LOAD, null);
+    }
+    Runnable r = new Runnable() {
+      @Override
+      public void run() {
+        boolean _finished = false;
+        try {
+          load(e);
+          _finished = true;
+        } catch (CacheClosedException ignore) {
+        } catch (Throwable ex) {
+          logAndCountInternalException("Revalidate exception", ex);
+        } finally {
+          e.ensureAbort(_finished);
+        }
+      }
+    };
+    try {
+      loaderExecutor.execute(r);
+      return true;
+    } catch (RejectedExecutionException ignore) {
+    }
+    e.ensureAbort(false);
+    return false;
+  }
+
   public void startRefreshProbationTimer(final Entry<K, V> e, long _nextRefreshTime) {
     boolean _expired = timing.startRefreshProbationTimer(e, _nextRefreshTime);
     if (_expired) {
@@ -1646,10 +2284,79 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     }
   }
 
+  @Override
+  public int timerEventIdleScan() {
+    return idleScan(this);
+  }
+
+  /**
+   * Expire entries that had no access within the idle time. Instead of recording the
+   * access time, each access copies the number of the current scan round into the entry.
+   * This needs no clock access and no timer update on the read path. A round scans all
+   * entries in batches of {@link Tunable#idleScanBatchSize}, which the timing handler
+   * spreads over the round interval, the idle time divided by
+   * {@link Tunable#idleScanRoundsPerIdleTime}, so big caches cause no long running scans.
+   *
+   * <p>An access may happen at any time within its round and the entry may be scanned at
+   * any position within a later round. So the entry is expired, if its access round is more
+   * than {@code idleScanRoundsPerIdleTime} rounds behind. The actual idle time is between
+   * the configured duration and the duration plus two round intervals.
+   *
+   * <p>Idle entries are expired via the user facing cache, so listeners are called.
+   * The action starts with the scanned entry and does not record a hit. The access round
+   * is checked again under the entry lock, so an entry accessed concurrently to the scan
+   * is kept. If the cache is empty at the end of a round,
+   * scanning stops until the next insert, so an unused cache causes no periodic work.
+   *
+   * @return estimated number of batches remaining in this round, 0 if the round is
+   *         complete and the next round needs to be scheduled, or -1 if scanning stopped
+   */
+  int idleScan(BaseCache<K,V> _userCache) {
+    int _round = accessRound;
+    int _rounds = TUNABLE.idleScanRoundsPerIdleTime;
+    int _batchSize = TUNABLE.idleScanBatchSize;
+    ConcurrentEntryIterator<K,V> it = idleScanIterator;
+    if (it == null) {
+      it = iterateAllHeapEntries();
+      idleScanCount = 0;
+    }
+    Semantic<K, V, Void> _expireIdle = null;
+    int _count = 0;
+    while (_count < _batchSize && it.hasNext()) {
+      Entry<K,V> e = it.next();
+      _count++;
+      if (_round - e.accessRound <= _rounds || !e.hasFreshData(clock)) {
+        continue;
+      }
+      if (_expireIdle == null) {
+        _expireIdle = Operations.SINGLETON.expireIdle(_round, _rounds);
+      }
+      _userCache.execute(extractKeyObj(e), e, _expireIdle);
+    }
+    idleScanCount += _count;
+    if (it.hasNext()) {
+      idleScanIterator = it;
+      return (int) Math.max(1, (getLocalSize() - idleScanCount) / _batchSize + 1);
+    }
+    idleScanIterator = null;
+    accessRound = _round + 1;
+    if (getLocalSize() > 0) {
+      return 0;
+    }
+    idleScanStopped.set(true);
+    if (getLocalSize() > 0 && idleScanStopped.compareAndSet(true, false)) {
+      return 0;
+    }
+    return -1;
+  }
+
   private void expireOrScheduleFinalExpireEvent(Entry<K,V> e) {
     long nrt = e.getNextRefreshTime();
     long t = clock.millis();
     if (t >= Math.abs(nrt)) {
+      if (isLoaderPresent() && e.getException() == null && timing.startStaleTimer(e, t)) {
+        return;
+      }
       try {
         expireEntry(e);
       } catch (CacheClosedException ignore) { }
@@ -1714,15 +2421,167 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
    */
   public Map<K, V> getAll(final Iterable<? extends K> _inputKeys) {
     Map<K, ExaminationEntry<K, V>> map = new HashMap<K, ExaminationEntry<K, V>>();
-    for (K k : _inputKeys) {
+    Iterable<? extends K> _keys = _inputKeys;
+    if (bulkLoader != null) {
+      Set<K> _keySet = generateKeySet(_inputKeys);
+      Set<K> _keysToLoad = checkAllPresent(_keySet);
+      if (_keysToLoad.size() > 1) {
+        bulkLoad(_keysToLoad, map);
+      }
+      _keys = _keySet;
+    }
+    for (K k : _keys) {
+      if (map.containsKey(k)) {
+        continue;
+      }
       Entry<K,V> e = getEntryInternal(k);
-      if (e != null) {
+      if (e != null && !isNegativeCached(e)) {
         map.put(extractKeyObj(e), ReadOnlyCacheEntry.of(e));
       }
     }
     return convertValueMap(map);
   }
 
+  /**
+   * Streams the values to the action in the iteration order of the keys, without building
+   * a map of the result. If a bulk loader is present and more than one key needs loading,
+   * the missing values are loaded in one bulk request first. Only the loaded entries are
+   * kept in a map, since they might expire immediately and would be loaded again by
+   * {@link #getEntryInternal(Object)}.
+   */
+  @Override
+  public void getAll(final Iterable<? extends K> _keys, final BiConsumer<? super K, ? super V> _action) {
+    Map<K, ExaminationEntry<K, V>> _loaded = Collections.emptyMap();
+    if (bulkLoader != null) {
+      Set<K> _keysToLoad = checkAllPresent(_keys);
+      if (_keysToLoad.size() > 1) {
+        _loaded = new HashMap<K, ExaminationEntry<K, V>>();
+        bulkLoad(_keysToLoad, _loaded);
+      }
+    }
+    for (K k : _keys) {
+      ExaminationEntry<K, V> _loadedEntry = _loaded.get(k);
+      if (_loadedEntry != null) {
+        _action.accept(k, returnValue(_loadedEntry.getValueOrException()));
+        continue;
+      }
+      Entry<K,V> e = getEntryInternal(k);
+      if (e != null && !isNegativeCached(e)) {
+        _action.accept(k, returnValue(e));
+      }
+    }
+  }
+
+  /**
+   * Completes immediately, if the value is fresh or no loader is present. Otherwise
+   * the load is done by an entry action in the loader executor, so the calling thread
+   * does not wait for the load.
+   */
+  @Override
+  public CompletableFuture<V> getAsync(final K key) {
+    final CompletableFuture<V> f = new CompletableFuture<V>();
+    if (loader == null) {
+      try {
+        f.complete(get(key));
+      } catch (Throwable t) {
+        f.completeExceptionally(t);
+      }
+      return f;
+    }
+    Entry<K,V> e = lookupEntry(key);
+    if (e != null && e.hasFreshData(clock)) {
+      try {
+        f.complete(returnValue(e));
+      } catch (Throwable t) {
+        f.completeExceptionally(t);
+      }
+      return f;
+    }
+    executeAsync(this, key, e, spec().get(key), new FutureCallback<V>(f) {
+      @Override
+      protected void completed(final V _result) {
+        f.complete(returnValue(_result));
+      }
+    }, true);
+    return f;
+  }
+
+  /**
+   * Fresh entries are taken from the heap directly. For the other keys an entry
+   * action is started in the loader executor. The future completes, when all
+   * actions are completed.
+   */
+  @Override
+  public CompletableFuture<Map<K, V>> getAllAsync(final Iterable<? extends K> keys) {
+    final CompletableFuture<Map<K, V>> f = new CompletableFuture<Map<K, V>>();
+    Set<K> _keySet = generateKeySet(keys);
+    final Map<K, CacheEntry<K, V>> map = new ConcurrentHashMap<K, CacheEntry<K, V>>();
+    Map<K, Entry<K, V>> _pending = new HashMap<K, Entry<K, V>>();
+    for (K k : _keySet) {
+      Entry<K, V> e = lookupEntry(k);
+      if (e != null && e.hasFreshData(clock)) {
+        if (!isNegativeCached(e)) {
+          map.put(k, returnEntry(e));
+        }
+      } else if (loader != null) {
+        _pending.put(k, e);
+      }
+    }
+    if (_pending.isEmpty()) {
+      f.complete(convertCacheEntry2ValueMap(map));
+      return f;
+    }
+    final AtomicInteger _countDown = new AtomicInteger(_pending.size());
+    for (Map.Entry<K, Entry<K, V>> me : _pending.entrySet()) {
+      final K k = me.getKey();
+      executeAsync(this, k, me.getValue(), spec().getEntry(k), new FutureCallback<CacheEntry<K, V>>(f) {
+        @Override
+        protected void completed(final CacheEntry<K, V> e) {
+          if (e != null) {
+            map.put(k, e);
+          }
+          if (_countDown.decrementAndGet() == 0) {
+            f.complete(convertCacheEntry2ValueMap(map));
+          }
+        }
+      }, true);
+    }
+    return f;
+  }
+
+  /**
+   * Start the entry action of the user facing cache without waiting for its completion.
+   * If the entry is processed concurrently, the action is queued and executed after the
+   * running one. An action that might call a synchronous loader starts in the loader
+   * executor. If the loader executor rejects, e.g. because all loader threads are busy,
+   * the action starts in the common executor, so the calling thread never waits for a load.
+   *
+   * @param _mightBlock the action might block on a synchronous loader
+   */
+  <R> void executeAsync(BaseCache<K, V> _userCache, K key, Entry<K, V> e, Semantic<K, V, R> op,
+                        final FutureCallback<?> cb, boolean _mightBlock) {
+    final EntryAction<K, V, R> _action = _userCache.createEntryAction(key, e, op, cb);
+    if (!_mightBlock) {
+      cb.start(_action);
+      return;
+    }
+    Runnable r = new Runnable() {
+      @Override
+      public void run() {
+        cb.start(_action);
+      }
+    };
+    try {
+      loaderExecutor.execute(r);
+    } catch (RejectedExecutionException ex) {
+      try {
+        executor.execute(r);
+      } catch (RejectedExecutionException ex2) {
+        cb.failed(ex2);
+      }
+    }
+  }
+
   public Map<K, V> convertValueMap(final Map<K, ExaminationEntry<K, V>> _map) {
     return new MapValueConverterProxy<K, V, ExaminationEntry<K, V>>(_map) {
       @Override
@@ -1752,17 +2611,273 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
     return convertValueMap(map);
   }
 
+  @Override
+  public void peekAll(final Iterable<? extends K> _keys, final BiConsumer<? super K, ? super V> _action) {
+    for (K k : _keys) {
+      Entry<K, V> e = peekEntryInternal(k);
+      if (e != null) {
+        _action.accept(k, returnValue(e));
+      }
+    }
+  }
+
+  /**
+   * Puts the entries in chunks. Within a chunk the keys are grouped by hash segment, so
+   * new entries of one segment are inserted with one acquisition of the segment lock.
+   * The eviction runs after each chunk, instead of before every insert.
+   */
   public void putAll(Map<? extends K, ? extends V> valueMap) {
+    int n = valueMap.size();
+    if (n < TUNABLE.bulkOperationMinSize) {
+      for (Map.Entry<? extends K, ? extends V> e : valueMap.entrySet()) {
+        put(e.getKey(), e.getValue());
+      }
+      return;
+    }
+    int _chunkSize = Math.min(n, TUNABLE.bulkOperationChunkSize);
+    Object[] _keys = new Object[_chunkSize];
+    Object[] _values = new Object[_chunkSize];
+    int[] _hashes = new int[_chunkSize];
+    Entry[] _entries = new Entry[_chunkSize];
+    int cnt = 0;
     for (Map.Entry<? extends K, ? extends V> e : valueMap.entrySet()) {
-      put(e.getKey(), e.getValue());
+      K key = e.getKey();
+      _keys[cnt] = key;
+      _values[cnt] = e.getValue();
+      _hashes[cnt] = modifiedHash(key.hashCode());
+      if (++cnt == _chunkSize) {
+        putChunk(_keys, _values, _hashes, _entries, cnt);
+        cnt = 0;
+      }
+    }
+    if (cnt > 0) {
+      putChunk(_keys, _values, _hashes, _entries, cnt);
+    }
+  }
+
+  private void putChunk(Object[] _keys, Object[] _values, int[] _hashes, Entry[] _entries, int cnt) {
+    int[] _order = sortBySegment(_hashes, cnt);
+    int _inserted = 0;
+    int i = 0;
+    while (i < cnt) {
+      int _segment = hash.getSegmentIndex(_hashes[_order[i]]);
+      int _end = i;
+      boolean _missing = false;
+      do {
+        int idx = _order[_end];
+        K key = (K) _keys[idx];
+        int hc = _hashes[idx];
+        Entry e = lookupEntry(key, hc, extractIntKeyValue(key, hc));
+        _entries[idx] = e;
+        _missing |= e == null;
+        _end++;
+      } while (_end < cnt && hash.getSegmentIndex(_hashes[_order[_end]]) == _segment);
+      if (_missing) {
+        int _firstHash = _hashes[_order[i]];
+        OptimisticLock l = hash.getSegmentLock(_firstHash);
+        long _stamp = l.writeLock();
+        try {
+          for (int j = i; j < _end; j++) {
+            int idx = _order[j];
+            if (_entries[idx] != null) {
+              continue;
+            }
+            K key = (K) _keys[idx];
+            int hc = _hashes[idx];
+            int val = extractIntKeyValue(key, hc);
+            Entry<K, V> e = new Entry<K, V>(extractIntKeyObj(key), val);
+            e.accessRound = accessRound;
+            Entry<K, V> e2 = hash.insertWithinLock(e, hc, val);
+            if (e == e2) {
+              eviction.submitWithoutEviction(e);
+              if (keyIndex != null) {
+                keyIndex.add(e);
+              }
+              _inserted++;
+            }
+            _entries[idx] = e2;
+          }
+        } finally {
+          l.unlockWrite(_stamp);
+        }
+        hash.checkExpand(_firstHash);
+      }
+      i = _end;
+    }
+    if (_inserted > 0 && idleScanStopped.get() && idleScanStopped.compareAndSet(true, false)) {
+      timing.resumeIdleScan();
+    }
+    int j = 0;
+    try {
+      for (; j < cnt; j++) {
+        int idx = _order[j];
+        Entry e = _entries[idx];
+        boolean _gone = false;
+        synchronized (e) {
+          e.waitForProcessing();
+          if (e.isGone()) {
+            metrics.goneSpin();
+            _gone = true;
+          } else {
+            if (!e.isVirgin()) {
+              metrics.heapHitButNoRead();
+            }
+            putValue(e, (V) _values[idx]);
+          }
+        }
+        if (_gone) {
+          put((K) _keys[idx], (V) _values[idx]);
+        }
+        _entries[idx] = null;
+        _keys[idx] = null;
+        _values[idx] = null;
+      }
+    } finally {
+      for (; j < cnt; j++) {
+        int idx = _order[j];
+        removeVirginEntry(_entries[idx]);
+        _entries[idx] = null;
+        _keys[idx] = null;
+        _values[idx] = null;
+      }
+      if (_inserted > 0) {
+        eviction.evictUntilWithinLimit();
+      }
+    }
+  }
+
+  /**
+   * Remove an entry that was inserted by {@link #putChunk} but got no value,
+   * because a previous put of the chunk failed.
+   */
+  private void removeVirginEntry(Entry e) {
+    synchronized (e) {
+      e.waitForProcessing();
+      if (!e.isGone() && e.isVirgin()) {
+        removeEntry(e);
+      }
+    }
+  }
+
+  /**
+   * Removes the keys in chunks. Within a chunk the entries are grouped by hash segment,
+   * so each segment lock is acquired once. Entries that are processed by another
+   * operation are removed one by one, after the chunk.
+   */
+  @Override
+  public void removeAll(Iterable<? extends K> _keys) {
+    int _chunkSize = TUNABLE.bulkOperationChunkSize;
+    Entry[] _entries = null;
+    int[] _hashes = null;
+    int cnt = 0;
+    for (K key : _keys) {
+      int hc = modifiedHash(key.hashCode());
+      Entry e = lookupEntryNoHitRecord(key, hc, extractIntKeyValue(key, hc));
+      if (e == null) {
+        continue;
+      }
+      if (_entries == null) {
+        _entries = new Entry[_chunkSize];
+        _hashes = new int[_chunkSize];
+      }
+      _entries[cnt] = e;
+      _hashes[cnt] = hc;
+      if (++cnt == _chunkSize) {
+        removeChunk(_entries, _hashes, cnt);
+        cnt = 0;
+      }
+    }
+    if (cnt > 0) {
+      removeChunk(_entries, _hashes, cnt);
     }
   }
 
+  private void removeChunk(Entry[] _entries, int[] _hashes, int cnt) {
+    List<Entry> _busy = null;
+    for (int i = 0; i < cnt; i++) {
+      Entry e = _entries[i];
+      synchronized (e) {
+        if (e.isGone()) {
+          _entries[i] = null;
+        } else if (e.isProcessing()) {
+          if (_busy == null) {
+            _busy = new ArrayList<Entry>();
+          }
+          _busy.add(e);
+          _entries[i] = null;
+        } else {
+          e.startProcessing(Entry.ProcessingState.MUTATE, null);
+        }
+      }
+    }
+    int[] _order = sortBySegment(_hashes, cnt);
+    int i = 0;
+    while (i < cnt) {
+      int _segment = hash.getSegmentIndex(_hashes[_order[i]]);
+      int _end = i;
+      while (_end < cnt && hash.getSegmentIndex(_hashes[_order[_end]]) == _segment) {
+        _end++;
+      }
+      OptimisticLock l = hash.getSegmentLock(_hashes[_order[i]]);
+      long _stamp = l.writeLock();
+      try {
+        for (int j = i; j < _end; j++) {
+          Entry e = _entries[_order[j]];
+          if (e != null && hash.removeWithinLock(e, _hashes[_order[j]])) {
+            eviction.submitWithoutEviction(e);
+          }
+        }
+      } finally {
+        l.unlockWrite(_stamp);
+      }
+      i = _end;
+    }
+    for (int j = 0; j < cnt; j++) {
+      Entry e = _entries[j];
+      if (e == null) {
+        continue;
+      }
+      _entries[j] = null;
+      synchronized (e) {
+        removeFromIndexes(e);
+        e.setGone();
+        e.processingDone();
+      }
+      checkForHashCodeChange(e);
+      timing.cancelExpiryTimer(e);
+    }
+    if (_busy != null) {
+      for (Entry e : _busy) {
+        containsAndRemove((K) extractKeyObj(e));
+      }
+    }
+  }
+
+  /**
+   * Order of the positions, so that hashes of the same segment are next to each other.
+   */
+  private int[] sortBySegment(int[] _hashes, int cnt) {
+    int[] _start = new int[hash.getSegmentCount() + 1];
+    for (int i = 0; i < cnt; i++) {
+      _start[hash.getSegmentIndex(_hashes[i]) + 1]++;
+    }
+    for (int i = 1; i < _start.length; i++) {
+      _start[i] += _start[i - 1];
+    }
+    int[] _order = new int[cnt];
+    for (int i = 0; i < cnt; i++) {
+      _order[_start[hash.getSegmentIndex(_hashes[i])]++] = i;
+    }
+    return _order;
+  }
+
   Operations<K,V> spec() { return Operations.SINGLETON; }
 
   @Override
-  protected <R> EntryAction<K, V, R> createEntryAction(final K key, final Entry<K, V> e, final Semantic<K, V, R> op) {
-    return new EntryAction<K, V, R>(this, this, op, key, e) {
+  protected <R> EntryAction<K, V, R> createEntryAction(final K key, final Entry<K, V> e,
+                                                       final Semantic<K, V, R> op,
+                                                       final EntryAction.CompletedCallback cb) {
+    return new EntryAction<K, V, R>(this, this, op, key, e, cb) {
       @Override
       protected TimingHandler<K, V> timing() {
         return timing;
@@ -2076,6 +3191,75 @@ public class HeapCache<K, V> extends BaseCache<K, V> {
      */
     public int segmentCountOverride = 0;
 
+    /**
+     * Tick interval of the shared coarse clock in milliseconds. If positive, caches that
+     * have no time reference configured read the time from the
+     * {@link org.cache2k.core.util.CoarseClock}, instead of calling
+     * {@link System#currentTimeMillis()} for every operation. Default is 0, no coarse clock.
+     */
+    public long coarseClockTickMillis = 0;
+
+    /**
+     * Number of idle scans within the time configured by
+     * {@link org.cache2k.Cache2kBuilder#expireAfterAccess}. An idle entry expires after
+     * the configured time plus two scan intervals at most, so the default of 8 keeps the
+     * lag within a quarter of the configured time. A higher value makes the idle
+     * expiry more precise, at the cost of more frequent scans. Default: 8.
+     */
+    public int idleScanRoundsPerIdleTime = 8;
+
+    /**
+     * Maximum number of entries the idle scan examines in one timer event. The batches
+     * of one round are spread over the scan interval.
+     */
+    public int idleScanBatchSize = 1000;
+
+    /**
+     * Maximum number of keys in a bulk load, when single loads are coalesced.
+     * A full batch is loaded without waiting for the end of the time window.
+     *
+     * @see org.cache2k.Cache2kBuilder#loaderBatchWindow
+     */
+    public int loaderBatchMaxSize = 100;
+
+    /**
+     * Maximum number of waiting loads per cache in the shared loader pool. Further loads
+     * are rejected, like in an exclusive loader thread pool with all threads busy.
+     *
+     * @see org.cache2k.Cache2kBuilder#sharedLoaderPool(boolean)
+     */
+    public int sharedLoaderPoolQueueCapacity = 1000;
+
+    /**
+     * Maps or key sets with less entries are processed one by one by
+     * {@link HeapCache#putAll(Map)}.
+     */
+    public int bulkOperationMinSize = 8;
+
+    /**
+     * Number of entries processed together by {@link HeapCache#putAll(Map)} and
+     * {@link HeapCache#removeAll(Iterable)}. Within a chunk, each hash segment lock
+     * is acquired once. The cache may exceed its capacity by a chunk, before the
+     * eviction runs.
+     */
+    public int bulkOperationChunkSize = 1024;
+
+    /**
+     * Number of keys processed as one unit by a parallel {@link HeapCache#invokeAll}.
+     * With fewer keys than this, processing is sequential.
+     *
+     * @see org.cache2k.Cache2kBuilder#parallelInvokeAll(boolean)
+     */
+    public int invokeAllChunkSize = 64;
+
+    /**
+     * Number of hash table ranges per thread for a parallel scan. More ranges
+     * compensate for an uneven distribution of the entries.
+     *
+     * @see org.cache2k.Cache#parallelScan
+     */
+    public int scanRangesPerThread = 4;
+
 
   }
 
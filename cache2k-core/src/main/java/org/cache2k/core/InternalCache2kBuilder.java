@@ -22,10 +22,14 @@ package org.cache2k.core;
 
 import org.cache2k.Cache2kBuilder;
 import org.cache2k.CacheEntry;
+import org.cache2k.IndexExtractor;
+import org.cache2k.TagExtractor;
 import org.cache2k.Weigher;
 import org.cache2k.configuration.CustomizationSupplier;
+import org.cache2k.core.concurrency.VirtualThreadExecutor;
 import org.cache2k.core.operation.ExaminationEntry;
 import org.cache2k.core.util.ClockDefaultImpl;
+import org.cache2k.core.util.CoarseClock;
 import org.cache2k.core.util.InternalClock;
 import org.cache2k.event.CacheEntryCreatedListener;
 import org.cache2k.event.CacheEntryEvictedListener;
@@ -40,6 +44,7 @@ import org.cache2k.core.event.AsyncDispatcher;
 import org.cache2k.core.event.AsyncEvent;
 import org.cache2k.integration.AdvancedCacheLoader;
 import org.cache2k.integration.AsyncCacheLoader;
+import org.cache2k.integration.BulkCacheLoader;
 import org.cache2k.integration.CacheLoader;
 import org.cache2k.integration.CacheWriter;
 import org.cache2k.integration.FunctionalCacheLoader;
@@ -48,6 +53,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -71,9 +77,22 @@ public class InternalCache2kBuilder<K, V> {
       HeapCache.TUNABLE.threadFactoryProvider.newThreadFactory("cache2k-listener"),
       new ThreadPoolExecutor.AbortPolicy());
 
+  private static Executor virtualThreadListenerExecutor;
+
   private CacheManagerImpl manager;
   private Cache2kConfiguration<K, V> config;
 
+  /**
+   * Executor for asynchronous listeners shared by all caches, like the default executor.
+   * Created on first use, since virtual threads are not supported by every JVM.
+   */
+  private static synchronized Executor getVirtualThreadListenerExecutor() {
+    if (virtualThreadListenerExecutor == null) {
+      virtualThreadListenerExecutor = new VirtualThreadExecutor("cache2k-listener");
+    }
+    return virtualThreadListenerExecutor;
+  }
+
   public InternalCache2kBuilder(final Cache2kConfiguration<K, V> _config, final CacheManager _manager) {
     config = _config;
     manager = (CacheManagerImpl) (_manager == null ? CacheManager.getInstance() : _manager);
@@ -120,6 +139,14 @@ public class InternalCache2kBuilder<K, V> {
             return _loader.load(key);
           }
         });
+        if (obj instanceof BulkCacheLoader) {
+          BulkCacheLoader<K,V> _bulkLoader = (BulkCacheLoader<K,V>) obj;
+          c.setBulkLoader(_bulkLoader);
+          if (config.getLoaderBatchWindow() > 0) {
+            c.setAdvancedLoader(new BatchingBulkLoader<K, V>(_bulkLoader,
+              config.getLoaderBatchWindow(), HeapCache.TUNABLE.loaderBatchMaxSize));
+          }
+        }
       } else {
         final FunctionalCacheLoader<K,V> _loader = (FunctionalCacheLoader) obj;
         c.setAdvancedLoader(new AdvancedCacheLoader<K, V>() {
@@ -135,6 +162,10 @@ public class InternalCache2kBuilder<K, V> {
       AdvancedCacheLoader<K,V> _wrappedLoader = new WrappedAdvancedCacheLoader<K, V>(c, _loader);
       c.setAdvancedLoader(_wrappedLoader);
     }
+    if (config.getLoaderConcurrencyLimiter() != null && c.loader != null) {
+      c.setAdvancedLoader(new LimitingCacheLoader<K, V>(c, c.loader,
+        c.createCustomization(config.getLoaderConcurrencyLimiter())));
+    }
     if (config.getExceptionPropagator() != null) {
       c.setExceptionPropagator(c.createCustomization(config.getExceptionPropagator()));
     }
@@ -210,13 +241,21 @@ public class InternalCache2kBuilder<K, V> {
     InternalCache<K, V> _cache = constructImplementationAndFillParameters(_implClass);
     InternalClock _timeReference = (InternalClock) _cache.createCustomization(config.getTimeReference());
     if (_timeReference == null) {
-      _timeReference = ClockDefaultImpl.INSTANCE;
+      _timeReference = defaultClock();
     }
     HeapCache bc = (HeapCache) _cache;
     bc.setCacheManager(manager);
     if (config.hasCacheClosedListeners()) {
       bc.setCacheClosedListeners(config.getCacheClosedListeners());
     }
+    if (config.hasIndexes()) {
+      for (Map.Entry<String, CustomizationSupplier<IndexExtractor<K, V>>> me : config.getIndexes().entrySet()) {
+        bc.addIndex(me.getKey(), (IndexExtractor<K, V>) bc.createCustomization(me.getValue()));
+      }
+    }
+    if (config.getTagExtractor() != null) {
+      bc.setTagExtractor((TagExtractor<K, V>) bc.createCustomization(config.getTagExtractor()));
+    }
     configureViaSettersDirect(bc);
     bc.setClock(_timeReference);
 
@@ -283,6 +322,8 @@ public class InternalCache2kBuilder<K, V> {
         Executor _executor = DEFAULT_ASYNC_LISTENER_EXECUTOR;
         if (config.getAsyncListenerExecutor() != null) {
           _executor = _cache.createCustomization(config.getAsyncListenerExecutor());
+        } else if (config.isVirtualThreads() && VirtualThreadExecutor.isSupported()) {
+          _executor = getVirtualThreadListenerExecutor();
         }
         AsyncDispatcher<K> _asyncDispatcher = new AsyncDispatcher<K>(wc, _executor);
         List<CacheEntryCreatedListener<K, V>> cll = new ArrayList<CacheEntryCreatedListener<K, V>>();
@@ -353,6 +394,14 @@ public class InternalCache2kBuilder<K, V> {
     return _cache;
   }
 
+  private static InternalClock defaultClock() {
+    long _tickMillis = HeapCache.TUNABLE.coarseClockTickMillis;
+    if (_tickMillis > 0) {
+      return CoarseClock.getShared(_tickMillis);
+    }
+    return ClockDefaultImpl.INSTANCE;
+  }
+
   /**
    * Construct segmented or queued eviction. For the moment hard coded.
    * If capacity is at least 1000 we use 2 segments if 2 or more CPUs are available.
@@ -440,6 +489,9 @@ public class InternalCache2kBuilder<K, V> {
         config.getExpiryPolicy() == null) {
       throw new IllegalArgumentException("not eternal is set, but expire value is missing");
     }
+    if (config.isOrderedKeys() && !Comparable.class.isAssignableFrom(config.getKeyType().getType())) {
+      throw new IllegalArgumentException("ordered keys need a comparable key type");
+    }
   }
 
   static class AsyncCreatedListener<K,V> implements CacheEntryCreatedListener<K,V> {
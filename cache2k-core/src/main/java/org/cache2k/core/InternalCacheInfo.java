@@ -127,6 +127,31 @@ public interface InternalCacheInfo {
    */
   long getRefreshFailedCount();
 
+  /**
+   * Number of refresh timers that were scheduled ahead of the expiry time to spread
+   * the refresh load.
+   *
+   * @see CommonMetrics#getRefreshJitterCount()
+   * @see org.cache2k.Cache2kBuilder#refreshAheadJitter
+   */
+  long getRefreshJitterCount();
+
+  /**
+   * Accumulated milliseconds the refresh timers were scheduled ahead of the expiry time.
+   * Divided by {@link #getRefreshJitterCount()} this is the average spread achieved.
+   *
+   * @see CommonMetrics#getRefreshJitterMillis()
+   */
+  long getRefreshJitterMillis();
+
+  /**
+   * Refresh was skipped, because the entry was cold.
+   *
+   * @see CommonMetrics#getRefreshSkippedCount()
+   * @see org.cache2k.Cache2kBuilder#refreshAheadSkipCold
+   */
+  long getRefreshSkippedCount();
+
   /**
    * Loader exception occurred, but the resilience policy decided to suppress the exception and
    * continue to use the available value.
@@ -271,6 +296,21 @@ public interface InternalCacheInfo {
    */
   long getLoadMillis();
 
+  /**
+   * @see CommonMetrics#getLoadLatency()
+   */
+  LatencyHistogram getLoadLatency();
+
+  /**
+   * @see CommonMetrics#getRefreshLatency()
+   */
+  LatencyHistogram getRefreshLatency();
+
+  /**
+   * @see CommonMetrics#getLoadExceptionLatency()
+   */
+  LatencyHistogram getLoadExceptionLatency();
+
   String getIntegrityDescriptor();
 
   /**
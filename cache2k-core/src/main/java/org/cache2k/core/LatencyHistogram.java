@@ -0,0 +1,117 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with fixed memory, in the style of an HDR histogram.
+ * Values below 8 are counted exactly. Above, each power of two is divided into
+ * 8 linear sub buckets, so the relative error of a reported value is at most 12.5%.
+ * Recording is one atomic increment, reading is not atomic across the buckets.
+ *
+ * @author Jens Wilke
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts;
+
+  public LatencyHistogram() {
+    counts = new AtomicLongArray(BUCKET_COUNT);
+  }
+
+  private LatencyHistogram(AtomicLongArray _counts) {
+    counts = _counts;
+  }
+
+  static int index(long v) {
+    if (v < SUB_BUCKET_COUNT) {
+      return v < 0 ? 0 : (int) v;
+    }
+    int _exp = 63 - Long.numberOfLeadingZeros(v);
+    int _sub = (int) (v >>> (_exp - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return (_exp - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + _sub;
+  }
+
+  /**
+   * Highest value that is counted in the bucket.
+   */
+  static long highestValue(int _index) {
+    if (_index < SUB_BUCKET_COUNT) {
+      return _index;
+    }
+    int _exp = _index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+    long _sub = _index & (SUB_BUCKET_COUNT - 1);
+    long _lowest = (SUB_BUCKET_COUNT + _sub) << (_exp - SUB_BUCKET_BITS);
+    return _lowest + (1L << (_exp - SUB_BUCKET_BITS)) - 1;
+  }
+
+  public void record(long v) {
+    counts.incrementAndGet(index(v));
+  }
+
+  public long getCount() {
+    long _sum = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      _sum += counts.get(i);
+    }
+    return _sum;
+  }
+
+  /**
+   * Value below or equal which the given percentage of the recorded values are.
+   * The reported value is the highest value in the bucket, so it may be higher than
+   * the recorded one. Returns 0 if nothing was recorded.
+   *
+   * @param _percentile percentile, e.g. {@code 99.9}
+   */
+  public long getValueAtPercentile(double _percentile) {
+    long _total = getCount();
+    if (_total == 0) {
+      return 0;
+    }
+    long _rank = Math.max(1, (long) Math.ceil(_percentile * _total / 100));
+    long _sum = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      _sum += counts.get(i);
+      if (_sum >= _rank) {
+        return highestValue(i);
+      }
+    }
+    return highestValue(BUCKET_COUNT - 1);
+  }
+
+  /**
+   * Copy of the current counts, used for the statistics snapshot.
+   */
+  public LatencyHistogram copy() {
+    AtomicLongArray a = new AtomicLongArray(BUCKET_COUNT);
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      a.set(i, counts.get(i));
+    }
+    return new LatencyHistogram(a);
+  }
+
+}
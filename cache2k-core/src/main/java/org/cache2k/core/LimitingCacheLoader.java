@@ -0,0 +1,76 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.CacheEntry;
+import org.cache2k.core.util.InternalClock;
+import org.cache2k.integration.AdvancedCacheLoader;
+import org.cache2k.integration.LoaderConcurrencyLimiter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Acquires a permit from the limiter before calling the loader and reports the load time
+ * and outcome back to the limiter. If no permit is available the load is rejected.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#loaderConcurrencyLimiter(LoaderConcurrencyLimiter)
+ */
+public class LimitingCacheLoader<K, V> extends AdvancedCacheLoader<K, V> implements Closeable {
+
+  private final HeapCache<K, V> heapCache;
+  private final AdvancedCacheLoader<K, V> forward;
+  private final LoaderConcurrencyLimiter limiter;
+
+  public LimitingCacheLoader(HeapCache<K, V> _heapCache, AdvancedCacheLoader<K, V> _forward,
+                             LoaderConcurrencyLimiter _limiter) {
+    heapCache = _heapCache;
+    forward = _forward;
+    limiter = _limiter;
+  }
+
+  @Override
+  public V load(final K key, final long startTime, final CacheEntry<K, V> currentEntry) throws Exception {
+    if (!limiter.acquire()) {
+      throw new RejectedExecutionException("Load rejected by " + limiter);
+    }
+    InternalClock _clock = heapCache.getClock();
+    long t0 = _clock.millis();
+    boolean _failed = true;
+    try {
+      V v = forward.load(key, startTime, currentEntry);
+      _failed = false;
+      return v;
+    } finally {
+      limiter.release(_clock.millis() - t0, _failed);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (forward instanceof Closeable) {
+      ((Closeable) forward).close();
+    }
+  }
+
+}
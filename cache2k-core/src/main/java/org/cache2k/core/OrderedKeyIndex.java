@@ -0,0 +1,94 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of the keys in their natural order, maintained alongside the hash table.
+ * An entry is added when it is inserted into the hash table, while holding the hash
+ * segment lock. It is removed after it was removed from the hash table, outside of the
+ * segment lock. The removal only takes effect, if the key still maps to the removed entry,
+ * so it does not affect a new entry for the same key that was inserted in between.
+ *
+ * <p>The index contains entries that are not fresh yet or any more. The caller
+ * needs to check the entry state.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#orderedKeys(boolean)
+ */
+class OrderedKeyIndex<K, V> {
+
+  private volatile ConcurrentSkipListMap<K, Entry<K, V>> map =
+    new ConcurrentSkipListMap<K, Entry<K, V>>();
+
+  void add(Entry<K, V> e) {
+    map.put(e.getKey(), e);
+  }
+
+  /**
+   * Remove the entry, if it is still the one mapped by its key.
+   */
+  void remove(Entry<K, V> e) {
+    map.remove(e.getKey(), e);
+  }
+
+  /**
+   * Entries with keys from {@code _fromKey}, inclusive, to {@code _toKey}, exclusive,
+   * in key order.
+   */
+  List<Entry<K, V>> range(K _fromKey, K _toKey) {
+    return new ArrayList<Entry<K, V>>(map.subMap(_fromKey, _toKey).values());
+  }
+
+  /**
+   * Entries with a string key starting with the prefix. All keys with the prefix
+   * follow the prefix itself in the natural order of strings. Only called if the
+   * key type is {@code String}, see {@link HeapCache#removeByPrefix(String, org.cache2k.Cache)}.
+   */
+  @SuppressWarnings("unchecked")
+  List<Entry<K, V>> prefix(String _prefix) {
+    List<Entry<K, V>> _entries = new ArrayList<Entry<K, V>>();
+    for (Map.Entry<K, Entry<K, V>> me : map.tailMap((K) _prefix).entrySet()) {
+      if (!((String) me.getKey()).startsWith(_prefix)) {
+        break;
+      }
+      _entries.add(me.getValue());
+    }
+    return _entries;
+  }
+
+  /**
+   * Replace the map instead of clearing it, which would need time proportional
+   * to the number of keys.
+   */
+  void clear() {
+    map = new ConcurrentSkipListMap<K, Entry<K, V>>();
+  }
+
+  int size() {
+    return map.size();
+  }
+
+}
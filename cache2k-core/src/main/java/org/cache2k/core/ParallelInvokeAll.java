@@ -0,0 +1,147 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.CacheException;
+import org.cache2k.processor.EntryProcessingException;
+import org.cache2k.processor.EntryProcessingResult;
+import org.cache2k.processor.EntryProcessor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the entry processor for a list of keys in parallel. The keys are split into
+ * chunks, the calling thread and the tasks submitted to the executor take the next
+ * chunk until all are done. The calling thread waits only for chunks that are in progress,
+ * so a busy executor does not delay the result.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#parallelInvokeAll(boolean)
+ */
+class ParallelInvokeAll<K, V, R> implements Runnable {
+
+  private final BaseCache<K, V> cache;
+  private final K[] keys;
+  private final EntryProcessor<K, V, R> processor;
+  private final Object[] results;
+  private final Throwable[] exceptions;
+  private final int chunkSize;
+  private final int chunkCount;
+  private final AtomicInteger nextChunk = new AtomicInteger();
+  private int completedChunks;
+  private Throwable failure;
+
+  ParallelInvokeAll(final BaseCache<K, V> _cache, final K[] _keys,
+                    final EntryProcessor<K, V, R> _processor, final int _chunkSize) {
+    cache = _cache;
+    keys = _keys;
+    processor = _processor;
+    results = new Object[_keys.length];
+    exceptions = new Throwable[_keys.length];
+    chunkSize = _chunkSize;
+    chunkCount = (_keys.length + _chunkSize - 1) / _chunkSize;
+  }
+
+  /**
+   * Process all keys, using up to {@code _parallelism} threads including the calling one.
+   */
+  @SuppressWarnings("unchecked")
+  Map<K, EntryProcessingResult<R>> execute(Executor ex, int _parallelism) {
+    int _tasks = Math.min(_parallelism, chunkCount) - 1;
+    for (int i = 0; i < _tasks; i++) {
+      try {
+        ex.execute(this);
+      } catch (RejectedExecutionException ignore) {
+        break;
+      }
+    }
+    run();
+    awaitCompletion();
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    if (failure != null) {
+      throw new CacheException(failure);
+    }
+    Map<K, EntryProcessingResult<R>> m =
+      new HashMap<K, EntryProcessingResult<R>>(keys.length * 4 / 3 + 1);
+    for (int i = 0; i < keys.length; i++) {
+      if (exceptions[i] != null) {
+        m.put(keys[i], new BaseCache.ProcessingResult<R>(null, exceptions[i]));
+      } else if (results[i] != null) {
+        m.put(keys[i], new BaseCache.ProcessingResult<R>((R) results[i], null));
+      }
+    }
+    return m;
+  }
+
+  @Override
+  public void run() {
+    int _chunk;
+    while ((_chunk = nextChunk.getAndIncrement()) < chunkCount) {
+      int _end = Math.min(keys.length, (_chunk + 1) * chunkSize);
+      try {
+        for (int i = _chunk * chunkSize; i < _end; i++) {
+          try {
+            results[i] = cache.invoke(keys[i], processor);
+          } catch (EntryProcessingException t) {
+            exceptions[i] = t.getCause();
+          }
+        }
+      } catch (Throwable t) {
+        synchronized (this) {
+          if (failure == null) {
+            failure = t;
+          }
+        }
+      } finally {
+        synchronized (this) {
+          completedChunks++;
+          if (completedChunks == chunkCount) {
+            notifyAll();
+          }
+        }
+      }
+    }
+  }
+
+  private synchronized void awaitCompletion() {
+    boolean _interrupt = false;
+    while (completedChunks < chunkCount) {
+      try {
+        wait();
+      } catch (InterruptedException ignore) {
+        _interrupt = true;
+      }
+    }
+    if (_interrupt) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -75,18 +75,22 @@ public class RandomEviction extends AbstractEviction {
 
   }
 
+  /**
+   * Unlink the list head, so the detached entries form a cyclic list on their own.
+   */
   @Override
-  public long removeAll() {
-    long _count = 0;
-    Entry _head = head;
-    Entry e = head.prev;
-    while (e != _head) {
-      Entry _next = e.prev;
-      e.removedFromList();
-      _count++;
-      e = _next;
+  protected Entry[] detachReplacementLists() {
+    Entry _first = head.next;
+    Entry[] _heads = new Entry[1];
+    if (_first != head) {
+      Entry _last = head.prev;
+      _last.next = _first;
+      _first.prev = _last;
+      _heads[0] = _first;
     }
-    return _count;
+    head = new Entry().shortCircuit();
+    size = 0;
+    return _heads;
   }
 
   @Override
@@ -0,0 +1,56 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.cache2k.IndexExtractor;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Secondary index mapping an attribute extracted from the value to the entries.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#addIndex(String, IndexExtractor)
+ */
+class SecondaryIndex<K, V> extends AttributeIndex<K, V> {
+
+  private final String name;
+  private final IndexExtractor<K, V> extractor;
+
+  SecondaryIndex(final InternalCache<K, V> _cache, final String _name, final IndexExtractor<K, V> _extractor) {
+    super(_cache);
+    name = _name;
+    extractor = _extractor;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  @Override
+  protected Collection<?> extractAttributes(final K key, final V value) {
+    Object _attribute = extractor.extract(key, value);
+    return _attribute == null ? null : Collections.singleton(_attribute);
+  }
+
+}
@@ -70,12 +70,26 @@ public class SegmentedEviction implements Eviction, EvictionMetrics {
   }
 
   @Override
-  public long removeAll() {
-    long _count = 0;
+  public void evictUntilWithinLimit() {
     for (Eviction ev : segments) {
-      _count += ev.removeAll();
+      ev.evictUntilWithinLimit();
     }
-    return _count;
+  }
+
+  @Override
+  public Runnable detachAll() {
+    final Runnable[] _jobs = new Runnable[segments.length];
+    for (int i = 0; i < segments.length; i++) {
+      _jobs[i] = segments[i].detachAll();
+    }
+    return new Runnable() {
+      @Override
+      public void run() {
+        for (Runnable r : _jobs) {
+          r.run();
+        }
+      }
+    };
   }
 
   @Override
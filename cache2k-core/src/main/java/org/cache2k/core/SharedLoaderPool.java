@@ -0,0 +1,245 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.core.util.Log;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loader thread pool shared by the caches of a cache manager. The number of threads
+ * depends on the CPU count and not on the number of caches.
+ *
+ * <p>Each cache gets its own executor with a task queue. The worker threads take the
+ * tasks from the caches in round robin, a cache with weight {@code n} runs up to
+ * {@code n} tasks in its turn. A cache does not run more tasks in parallel than its
+ * concurrency limit, its tasks wait in the queue instead. When the queue of a cache
+ * is full, further tasks are rejected, like the exclusive loader executor does when all
+ * threads are busy.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#sharedLoaderPool(boolean)
+ */
+public class SharedLoaderPool implements Closeable {
+
+  private final ThreadPoolExecutor threadPool;
+  private final int threadCount;
+  private final int queueCapacity;
+  /** Caches with queued tasks and below their concurrency limit */
+  private final Deque<Client> ready = new ArrayDeque<Client>();
+  private int activeWorkers;
+
+  public SharedLoaderPool(int _threadCount, int _queueCapacity, String _threadNamePrefix) {
+    threadCount = _threadCount;
+    queueCapacity = _queueCapacity;
+    threadPool = new ThreadPoolExecutor(_threadCount, _threadCount,
+      21, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<Runnable>(),
+      HeapCache.TUNABLE.threadFactoryProvider.newThreadFactory(_threadNamePrefix));
+    threadPool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Executor for one cache. Closing the executor discards the queued tasks.
+   *
+   * @param _weight number of tasks run in one turn
+   * @param _maxConcurrency maximum number of tasks running in parallel
+   */
+  public Client newClient(int _weight, int _maxConcurrency) {
+    return new Client(Math.max(1, _weight), Math.max(1, _maxConcurrency));
+  }
+
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  @Override
+  public void close() {
+    threadPool.shutdown();
+  }
+
+  private void submit(Client c, Runnable r) {
+    boolean _startWorker = false;
+    synchronized (this) {
+      if (c.closed) {
+        throw new RejectedExecutionException("cache closed");
+      }
+      if (c.queue.size() >= queueCapacity) {
+        throw new RejectedExecutionException("loader queue full, capacity " + queueCapacity);
+      }
+      c.queue.add(r);
+      if (!c.ready && c.running < c.maxConcurrency) {
+        c.ready = true;
+        ready.addLast(c);
+      }
+      if (activeWorkers < threadCount) {
+        activeWorkers++;
+        _startWorker = true;
+      }
+    }
+    if (_startWorker) {
+      try {
+        threadPool.execute(new Worker());
+      } catch (RejectedExecutionException ex) {
+        synchronized (this) {
+          activeWorkers--;
+        }
+        throw ex;
+      }
+    }
+  }
+
+  /**
+   * Take the next task in round robin order. A cache stays first in line, until it has
+   * run as many tasks as its weight. A worker ends, if no task is available.
+   */
+  private synchronized Task next() {
+    Client c = ready.pollFirst();
+    if (c == null) {
+      activeWorkers--;
+      return null;
+    }
+    Runnable r = c.queue.poll();
+    c.running++;
+    c.startedCount++;
+    c.turn++;
+    if (c.queue.isEmpty() || c.running >= c.maxConcurrency) {
+      c.ready = false;
+      c.turn = 0;
+    } else if (c.turn < c.weight) {
+      ready.addFirst(c);
+    } else {
+      c.turn = 0;
+      ready.addLast(c);
+    }
+    return new Task(c, r);
+  }
+
+  private synchronized void finished(Client c) {
+    c.running--;
+    if (!c.ready && !c.queue.isEmpty() && c.running < c.maxConcurrency) {
+      c.ready = true;
+      ready.addLast(c);
+    }
+  }
+
+  private synchronized void discard(Client c) {
+    c.closed = true;
+    c.queue.clear();
+    if (c.ready) {
+      ready.remove(c);
+      c.ready = false;
+    }
+  }
+
+  static class Task {
+    final Client client;
+    final Runnable runnable;
+
+    Task(final Client _client, final Runnable _runnable) {
+      client = _client;
+      runnable = _runnable;
+    }
+  }
+
+  /**
+   * Runs tasks until no task is available. An exception of a task is logged and the
+   * worker continues, so the worker count stays correct.
+   */
+  class Worker implements Runnable {
+    @Override
+    public void run() {
+      Task t;
+      while ((t = next()) != null) {
+        try {
+          t.runnable.run();
+        } catch (Throwable ex) {
+          Log.getLog(SharedLoaderPool.class).warn("Exception in loader task", ex);
+        } finally {
+          finished(t.client);
+        }
+      }
+    }
+  }
+
+  /**
+   * The loader executor of a cache.
+   */
+  public class Client implements Executor, Closeable {
+
+    private final int weight;
+    private final int maxConcurrency;
+    private final Deque<Runnable> queue = new ArrayDeque<Runnable>();
+    private int running;
+    private long startedCount;
+    private int turn;
+    private boolean ready;
+    private boolean closed;
+
+    Client(final int _weight, final int _maxConcurrency) {
+      weight = _weight;
+      maxConcurrency = _maxConcurrency;
+    }
+
+    @Override
+    public void execute(final Runnable r) {
+      submit(this, r);
+    }
+
+    @Override
+    public void close() {
+      discard(this);
+    }
+
+    public int getMaxConcurrency() {
+      return maxConcurrency;
+    }
+
+    public int getRunningCount() {
+      synchronized (SharedLoaderPool.this) {
+        return running;
+      }
+    }
+
+    public long getStartedCount() {
+      synchronized (SharedLoaderPool.this) {
+        return startedCount;
+      }
+    }
+
+    @Override
+    public String toString() {
+      synchronized (SharedLoaderPool.this) {
+        return "SharedLoaderPool.Client(weight=" + weight + ", maxConcurrency=" + maxConcurrency +
+          ", running=" + running + ", queued=" + queue.size() + ")";
+      }
+    }
+
+  }
+
+}
@@ -266,6 +266,47 @@ public class StandardCommonMetrics implements CommonMetrics.Updater {
     refreshSubmitFailedUpdater.addAndGet(this, cnt);
   }
 
+  static final AtomicLongFieldUpdater<StandardCommonMetrics> refreshJitterUpdater =
+    AtomicLongFieldUpdater.newUpdater(StandardCommonMetrics.class, "refreshJitter");
+  private volatile long refreshJitter;
+  static final AtomicLongFieldUpdater<StandardCommonMetrics> refreshJitterMillisUpdater =
+    AtomicLongFieldUpdater.newUpdater(StandardCommonMetrics.class, "refreshJitterMillis");
+  private volatile long refreshJitterMillis;
+  @Override
+  public long getRefreshJitterCount() {
+    return refreshJitterUpdater.get(this);
+  }
+  @Override
+  public long getRefreshJitterMillis() {
+    return refreshJitterMillisUpdater.get(this);
+  }
+  @Override
+  public void refreshJitter(final long _millis) {
+    refreshJitterUpdater.incrementAndGet(this);
+    refreshJitterMillisUpdater.addAndGet(this, _millis);
+  }
+
+  static final AtomicLongFieldUpdater<StandardCommonMetrics> refreshSkippedUpdater =
+    AtomicLongFieldUpdater.newUpdater(StandardCommonMetrics.class, "refreshSkipped");
+  private volatile long refreshSkipped;
+  @Override
+  public void refreshSkipped() {
+    refreshSkippedUpdater.incrementAndGet(this);
+  }
+  @Override
+  public long getRefreshSkippedCount() {
+    return refreshSkippedUpdater.get(this);
+  }
+  @Override
+  public void refreshSkipped(final long cnt) {
+    refreshSkippedUpdater.addAndGet(this, cnt);
+  }
+  @Override
+  public void refreshJitter(final long cnt, final long _millis) {
+    refreshJitterUpdater.addAndGet(this, cnt);
+    refreshJitterMillisUpdater.addAndGet(this, _millis);
+  }
+
   @Override
   public boolean isDisabled() {
     return false;
@@ -287,4 +328,34 @@ public class StandardCommonMetrics implements CommonMetrics.Updater {
     goneSpinUpdater.addAndGet(this, cnt);
   }
 
+  private final LatencyHistogram loadLatency = new LatencyHistogram();
+  @Override
+  public LatencyHistogram getLoadLatency() {
+    return loadLatency;
+  }
+  @Override
+  public void loadLatency(final long _millis) {
+    loadLatency.record(_millis);
+  }
+
+  private final LatencyHistogram refreshLatency = new LatencyHistogram();
+  @Override
+  public LatencyHistogram getRefreshLatency() {
+    return refreshLatency;
+  }
+  @Override
+  public void refreshLatency(final long _millis) {
+    refreshLatency.record(_millis);
+  }
+
+  private final LatencyHistogram loadExceptionLatency = new LatencyHistogram();
+  @Override
+  public LatencyHistogram getLoadExceptionLatency() {
+    return loadExceptionLatency;
+  }
+  @Override
+  public void loadExceptionLatency(final long _millis) {
+    loadExceptionLatency.record(_millis);
+  }
+
 }
@@ -0,0 +1,50 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import org.cache2k.TagExtractor;
+
+import java.util.Collection;
+
+/**
+ * Index of the tags of the cached values. Each entry may be indexed by multiple tags.
+ * The tag index has no name and cannot be used by
+ * {@link org.cache2k.Cache#peekAllByIndex(String, Object)}.
+ *
+ * @author Jens Wilke
+ * @see org.cache2k.Cache2kBuilder#tagExtractor(TagExtractor)
+ */
+class TagIndex<K, V> extends AttributeIndex<K, V> {
+
+  private final TagExtractor<K, V> tagExtractor;
+
+  TagIndex(final InternalCache<K, V> _cache, final TagExtractor<K, V> _tagExtractor) {
+    super(_cache);
+    tagExtractor = _tagExtractor;
+  }
+
+  @Override
+  protected Collection<?> extractAttributes(final K key, final V value) {
+    return tagExtractor.extractTags(key, value);
+  }
+
+}
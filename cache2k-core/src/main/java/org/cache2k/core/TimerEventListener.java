@@ -54,4 +54,14 @@ public interface TimerEventListener<K, V> {
    */
   void timerEventProbationTerminated(Entry<K, V> e, final Object task);
 
+  /**
+   * Called periodically by the timer, if expiry after access is enabled, to
+   * expire entries that were not accessed within the idle time.
+   *
+   * @return estimated number of batches remaining in the current round, 0 if the
+   *         round is complete, or -1 if the cache is empty and scanning is resumed
+   *         by the next insert
+   */
+  int timerEventIdleScan();
+
 }
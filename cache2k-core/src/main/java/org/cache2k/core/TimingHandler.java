@@ -76,7 +76,8 @@ public abstract class TimingHandler<K,V>  {
 
   public static <K, V> TimingHandler<K,V> of(InternalClock _clock, Cache2kConfiguration<K,V> cfg) {
     if (cfg.getExpireAfterWrite() == 0
-      && zeroOrUnspecified(cfg.getRetryInterval())) {
+      && zeroOrUnspecified(cfg.getRetryInterval())
+      && cfg.getCircuitBreakerThreshold() == 0) {
       return IMMEDIATE;
     }
     if (cfg.getExpiryPolicy() != null
@@ -89,8 +90,11 @@ public abstract class TimingHandler<K,V>  {
       throw new IllegalArgumentException("Ambiguous: exceptions suppression is switched off, but resilience duration is specified");
     }
     if (realDuration(cfg.getExpireAfterWrite())
+      || realDuration(cfg.getExpireAfterAccess())
       || realDuration(cfg.getRetryInterval())
-      || realDuration(cfg.getResilienceDuration())) {
+      || realDuration(cfg.getResilienceDuration())
+      || realDuration(cfg.getNegativeCacheDuration())
+      || cfg.getCircuitBreakerThreshold() > 0) {
       TimingHandler.Static<K,V> h = new TimingHandler.Static<K, V>(_clock, cfg);
       return h;
     }
@@ -110,6 +114,18 @@ public abstract class TimingHandler<K,V>  {
    */
   public void init(InternalCache<K,V> c) { }
 
+  /**
+   * Metrics of the cache, for recording timer related counters.
+   */
+  public void setCommonMetrics(CommonMetrics.Updater m) { }
+
+  /**
+   * Schedule the idle scan again, after it was stopped because the cache was empty.
+   *
+   * @see InternalCache#timerEventIdleScan()
+   */
+  public void resumeIdleScan() { }
+
   /**
    * Cancel all timer events, and re-initialize timer
    */
@@ -147,6 +163,29 @@ public abstract class TimingHandler<K,V>  {
    */
   public abstract long cacheExceptionUntil(Entry<K,V> e, ExceptionInformation inf);
 
+  /**
+   * Delegated to the resilience policy
+   *
+   * @see ResiliencePolicy#isLoadPermitted(long)
+   */
+  public boolean isLoadPermitted(long now) {
+    return true;
+  }
+
+  /**
+   * Delegated to the resilience policy
+   *
+   * @see ResiliencePolicy#loadSucceeded(long)
+   */
+  public void loadSucceeded(long now) { }
+
+  /**
+   * Delegated to the resilience policy
+   *
+   * @see ResiliencePolicy#loadFailed(long)
+   */
+  public void loadFailed(long now) { }
+
   /**
    * Convert expiry value to the entry field value, essentially maps 0 to {@link Entry#EXPIRED}
    * since 0 is a virgin entry. Restart the timer if needed.
@@ -168,6 +207,17 @@ public abstract class TimingHandler<K,V>  {
     return true;
   }
 
+  /**
+   * The entry expired. If stale values should be served, switch the entry to the
+   * stale state and schedule the final expiry.
+   *
+   * @param now the current time
+   * @return {@code true} if the entry is stale now, {@code false} if it needs to expire
+   */
+  public boolean startStaleTimer(Entry<K,V> e, long now) {
+    return false;
+  }
+
   /**
    * Cancel the timer on the entry, if a timer was set.
    */
@@ -245,6 +295,12 @@ public abstract class TimingHandler<K,V>  {
     final InternalClock clock;
     boolean sharpExpiry;
     boolean refreshAhead;
+    long refreshAheadJitter;
+    long staleWhileRevalidate;
+    long negativeCacheDuration;
+    long idleScanInterval;
+    IdleScanTimerTask idleScanTask;
+    long idleScanRoundStart;
     SimpleTimer[] timer;
     int timerMask;
     long maxLinger;
@@ -254,6 +310,7 @@ public abstract class TimingHandler<K,V>  {
     int purgeIndex = 0;
     ResiliencePolicy<K,V> resiliencePolicy;
     CustomizationSupplier<ResiliencePolicy<K,V>> resiliencePolicyFactory;
+    CommonMetrics.Updater metrics = new CommonMetrics.BlackHole();
 
     public Static(InternalClock c, final Cache2kConfiguration<K, V> cc) {
       clock = c;
@@ -287,6 +344,11 @@ public abstract class TimingHandler<K,V>  {
         public long getMaxRetryIntervalMillis() {
           return c.getMaxRetryInterval();
         }
+
+        @Override
+        public int getCircuitBreakerThreshold() {
+          return c.getCircuitBreakerThreshold();
+        }
       };
       resiliencePolicyFactory = c.getResiliencePolicy();
       if (resiliencePolicyFactory == null) {
@@ -300,6 +362,17 @@ public abstract class TimingHandler<K,V>  {
       }
       resiliencePolicy.init(ctx);
       refreshAhead = c.isRefreshAhead();
+      refreshAheadJitter = c.getRefreshAheadJitter();
+      if (realDuration(c.getStaleWhileRevalidate())) {
+        staleWhileRevalidate = c.getStaleWhileRevalidate();
+      }
+      if (realDuration(c.getNegativeCacheDuration())) {
+        negativeCacheDuration = c.getNegativeCacheDuration();
+      }
+      if (realDuration(c.getExpireAfterAccess())) {
+        idleScanInterval =
+          Math.max(1, c.getExpireAfterAccess() / HeapCache.TUNABLE.idleScanRoundsPerIdleTime);
+      }
       sharpExpiry = c.isSharpExpiry();
       int _timerCount = 1;
       if (c.isBoostConcurrency()) {
@@ -319,6 +392,11 @@ public abstract class TimingHandler<K,V>  {
       resiliencePolicyFactory = null;
     }
 
+    @Override
+    public void setCommonMetrics(final CommonMetrics.Updater m) {
+      metrics = m;
+    }
+
     @Override
     public synchronized  void reset() {
       shutdown();
@@ -326,10 +404,74 @@ public abstract class TimingHandler<K,V>  {
         if (timer[i] != null) { continue; }
         timer[i] =  new SimpleTimer(clock, cache.getName(), true);
       }
+      if (idleScanInterval > 0) {
+        scheduleIdleScan(null, -1);
+      }
+    }
+
+    @Override
+    public void resumeIdleScan() {
+      scheduleIdleScan(idleScanTask, -1);
+    }
+
+    /**
+     * Schedule the next idle scan batch, if the previous task is still the current one.
+     * After a clear or close the previous task is outdated and the scan stops.
+     * The remaining batches of a round are spread evenly until the end of the round.
+     * The next round starts one interval after the start of the previous round,
+     * or immediately, if the scan is behind.
+     *
+     * @param _remainingBatches batches remaining in the current round, 0 if the round
+     *                          is complete, or -1 to start scanning after one interval
+     */
+    synchronized void scheduleIdleScan(IdleScanTimerTask _previous, int _remainingBatches) {
+      if (idleScanTask != _previous || timer[0] == null) {
+        return;
+      }
+      long _now = clock.millis();
+      long t;
+      if (_remainingBatches < 0) {
+        t = idleScanRoundStart = _now + idleScanInterval;
+      } else if (_remainingBatches == 0) {
+        t = idleScanRoundStart = Math.max(_now, idleScanRoundStart + idleScanInterval);
+      } else {
+        long _roundEnd = idleScanRoundStart + idleScanInterval;
+        t = _now + Math.max(0, _roundEnd - _now) / (_remainingBatches + 1);
+      }
+      idleScanTask = new IdleScanTimerTask();
+      try {
+        timer[0].schedule(idleScanTask, t);
+      } catch (IllegalStateException ignore) {
+      }
+    }
+
+    /**
+     * Periodic task to expire entries not accessed within the idle time.
+     * A new task is scheduled after each batch, since a timer task can only be scheduled once.
+     */
+    class IdleScanTimerTask extends SimpleTimerTask {
+
+      @Override
+      public void run() {
+        int _remainingBatches = 0;
+        try {
+          _remainingBatches = cache.timerEventIdleScan();
+          if (_remainingBatches < 0) {
+            return;
+          }
+        } catch (CacheClosedException ignore) {
+          return;
+        } catch (Throwable ex) {
+          cache.logAndCountInternalException("Idle scan exception", ex);
+        }
+        scheduleIdleScan(this, _remainingBatches);
+      }
+
     }
 
     @Override
     public synchronized void shutdown() {
+      idleScanTask = null;
       SimpleTimer _timer;
       for (int i = 0; i <= timerMask; i++) {
         if ((_timer = timer[i]) == null) { continue; }
@@ -340,7 +482,26 @@ public abstract class TimingHandler<K,V>  {
 
     @Override
     public long calculateNextRefreshTime(final Entry<K,V> e, final V v, final long _loadTime) {
-      return calcNextRefreshTime(e.getKey(), v, _loadTime, e, null, maxLinger, sharpExpiry);
+      return limitNegativeCaching(v, _loadTime,
+        calcNextRefreshTime(e.getKey(), v, _loadTime, e, null, maxLinger, sharpExpiry));
+    }
+
+    /**
+     * Expire a {@code null} value after the negative cache duration, if the
+     * expiry time is not sooner anyway.
+     */
+    long limitNegativeCaching(V v, long _loadTime, long t) {
+      if (v != null || negativeCacheDuration == 0 || t == 0) {
+        return t;
+      }
+      long _until = _loadTime + negativeCacheDuration;
+      if (_until < 0) {
+        return t;
+      }
+      if (t < 0) {
+        return -t > _until ? -_until : t;
+      }
+      return t > _until ? _until : t;
     }
 
     @Override
@@ -354,6 +515,21 @@ public abstract class TimingHandler<K,V>  {
       return resiliencePolicy.retryLoadAfter(e.getKey(), inf);
     }
 
+    @Override
+    public boolean isLoadPermitted(final long now) {
+      return resiliencePolicy.isLoadPermitted(now);
+    }
+
+    @Override
+    public void loadSucceeded(final long now) {
+      resiliencePolicy.loadSucceeded(now);
+    }
+
+    @Override
+    public void loadFailed(final long now) {
+      resiliencePolicy.loadFailed(now);
+    }
+
     /**
      * If we are about to start the timer, but discover that the entry is
      * expired already, we need to start the refresh task.
@@ -412,6 +588,9 @@ public abstract class TimingHandler<K,V>  {
         } else {
           scheduleFinalExpireWithOptionalRefresh(e, -_expiryTime);
         }
+      } else if (refreshAhead && refreshAheadJitter > 0) {
+        e.setTask(new RefreshTimerTask<K,V>().to(cache, e));
+        scheduleTask(jitterRefreshTime(e.hashCode, _expiryTime, now), e);
       } else {
         scheduleFinalExpireWithOptionalRefresh(e, _expiryTime);
       }
@@ -437,6 +616,22 @@ public abstract class TimingHandler<K,V>  {
       return false;
     }
 
+    /**
+     * The final expiry of a stale entry is the same as the end of the refresh probation:
+     * the entry is expired and removed, if not loaded again meanwhile.
+     */
+    @Override
+    public boolean startStaleTimer(final Entry<K, V> e, final long now) {
+      if (staleWhileRevalidate == 0) {
+        return false;
+      }
+      cancelExpiryTimer(e);
+      e.setNextRefreshTime(Entry.STALE);
+      e.setTask(new RefreshExpireTimerTask<K,V>().to(cache, e));
+      scheduleTask(now + staleWhileRevalidate, e);
+      return true;
+    }
+
     @Override
     public void scheduleFinalTimerForSharpExpiry(final Entry<K, V> e) {
       cancelExpiryTimer(e);
@@ -455,6 +650,29 @@ public abstract class TimingHandler<K,V>  {
       scheduleTask(t, e);
     }
 
+    /**
+     * Move the refresh timer ahead of the expiry time, to avoid that entries loaded
+     * at the same time are refreshed all at once. The offset is derived from the
+     * hash code, so we need no random generator and entries are evenly spread within
+     * the window. The offset is limited to half of the remaining time to expiry.
+     *
+     * @param _hashCode the entry hash code
+     * @param t the expiry time
+     * @param now current time
+     * @return the point in time the refresh timer should fire
+     */
+    long jitterRefreshTime(final int _hashCode, final long t, final long now) {
+      long _window = Math.min(refreshAheadJitter, (t - now) >> 1);
+      if (_window <= 0) {
+        return t;
+      }
+      long _offset = ((_hashCode * 0x9E3779B9) & 0x7fffffffL) % (_window + 1);
+      if (_offset > 0) {
+        metrics.refreshJitter(_offset);
+      }
+      return t - _offset;
+    }
+
     void scheduleTask(final long _nextRefreshTime, final Entry e) {
       SimpleTimer _timer = timer[e.hashCode & timerMask];
       if (_timer != null) {
@@ -584,12 +802,13 @@ public abstract class TimingHandler<K,V>  {
 
     public long calculateNextRefreshTime(Entry<K, V> _entry, V _newValue, long _loadTime) {
       long t;
-      if (_entry.isDataValid() || _entry.isExpiredState() || _entry.nextRefreshTime == Entry.EXPIRED_REFRESH_PENDING) {
+      if (_entry.isDataValid() || _entry.isExpiredState() || _entry.isStale() ||
+        _entry.nextRefreshTime == Entry.EXPIRED_REFRESH_PENDING) {
         t = calcNextRefreshTime(_entry.getKey(), _newValue, _loadTime, _entry);
       } else {
         t = calcNextRefreshTime(_entry.getKey(), _newValue, _loadTime, null);
       }
-      return t;
+      return limitNegativeCaching(_newValue, _loadTime, t);
     }
 
     @Override
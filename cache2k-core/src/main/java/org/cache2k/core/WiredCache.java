@@ -47,11 +47,17 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * A cache implementation that builds on a heap cache and coordinates with additional
@@ -239,6 +245,11 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     execute(key, SPEC.remove(key));
   }
 
+  @Override
+  protected Executor getInvokeAllExecutor() {
+    return heapCache.getInvokeAllExecutor();
+  }
+
   @Override
   public boolean removeIfEquals(K key, V value) {
     return execute(key, SPEC.remove(key, value));
@@ -444,9 +455,34 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     if (e != null && e.hasFreshData(getClock())) {
       return returnValue(e);
     }
+    if (e != null && e.isStale() && revalidateStaleEntry(e)) {
+      return returnValue(e);
+    }
     return returnValue(execute(key, e, SPEC.get(key)));
    }
 
+  /**
+   * Start a load of the stale entry in the background, same as a refresh. A load that is
+   * queued twice is harmless, since the get operation does not load a fresh entry again.
+   *
+   * @return {@code true} if the stale value can be returned
+   */
+  private boolean revalidateStaleEntry(final Entry<K, V> e) {
+    if (e.isProcessing()) {
+      return true;
+    }
+    if (asyncLoader != null) {
+      enqueueTimerAction(e, SPEC.GET);
+      return true;
+    }
+    try {
+      heapCache.loaderExecutor.execute(createFireAndForgetAction(e, SPEC.GET));
+      return true;
+    } catch (RejectedExecutionException ignore) {
+    }
+    return false;
+  }
+
   /**
    * Just a simple loop at the moment. We need to deal with possible null values
    * and exceptions. This is a simple placeholder implementation that covers it
@@ -464,11 +500,94 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     return heapCache.convertCacheEntry2ValueMap(map);
   }
 
+  @Override
+  public void getAll(final Iterable<? extends K> keys, final BiConsumer<? super K, ? super V> action) {
+    for (K k : keys) {
+      CacheEntry<K, V> e = execute(k, SPEC.getEntry(k));
+      if (e != null) {
+        action.accept(k, e.getValue());
+      }
+    }
+  }
+
   @Override
   public CacheEntry<K, V> getEntry(K key) {
     return execute(key, SPEC.getEntry(key));
   }
 
+  @Override
+  public CompletableFuture<V> getAsync(final K key) {
+    final CompletableFuture<V> f = new CompletableFuture<V>();
+    Entry<K, V> e = lookupQuick(key);
+    if (e != null && e.hasFreshData(getClock())) {
+      try {
+        f.complete(returnValue(e));
+      } catch (Throwable t) {
+        f.completeExceptionally(t);
+      }
+      return f;
+    }
+    heapCache.executeAsync(this, key, e, SPEC.get(key), new FutureCallback<V>(f) {
+      @Override
+      protected void completed(final V _result) {
+        f.complete(returnValue(_result));
+      }
+    }, mightBlockOnLoad());
+    return f;
+  }
+
+  /**
+   * Fresh entries are taken from the heap directly. Only for the other keys an
+   * asynchronous entry action is started. The future completes, when all actions
+   * are completed.
+   */
+  @Override
+  public CompletableFuture<Map<K, V>> getAllAsync(final Iterable<? extends K> keys) {
+    final CompletableFuture<Map<K, V>> f = new CompletableFuture<Map<K, V>>();
+    Set<K> _keySet = heapCache.generateKeySet(keys);
+    final Map<K, CacheEntry<K, V>> map = new ConcurrentHashMap<K, CacheEntry<K, V>>();
+    Map<K, Entry<K, V>> _pending = new HashMap<K, Entry<K, V>>();
+    for (K k : _keySet) {
+      Entry<K, V> e = lookupQuick(k);
+      if (e != null && e.hasFreshData(getClock())) {
+        if (!heapCache.isNegativeCached(e)) {
+          map.put(k, heapCache.returnEntry(e));
+        }
+      } else {
+        _pending.put(k, e);
+      }
+    }
+    if (_pending.isEmpty()) {
+      f.complete(heapCache.convertCacheEntry2ValueMap(map));
+      return f;
+    }
+    final AtomicInteger _countDown = new AtomicInteger(_pending.size());
+    boolean _mightBlock = mightBlockOnLoad();
+    for (Map.Entry<K, Entry<K, V>> me : _pending.entrySet()) {
+      final K k = me.getKey();
+      heapCache.executeAsync(this, k, me.getValue(), SPEC.getEntry(k), new FutureCallback<CacheEntry<K, V>>(f) {
+        @Override
+        protected void completed(final CacheEntry<K, V> e) {
+          if (e != null) {
+            map.put(k, e);
+          }
+          if (_countDown.decrementAndGet() == 0) {
+            f.complete(heapCache.convertCacheEntry2ValueMap(map));
+          }
+        }
+      }, _mightBlock);
+    }
+    return f;
+  }
+
+  /**
+   * A synchronous loader blocks the thread starting the entry action. With an async
+   * loader, or without a loader, an action never waits for a load.
+   */
+  private boolean mightBlockOnLoad() {
+    return asyncLoader == null && isLoaderPresent();
+  }
+
   @Override
   public int getTotalEntryCount() {
     if (storage != null) {
@@ -520,6 +639,34 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     return _adapted;
   }
 
+  @Override
+  public void scan(final Predicate<? super CacheEntry<K, V>> filter,
+                   final Consumer<? super CacheEntry<K, V>> action) {
+    heapCache.scan(filter, action);
+  }
+
+  @Override
+  public void parallelScan(final Predicate<? super CacheEntry<K, V>> filter,
+                           final Consumer<? super CacheEntry<K, V>> action) {
+    heapCache.parallelScan(filter, action);
+  }
+
+  /**
+   * Scan the heap, removal goes through this cache, so the listeners and the writer are called.
+   */
+  @Override
+  public void removeIf(final Predicate<? super CacheEntry<K, V>> filter) {
+    new EntryScan<K,V>(heapCache, filter, EntryScan.remove(this)).scan();
+  }
+
+  @Override
+  public Spliterator<CacheEntry<K, V>> spliterator() {
+    if (storage == null) {
+      return heapCache.spliterator();
+    }
+    return super.spliterator();
+  }
+
   @Override
   public V peek(K key) {
     Entry<K, V> e = lookupQuick(key);
@@ -529,6 +676,26 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     return returnValue(execute(key, SPEC.peek(key)));
   }
 
+  @Override
+  public void removeAllWithTag(final Object tag) {
+    heapCache.removeAllWithTag(tag, this);
+  }
+
+  @Override
+  public void removeByPrefix(final String prefix) {
+    heapCache.removeByPrefix(prefix, this);
+  }
+
+  @Override
+  public Map<K, V> peekAllByIndex(final String index, final Object attribute) {
+    return heapCache.peekAllByIndex(index, attribute);
+  }
+
+  @Override
+  public Map<K, V> peekRange(final K fromKey, final K toKey) {
+    return heapCache.peekRange(fromKey, toKey);
+  }
+
   /**
    * We need to deal with possible null values and exceptions. This is
    * a simple placeholder implementation that covers it all by working
@@ -546,6 +713,16 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     return heapCache.convertCacheEntry2ValueMap(map);
   }
 
+  @Override
+  public void peekAll(final Iterable<? extends K> keys, final BiConsumer<? super K, ? super V> action) {
+    for (K k : keys) {
+      CacheEntry<K, V> e = execute(k, SPEC.peekEntry(k));
+      if (e != null) {
+        action.accept(k, e.getValue());
+      }
+    }
+  }
+
   @Override
   public InternalCacheInfo getLatestInfo() {
     return heapCache.getLatestInfo(this);
@@ -688,6 +865,9 @@ public class WiredCache<K, V> extends BaseCache<K, V>
    */
   @Override
   public void onEvictionFromHeap(final Entry<K, V> e) {
+    if (heapCache.isNegativeCached(e)) {
+      return;
+    }
     CacheEntry<K,V> _currentEntry = heapCache.returnCacheEntry(e);
     if (syncEntryEvictedListeners != null) {
       for (CacheEntryEvictedListener<K, V> l : syncEntryEvictedListeners) {
@@ -698,8 +878,10 @@ public class WiredCache<K, V> extends BaseCache<K, V>
 
 
   @Override
-  protected <R> EntryAction<K, V, R> createEntryAction(final K key, final Entry<K, V> e, final Semantic<K, V, R> op) {
-    return new MyEntryAction<R>(op, key, e);
+  protected <R> EntryAction<K, V, R> createEntryAction(final K key, final Entry<K, V> e,
+                                                       final Semantic<K, V, R> op,
+                                                       final EntryAction.CompletedCallback cb) {
+    return new MyEntryAction<R>(op, key, e, cb);
   }
 
   @Override
@@ -727,6 +909,10 @@ public class WiredCache<K, V> extends BaseCache<K, V>
         }
         return;
       }
+      if (isLoaderPresent() && e.getException() == null &&
+        heapCache.timing.startStaleTimer(e, now)) {
+        return;
+      }
     }
     enqueueTimerAction(e, SPEC.EXPIRE_EVENT);
   }
@@ -741,6 +927,14 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     metrics().timerEvent();
     synchronized (e) {
       if (e.getTask() != task) { return; }
+      if (heapCache.isColdForRefresh(e)) {
+        if (scheduleFinalTimerIfNotExpired(e)) {
+          return;
+        }
+        metrics().refreshSkipped();
+        enqueueTimerAction(e, SPEC.EXPIRE_EVENT);
+        return;
+      }
       if (asyncLoader != null) {
         enqueueTimerAction(e, SPEC.REFRESH);
         return;
@@ -751,10 +945,29 @@ public class WiredCache<K, V> extends BaseCache<K, V>
       } catch (RejectedExecutionException ignore) {
       }
       metrics().refreshFailed();
+      if (scheduleFinalTimerIfNotExpired(e)) {
+        return;
+      }
       enqueueTimerAction(e, SPEC.EXPIRE_EVENT);
     }
   }
 
+  /**
+   * The refresh timer fires before the expiry time, if a refresh jitter is configured.
+   * If the refresh is not done, we need a timer for the final expiry.
+   *
+   * @return {@code true} if a timer was scheduled, {@code false} if the entry needs to expire
+   */
+  private boolean scheduleFinalTimerIfNotExpired(final Entry<K, V> e) {
+    long nrt = e.getNextRefreshTime();
+    if (nrt > 0 && heapCache.clock.millis() < nrt) {
+      heapCache.timing.scheduleFinalTimerForSharpExpiry(e);
+      e.setNextRefreshTime(-nrt);
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public void timerEventProbationTerminated(final Entry<K, V> e, final Object task) {
     metrics().timerEvent();
@@ -764,6 +977,11 @@ public class WiredCache<K, V> extends BaseCache<K, V>
     enqueueTimerAction(e, SPEC.EXPIRE_EVENT);
   }
 
+  @Override
+  public int timerEventIdleScan() {
+    return heapCache.idleScan(this);
+  }
+
   /**
    * Wire the entry action to the resources of this cache.
    */
@@ -0,0 +1,102 @@
+package org.cache2k.core.concurrency;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executor starting a new virtual thread for each task. Virtual threads are available
+ * since Java 21. The implementation compiles against Java 8 and uses reflection, so
+ * the same artifact runs on older JVMs, where {@link #isSupported()} returns false.
+ *
+ * @author Jens Wilke
+ */
+public class VirtualThreadExecutor implements Executor, Closeable {
+
+  private static final Method OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    Method _ofVirtual = null;
+    Method _name = null;
+    Method _factory = null;
+    Method _newExecutor = null;
+    try {
+      _ofVirtual = Thread.class.getMethod("ofVirtual");
+      Class<?> _builderClass = Class.forName("java.lang.Thread$Builder");
+      _name = _builderClass.getMethod("name", String.class, long.class);
+      _factory = _builderClass.getMethod("factory");
+      _newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      _ofVirtual.invoke(null);
+    } catch (Throwable ignore) {
+      _ofVirtual = null;
+    }
+    OF_VIRTUAL = _ofVirtual;
+    BUILDER_NAME = _name;
+    BUILDER_FACTORY = _factory;
+    NEW_THREAD_PER_TASK_EXECUTOR = _newExecutor;
+  }
+
+  /**
+   * True, if the JVM supports virtual threads. Also false, if the JVM has virtual
+   * threads only as preview feature and the preview is not enabled.
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  private final ExecutorService executorService;
+
+  /**
+   * @throws UnsupportedOperationException if virtual threads are not supported
+   */
+  public VirtualThreadExecutor(String _threadNamePrefix) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("virtual threads not supported by JVM");
+    }
+    try {
+      Object _builder = OF_VIRTUAL.invoke(null);
+      _builder = BUILDER_NAME.invoke(_builder, _threadNamePrefix + '-', 1L);
+      ThreadFactory _factory = (ThreadFactory) BUILDER_FACTORY.invoke(_builder);
+      executorService = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, _factory);
+    } catch (Exception ex) {
+      throw new UnsupportedOperationException("virtual threads not supported by JVM", ex);
+    }
+  }
+
+  @Override
+  public void execute(final Runnable cmd) {
+    executorService.execute(cmd);
+  }
+
+  @Override
+  public void close() {
+    executorService.shutdown();
+  }
+
+}
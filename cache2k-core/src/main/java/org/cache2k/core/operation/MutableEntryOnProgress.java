@@ -42,6 +42,7 @@ class MutableEntryOnProgress<K, V> implements MutableCacheEntry<K, V> {
   private boolean mutate = false;
   private boolean remove = false;
   private boolean exists = false;
+  private boolean negativeCached = false;
   private V value = null;
   private boolean customExpiry = false;
   private long expiryTime = NEUTRAL;
@@ -56,9 +57,13 @@ class MutableEntryOnProgress<K, V> implements MutableCacheEntry<K, V> {
     this.entry = entry;
     this.progress = progress;
     this.key = key;
-    if (entry != null && progress.isPresentOrMiss()) {
-      value = this.entry.getValueOrException();
-      originalExists = exists = true;
+    if (entry != null) {
+      if (progress.isPresentOrMiss()) {
+        value = this.entry.getValueOrException();
+        originalExists = exists = true;
+      } else {
+        negativeCached = progress.isNegativeCached();
+      }
     }
   }
 
@@ -130,7 +135,7 @@ class MutableEntryOnProgress<K, V> implements MutableCacheEntry<K, V> {
 
   private void triggerLoadOrInstallationRead() {
     triggerInstallationRead();
-    if (!exists && !mutate && progress.isLoaderPresent()) {
+    if (!exists && !mutate && !negativeCached && progress.isLoaderPresent()) {
       throw new Operations.NeedsLoadRestartException();
     }
   }
@@ -20,6 +20,7 @@ package org.cache2k.core.operation;
  * #L%
  */
 
+import org.cache2k.core.Entry;
 import org.cache2k.expiry.ExpiryTimeValues;
 import org.cache2k.integration.CacheLoaderException;
 import org.cache2k.processor.EntryProcessingException;
@@ -59,7 +60,9 @@ public class Operations<K, V> {
 
     @Override
     public void examine(Progress c, ExaminationEntry e) {
-      if (c.isPresentOrMiss()) {
+      if (c.isNegativeCached()) {
+        c.noMutation();
+      } else if (c.isPresentOrMiss()) {
         c.result(e.getValueOrException());
         c.noMutation();
       } else {
@@ -99,7 +102,9 @@ public class Operations<K, V> {
 
     @Override
     public void examine(Progress c, ExaminationEntry e) {
-      if (c.isPresentOrMiss()) {
+      if (c.isNegativeCached()) {
+        c.noMutation();
+      } else if (c.isPresentOrMiss()) {
         c.entryResult(e);
         c.noMutation();
       } else {
@@ -118,7 +123,9 @@ public class Operations<K, V> {
 
     @Override
     public void loaded(final Progress c, final ExaminationEntry e) {
-      c.entryResult(e);
+      if (!c.isNegativeCached()) {
+        c.entryResult(e);
+      }
     }
   };
 
@@ -448,12 +455,12 @@ public class Operations<K, V> {
       public void examine(final Progress<K, V, Void> c, final ExaminationEntry<K, V> e) {
         if (t == ExpiryTimeValues.NO_CACHE ||
           t == ExpiryTimeValues.REFRESH) {
-          if (c.isPresentOrInRefreshProbation()) {
+          if (c.isPresentOrInRefreshProbation() || c.isNegativeCached()) {
             c.wantMutation();
           } else {
             c.noMutation();
           }
-        } else if (c.isPresent()) {
+        } else if (c.isPresent() || c.isNegativeCached()) {
           c.wantMutation();
         } else {
           c.noMutation();
@@ -467,6 +474,35 @@ public class Operations<K, V> {
     };
   }
 
+  /**
+   * Expire the entry if it was not accessed within the last scan rounds. The
+   * access round is checked again under the entry lock, so a concurrent access
+   * after the unlocked check of the idle scan keeps the entry.
+   *
+   * @param _round the current scan round
+   * @param _rounds the entry expires, if its access round is more than this number
+   *                of rounds behind the current round
+   */
+  public Semantic<K, V, Void> expireIdle(final int _round, final int _rounds) {
+    return new Semantic.MightUpdate<K, V, Void>() {
+
+      @Override
+      public void examine(final Progress<K, V, Void> c, final ExaminationEntry<K, V> e) {
+        if ((c.isPresent() || c.isNegativeCached()) && e instanceof Entry &&
+          _round - ((Entry) e).accessRound > _rounds) {
+          c.wantMutation();
+        } else {
+          c.noMutation();
+        }
+      }
+
+      @Override
+      public void mutate(final Progress<K, V, Void> c, final ExaminationEntry<K, V> e) {
+        c.expire(ExpiryTimeValues.NOW);
+      }
+    };
+  }
+
   public final Semantic<K,V, Void> EXPIRE_EVENT = new Semantic.MightUpdate<K, V, Void>() {
 
     @Override
@@ -72,6 +72,14 @@ public interface Progress<K, V, R> {
    */
   boolean isPresentOrMiss();
 
+  /**
+   * Entry is the marker of a negatively cached key. The key is not present, but a get
+   * yields {@code null} without calling the loader.
+   *
+   * @see org.cache2k.Cache2kBuilder#negativeCacheDuration
+   */
+  boolean isNegativeCached();
+
   /**
    * The entry gets locked for mutation. Last command of semantic method.
    * Calls back on {@link Semantic#mutate(Progress, ExaminationEntry)}
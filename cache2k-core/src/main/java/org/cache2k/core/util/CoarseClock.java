@@ -0,0 +1,120 @@
+package org.cache2k.core.util;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Clock implementation that reads the time from a volatile field, which is updated
+ * by a ticker thread in a fixed interval. This saves the call to
+ * {@link System#currentTimeMillis()} on each cache operation that needs the time,
+ * which can be expensive on virtual machines with a slow clock source.
+ *
+ * <p>The returned time lags behind the system time up to the tick interval.
+ * One shared instance serves all caches, see {@link #getShared(long)}.
+ *
+ * @author Jens Wilke
+ */
+public final class CoarseClock implements InternalClock, Runnable {
+
+  private static CoarseClock shared;
+
+  private final long tickMillis;
+  private final Thread ticker;
+  private volatile long now;
+
+  /**
+   * Returns the shared instance and starts the ticker thread on the first call.
+   * The tick interval of the first call is used.
+   */
+  public static synchronized CoarseClock getShared(long _tickMillis) {
+    if (shared == null) {
+      shared = new CoarseClock(_tickMillis);
+    }
+    return shared;
+  }
+
+  /**
+   * Create a separate clock with its own ticker thread. The thread is a daemon
+   * and needs to be stopped via {@link #close()} if the clock is not used any more.
+   */
+  public CoarseClock(long _tickMillis) {
+    if (_tickMillis <= 0) {
+      throw new IllegalArgumentException("tick interval needs to be positive");
+    }
+    tickMillis = _tickMillis;
+    now = System.currentTimeMillis();
+    ticker = new Thread(this, "cache2k-clock");
+    ticker.setDaemon(true);
+    ticker.start();
+  }
+
+  @Override
+  public void run() {
+    try {
+      for (;;) {
+        Thread.sleep(tickMillis);
+        now = System.currentTimeMillis();
+      }
+    } catch (InterruptedException ignore) {
+    }
+  }
+
+  public long getTickMillis() {
+    return tickMillis;
+  }
+
+  /**
+   * Stop the ticker thread. The time does not advance any more.
+   */
+  public void close() {
+    ticker.interrupt();
+  }
+
+  @Override
+  public boolean isJobSchedulable() {
+    return false;
+  }
+
+  @Override
+  public TimeReachedJob createJob(final TimeReachedEvent ev) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void schedule(final TimeReachedJob j, final long millis) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void disableJob(final TimeReachedJob j) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long millis() {
+    return now;
+  }
+
+  @Override
+  public void sleep(final long millis) throws InterruptedException {
+    Thread.sleep(millis);
+  }
+
+}
@@ -480,12 +480,11 @@ class TaskQueue {
   }
 
   /**
-   * Removes all elements from the priority queue.
+   * Removes all elements from the priority queue. The array is replaced, so the
+   * time does not depend on the number of scheduled tasks.
    */
   void clear() {
-    for (int i=1; i<=size; i++)
-      queue[i] = null;
-
+    queue = new SimpleTimerTask[128];
     size = 0;
   }
 
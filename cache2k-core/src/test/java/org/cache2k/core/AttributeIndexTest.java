@@ -0,0 +1,163 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.IndexExtractor;
+import org.cache2k.TagExtractor;
+import org.cache2k.testing.category.FastTests;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Removing an entry from the index must not depend on the extractor, since it
+ * is not called again for the removal.
+ *
+ * @author Jens Wilke
+ */
+@SuppressWarnings("unchecked")
+@Category(FastTests.class)
+public class AttributeIndexTest {
+
+  Cache<Integer, String> cache;
+  InternalCache<Integer, String> internalCache;
+
+  @Before
+  public void setUp() {
+    cache = Cache2kBuilder.of(Integer.class, String.class).build();
+    internalCache = cache.requestInterface(InternalCache.class);
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  /**
+   * The extractor fails after the value was indexed.
+   */
+  @Test
+  public void secondaryIndex_removeAfterExtractorException() {
+    IndexExtractor<Integer, String> _extractor = new IndexExtractor<Integer, String>() {
+      int calls;
+      @Override
+      public Object extract(final Integer key, final String value) {
+        if (calls++ > 0) {
+          throw new IllegalStateException("extractor fails");
+        }
+        return value.substring(0, 1);
+      }
+    };
+    SecondaryIndex<Integer, String> idx =
+      new SecondaryIndex<Integer, String>(internalCache, "first", _extractor);
+    Entry<Integer, String> e = new Entry<Integer, String>(1, 1);
+    idx.update(e, "abc");
+    assertEquals(1, idx.lookup("a").size());
+    idx.remove(e);
+    assertEquals(0, idx.getAttributeCount());
+    assertEquals(0, idx.getEntryCount());
+  }
+
+  /**
+   * An update with a failing extractor removes the previous attribute,
+   * the new value is not indexed.
+   */
+  @Test
+  public void secondaryIndex_updateAfterExtractorException() {
+    IndexExtractor<Integer, String> _extractor = new IndexExtractor<Integer, String>() {
+      @Override
+      public Object extract(final Integer key, final String value) {
+        return value.substring(0, 1);
+      }
+    };
+    SecondaryIndex<Integer, String> idx =
+      new SecondaryIndex<Integer, String>(internalCache, "first", _extractor);
+    Entry<Integer, String> e = new Entry<Integer, String>(1, 1);
+    idx.update(e, "abc");
+    idx.update(e, "");
+    assertEquals(0, idx.getAttributeCount());
+    assertEquals(0, idx.getEntryCount());
+    idx.update(e, "xyz");
+    assertEquals(1, idx.lookup("x").size());
+    idx.remove(e);
+    assertEquals(0, idx.getAttributeCount());
+  }
+
+  /**
+   * The tags are part of the value, which is mutated after it was indexed.
+   */
+  @Test
+  public void tagIndex_removeAfterValueMutation() {
+    TagExtractor<Integer, List<String>> _extractor = new TagExtractor<Integer, List<String>>() {
+      @Override
+      public Collection<?> extractTags(final Integer key, final List<String> value) {
+        return value;
+      }
+    };
+    TagIndex<Integer, List<String>> idx =
+      new TagIndex<Integer, List<String>>((InternalCache) internalCache, _extractor);
+    Entry<Integer, List<String>> e = new Entry<Integer, List<String>>(1, 1);
+    List<String> _tags = new ArrayList<String>(Arrays.asList("a", "b"));
+    idx.update(e, _tags);
+    assertEquals(2, idx.getAttributeCount());
+    _tags.clear();
+    _tags.add("c");
+    idx.remove(e);
+    assertEquals(0, idx.getAttributeCount());
+    assertEquals(0, idx.getEntryCount());
+  }
+
+  /**
+   * An update with the mutated value removes the tags that were indexed before.
+   */
+  @Test
+  public void tagIndex_updateAfterValueMutation() {
+    TagExtractor<Integer, List<String>> _extractor = new TagExtractor<Integer, List<String>>() {
+      @Override
+      public Collection<?> extractTags(final Integer key, final List<String> value) {
+        return value;
+      }
+    };
+    TagIndex<Integer, List<String>> idx =
+      new TagIndex<Integer, List<String>>((InternalCache) internalCache, _extractor);
+    Entry<Integer, List<String>> e = new Entry<Integer, List<String>>(1, 1);
+    List<String> _tags = new ArrayList<String>(Arrays.asList("a", "b"));
+    idx.update(e, _tags);
+    _tags.remove("a");
+    _tags.add("c");
+    idx.update(e, _tags);
+    assertEquals(0, idx.lookup("a").size());
+    assertEquals(1, idx.lookup("b").size());
+    assertEquals(1, idx.lookup("c").size());
+    assertEquals(2, idx.getAttributeCount());
+  }
+
+}
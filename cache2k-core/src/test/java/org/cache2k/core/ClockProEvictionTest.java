@@ -22,12 +22,16 @@ package org.cache2k.core;
 
 import org.cache2k.Cache;
 import org.cache2k.Cache2kBuilder;
+import org.cache2k.test.util.Condition;
 import org.cache2k.test.util.TestingBase;
 import org.cache2k.testing.category.FastTests;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 /**
@@ -63,6 +67,22 @@ public class ClockProEvictionTest extends TestingBase {
     assertEquals(_SIZE, _count);
   }
 
+  @Test
+  public void testPutAllStaysWithinCapacity() {
+    final int _SIZE = 30;
+    Cache<Integer, Integer> c = provideCache(_SIZE);
+    Map<Integer, Integer> map = new HashMap<Integer, Integer>();
+    for (int i = 0; i < _SIZE * 100; i++) {
+      map.put(i, i);
+    }
+    c.putAll(map);
+    int _count = 0;
+    for (int k : c.keys()) {
+      _count++;
+    }
+    assertEquals(_SIZE, _count);
+  }
+
   @Test
   public void test30() {
     final int _SIZE = 30;
@@ -128,6 +148,39 @@ public class ClockProEvictionTest extends TestingBase {
     assertEquals(_SIZE, _count);
   }
 
+  /**
+   * Clear detaches the replacement lists and the entries are released in the
+   * background. The cache is usable and evicts correctly meanwhile.
+   */
+  @Test
+  public void testClearAndRefill() {
+    final int _SIZE = 30;
+    Cache<Integer, Integer> c = provideCache(_SIZE);
+    for (int i = 0; i < _SIZE * 2; i++) {
+      c.put(i, i);
+      c.put(i, i);
+    }
+    HeapCache h = c.requestInterface(HeapCache.class);
+    if (h == null) {
+      h = c.requestInterface(WiredCache.class).getHeapCache();
+    }
+    final Entry e = h.lookupEntry(_SIZE * 2 - 1);
+    assertFalse(e.isRemovedFromReplacementList());
+    c.clear();
+    assertEquals(0, countEntriesViaIteration());
+    for (int i = 0; i < _SIZE * 2; i++) {
+      c.put(i, i);
+    }
+    assertEquals(_SIZE, countEntriesViaIteration());
+    await("Entry released from eviction", new Condition() {
+      @Override
+      public boolean check() {
+        return e.isRemovedFromReplacementList();
+      }
+    });
+    checkIntegrity();
+  }
+
   /**
    * Additional test to extend test coverage
    */
@@ -0,0 +1,166 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.CacheEntry;
+import org.cache2k.testing.category.FastTests;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jens Wilke
+ */
+@Category(FastTests.class)
+public class ConcurrentEntrySpliteratorTest {
+
+  Cache<Integer, Integer> cache;
+
+  @After
+  public void tearDown() {
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  Cache<Integer, Integer> cache(int _count) {
+    cache = Cache2kBuilder.of(Integer.class, Integer.class)
+      .entryCapacity(Long.MAX_VALUE)
+      .build();
+    for (int i = 0; i < _count; i++) {
+      cache.put(i, i);
+    }
+    return cache;
+  }
+
+  @Test
+  public void parallelStream() {
+    int _count = 12345;
+    cache(_count);
+    long _sum = StreamSupport.stream(cache.entries().spliterator(), true)
+      .mapToLong(new ToLongFunction<CacheEntry<Integer, Integer>>() {
+        @Override
+        public long applyAsLong(CacheEntry<Integer, Integer> e) {
+          return e.getValue();
+        }
+      }).sum();
+    assertEquals(_count * (_count - 1L) / 2, _sum);
+    Set<Integer> _keys = StreamSupport.stream(cache.keys().spliterator(), true)
+      .collect(Collectors.<Integer>toSet());
+    assertEquals(_count, _keys.size());
+  }
+
+  @Test
+  public void splitCoversAllBuckets() {
+    int _count = 1000;
+    cache(_count);
+    Spliterator<CacheEntry<Integer, Integer>> s1 = cache.entries().spliterator();
+    Spliterator<CacheEntry<Integer, Integer>> s2 = s1.trySplit();
+    assertNotNull(s2);
+    Spliterator<CacheEntry<Integer, Integer>> s3 = s2.trySplit();
+    assertNotNull(s3);
+    final List<Integer> _keys = new ArrayList<Integer>();
+    Consumer<CacheEntry<Integer, Integer>> _collect = new Consumer<CacheEntry<Integer, Integer>>() {
+      @Override
+      public void accept(CacheEntry<Integer, Integer> e) {
+        _keys.add(e.getKey());
+      }
+    };
+    s1.forEachRemaining(_collect);
+    s2.forEachRemaining(_collect);
+    s3.forEachRemaining(_collect);
+    assertEquals(_count, _keys.size());
+    assertEquals(_count, new HashSet<Integer>(_keys).size());
+  }
+
+  /**
+   * Expand the hash table while the scan is in progress. Each key present at the start
+   * needs to be visited exactly once.
+   */
+  @Test
+  public void expansionDuringScan() {
+    final int _count = 100;
+    cache(_count);
+    Spliterator<CacheEntry<Integer, Integer>> s = cache.entries().spliterator();
+    final List<Integer> _keys = new ArrayList<Integer>();
+    Consumer<CacheEntry<Integer, Integer>> _collect = new Consumer<CacheEntry<Integer, Integer>>() {
+      @Override
+      public void accept(CacheEntry<Integer, Integer> e) {
+        _keys.add(e.getKey());
+      }
+    };
+    for (int i = 0; i < 10; i++) {
+      assertTrue(s.tryAdvance(_collect));
+    }
+    HeapCache h = cache.requestInterface(HeapCache.class);
+    int _length = h.hash.getTableLength();
+    for (int i = _count; i < _count * 100; i++) {
+      cache.put(i, i);
+    }
+    assertTrue("expanded", h.hash.getTableLength() > _length);
+    s.forEachRemaining(_collect);
+    assertEquals(_keys.size(), new HashSet<Integer>(_keys).size());
+    Set<Integer> _seen = new HashSet<Integer>(_keys);
+    for (int i = 0; i < _count; i++) {
+      assertTrue(_seen.contains(i));
+    }
+  }
+
+  @Test
+  public void clearStopsScan() {
+    cache(100);
+    Spliterator<CacheEntry<Integer, Integer>> s = cache.entries().spliterator();
+    cache.clear();
+    cache.put(1, 1);
+    assertFalse(s.tryAdvance(new Consumer<CacheEntry<Integer, Integer>>() {
+      @Override
+      public void accept(CacheEntry<Integer, Integer> e) {
+      }
+    }));
+  }
+
+  @Test(expected = CacheClosedException.class)
+  public void closeYieldsException() {
+    cache(100);
+    Spliterator<CacheEntry<Integer, Integer>> s = cache.entries().spliterator();
+    cache.close();
+    s.tryAdvance(new Consumer<CacheEntry<Integer, Integer>>() {
+      @Override
+      public void accept(CacheEntry<Integer, Integer> e) {
+      }
+    });
+  }
+
+}
@@ -22,6 +22,8 @@ package org.cache2k.core;
 
 import org.cache2k.Cache;
 import org.cache2k.Cache2kBuilder;
+import org.cache2k.integration.CacheLoader;
+import org.cache2k.integration.CircuitBreakerOpenException;
 import org.cache2k.integration.ResiliencePolicy;
 import org.cache2k.testing.category.FastTests;
 import org.cache2k.test.util.IntCacheRule;
@@ -30,6 +32,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -58,6 +61,32 @@ public class DefaultResiliencePolicyTest {
     return target.getCache().requestInterface(HeapCache.class).timing;
   }
 
+  /**
+   * After two failing loads the loader is not called any more.
+   */
+  @Test
+  public void circuitBreaker() {
+    final AtomicInteger _loadCount = new AtomicInteger();
+    Cache<Integer, Integer> c = new Cache2kBuilder<Integer, Integer>() {}
+      .eternal(true)
+      .retryInterval(10, TimeUnit.SECONDS)
+      .circuitBreakerThreshold(2)
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) {
+          _loadCount.incrementAndGet();
+          throw new IllegalStateException("backend down");
+        }
+      })
+      .build();
+    target.setCache(c);
+    assertTrue(c.getEntry(1).getException() instanceof IllegalStateException);
+    assertTrue(c.getEntry(2).getException() instanceof IllegalStateException);
+    assertTrue(extractDefaultPolicy().isCircuitOpen());
+    assertTrue(c.getEntry(3).getException() instanceof CircuitBreakerOpenException);
+    assertEquals(2, _loadCount.get());
+  }
+
   /**
    * Values do not expire, exceptions are not suppressed and an immediately
    * retry is done.
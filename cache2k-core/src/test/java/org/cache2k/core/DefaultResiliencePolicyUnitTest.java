@@ -253,6 +253,50 @@ public class DefaultResiliencePolicyUnitTest {
     assertEquals(500, t);
   }
 
+  private DefaultResiliencePolicy getCircuitBreakerPolicy() {
+    CtxBean ctx = new CtxBean(100000, 1000, -1, -1);
+    ctx.circuitBreakerThreshold = 3;
+    DefaultResiliencePolicy p = new DefaultResiliencePolicy();
+    p.init(ctx);
+    return p;
+  }
+
+  /**
+   * Circuit opens after three consecutive failures, the probe after the retry
+   * interval closes it again.
+   */
+  @Test
+  public void testCircuitBreaker() {
+    DefaultResiliencePolicy p = getCircuitBreakerPolicy();
+    p.loadFailed(100);
+    p.loadFailed(100);
+    assertTrue(p.isLoadPermitted(100));
+    p.loadFailed(100);
+    assertTrue(p.isCircuitOpen());
+    assertFalse(p.isLoadPermitted(200));
+    assertTrue("probe", p.isLoadPermitted(1100));
+    assertFalse("only one probe", p.isLoadPermitted(1200));
+    p.loadSucceeded(1300);
+    assertFalse(p.isCircuitOpen());
+    assertTrue(p.isLoadPermitted(1300));
+  }
+
+  @Test
+  public void testCircuitBreaker_probeFails() {
+    DefaultResiliencePolicy p = getCircuitBreakerPolicy();
+    p.loadFailed(100);
+    p.loadFailed(100);
+    p.loadSucceeded(100);
+    p.loadFailed(100);
+    assertFalse("success resets the count", p.isCircuitOpen());
+    p.loadFailed(100);
+    p.loadFailed(100);
+    assertTrue(p.isLoadPermitted(1100));
+    p.loadFailed(1500);
+    assertFalse(p.isLoadPermitted(2400));
+    assertTrue(p.isLoadPermitted(2500));
+  }
+
   @Test
   public void testExample1() {
     Cache<String, String> c = new Cache2kBuilder<String,String>() {}
@@ -269,6 +313,7 @@ public class DefaultResiliencePolicyUnitTest {
     long resilienceDurationMillis;
     long retryIntervalMillis;
     long maxRetryIntervalMillis;
+    int circuitBreakerThreshold;
 
     public CtxBean(final long _expireAfterWriteMillis,
                    final long _retryIntervalMillis,
@@ -300,6 +345,11 @@ public class DefaultResiliencePolicyUnitTest {
       return maxRetryIntervalMillis;
     }
 
+    @Override
+    public int getCircuitBreakerThreshold() {
+      return circuitBreakerThreshold;
+    }
+
   }
 
   static class InfoBean implements ExceptionInformation {
@@ -0,0 +1,79 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.testing.category.FastTests;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Run the idle scan directly, the timer runs the first scan only after the
+ * configured interval.
+ *
+ * @author Jens Wilke
+ */
+@SuppressWarnings("unchecked")
+@Category(FastTests.class)
+public class IdleScanTest {
+
+  Cache<Integer, Integer> cache;
+
+  @After
+  public void tearDown() {
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  /**
+   * An entry expires, when its access round is more than
+   * {@link HeapCache.Tunable#idleScanRoundsPerIdleTime} rounds behind. So an entry accessed
+   * at the end of a round is not expired before the configured idle time.
+   */
+  @Test
+  public void expireAfterRounds() {
+    cache = Cache2kBuilder.of(Integer.class, Integer.class)
+      .expireAfterAccess(1, TimeUnit.HOURS)
+      .build();
+    HeapCache<Integer, Integer> h = cache.requestInterface(HeapCache.class);
+    int _rounds = HeapCache.TUNABLE.idleScanRoundsPerIdleTime;
+    cache.put(1, 1);
+    cache.put(2, 2);
+    assertEquals(0, h.idleScan(h));
+    cache.get(1);
+    for (int i = 0; i < _rounds; i++) {
+      assertEquals(0, h.idleScan(h));
+    }
+    assertEquals(0, h.getLatestInfo().getExpiredCount());
+    assertEquals(0, h.idleScan(h));
+    assertEquals(1, h.getLatestInfo().getExpiredCount());
+    assertEquals(-1, h.idleScan(h));
+    assertEquals(2, h.getLatestInfo().getExpiredCount());
+  }
+
+}
@@ -0,0 +1,129 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.integration.CacheLoader;
+import org.cache2k.testing.category.FastTests;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jens Wilke
+ */
+@Category(FastTests.class)
+public class LatencyHistogramTest {
+
+  @Test
+  public void empty() {
+    LatencyHistogram h = new LatencyHistogram();
+    assertEquals(0, h.getCount());
+    assertEquals(0, h.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void smallValuesExact() {
+    LatencyHistogram h = new LatencyHistogram();
+    for (int i = 0; i < 8; i++) {
+      h.record(i);
+    }
+    assertEquals(8, h.getCount());
+    assertEquals(0, h.getValueAtPercentile(0));
+    assertEquals(3, h.getValueAtPercentile(50));
+    assertEquals(7, h.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void bucketBoundaries() {
+    for (long v = 0; v < 100000; v++) {
+      int idx = LatencyHistogram.index(v);
+      assertTrue(v <= LatencyHistogram.highestValue(idx));
+      if (idx > 0) {
+        assertTrue(v > LatencyHistogram.highestValue(idx - 1));
+      }
+    }
+    assertEquals(Long.MAX_VALUE,
+      LatencyHistogram.highestValue(LatencyHistogram.index(Long.MAX_VALUE)));
+    assertEquals(0, LatencyHistogram.index(-1));
+  }
+
+  @Test
+  public void relativeError() {
+    long[] _values = {9, 123, 4711, 1234567, 987654321987L};
+    for (long v : _values) {
+      LatencyHistogram h = new LatencyHistogram();
+      h.record(v);
+      long _reported = h.getValueAtPercentile(99);
+      assertTrue(_reported >= v);
+      assertTrue((_reported - v) * 8 <= v);
+    }
+  }
+
+  @Test
+  public void tail() {
+    LatencyHistogram h = new LatencyHistogram();
+    for (int i = 0; i < 990; i++) {
+      h.record(5);
+    }
+    for (int i = 0; i < 9; i++) {
+      h.record(100);
+    }
+    h.record(5000);
+    assertEquals(5, h.getValueAtPercentile(50));
+    assertEquals(5, h.getValueAtPercentile(99));
+    assertEquals(103, h.getValueAtPercentile(99.9));
+    assertEquals(5119, h.getValueAtPercentile(100));
+    LatencyHistogram _copy = h.copy();
+    h.record(1);
+    assertEquals(1000, _copy.getCount());
+  }
+
+  @Test
+  public void loadOutcomesRecordedSeparately() {
+    Cache<Integer, Integer> c = Cache2kBuilder.of(Integer.class, Integer.class)
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) {
+          if (key < 0) {
+            throw new IllegalArgumentException();
+          }
+          return key;
+        }
+      })
+      .build();
+    c.get(1);
+    c.get(2);
+    try {
+      c.get(-1);
+      fail("exception expected");
+    } catch (RuntimeException expected) {
+    }
+    InternalCacheInfo inf = c.requestInterface(InternalCache.class).getLatestInfo();
+    assertEquals(2, inf.getLoadLatency().getCount());
+    assertEquals(1, inf.getLoadExceptionLatency().getCount());
+    assertEquals(0, inf.getRefreshLatency().getCount());
+    c.close();
+  }
+
+}
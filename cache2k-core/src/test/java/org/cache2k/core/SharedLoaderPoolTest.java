@@ -0,0 +1,239 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.CacheManager;
+import org.cache2k.CacheOperationCompletionListener;
+import org.cache2k.integration.CacheLoader;
+import org.cache2k.testing.category.FastTests;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jens Wilke
+ */
+@Category(FastTests.class)
+public class SharedLoaderPoolTest {
+
+  SharedLoaderPool pool;
+
+  @After
+  public void tearDown() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void concurrencyLimit() throws Exception {
+    pool = new SharedLoaderPool(4, 100, "test");
+    SharedLoaderPool.Client c = pool.newClient(1, 1);
+    final AtomicInteger _running = new AtomicInteger();
+    final AtomicInteger _maxRunning = new AtomicInteger();
+    final CountDownLatch _done = new CountDownLatch(5);
+    for (int i = 0; i < 5; i++) {
+      c.execute(new Runnable() {
+        @Override
+        public void run() {
+          int v = _running.incrementAndGet();
+          synchronized (_maxRunning) {
+            _maxRunning.set(Math.max(_maxRunning.get(), v));
+          }
+          try {
+            Thread.sleep(3);
+          } catch (InterruptedException ignore) {
+          }
+          _running.decrementAndGet();
+          _done.countDown();
+        }
+      });
+    }
+    assertTrue(_done.await(5, TimeUnit.SECONDS));
+    assertEquals(1, _maxRunning.get());
+    assertEquals(5, c.getStartedCount());
+  }
+
+  /**
+   * Block the only thread, queue tasks of two caches and check the execution order.
+   */
+  @Test
+  public void weightedRoundRobin() throws Exception {
+    pool = new SharedLoaderPool(1, 100, "test");
+    SharedLoaderPool.Client _blocker = pool.newClient(1, 1);
+    SharedLoaderPool.Client a = pool.newClient(1, 10);
+    SharedLoaderPool.Client b = pool.newClient(2, 10);
+    final CountDownLatch _release = new CountDownLatch(1);
+    final CountDownLatch _started = new CountDownLatch(1);
+    _blocker.execute(new Runnable() {
+      @Override
+      public void run() {
+        _started.countDown();
+        try {
+          _release.await();
+        } catch (InterruptedException ignore) {
+        }
+      }
+    });
+    _started.await();
+    final List<String> _order = Collections.synchronizedList(new ArrayList<String>());
+    final CountDownLatch _done = new CountDownLatch(9);
+    for (int i = 0; i < 3; i++) {
+      a.execute(new Recorder("a", _order, _done));
+    }
+    for (int i = 0; i < 6; i++) {
+      b.execute(new Recorder("b", _order, _done));
+    }
+    _release.countDown();
+    assertTrue(_done.await(5, TimeUnit.SECONDS));
+    assertEquals("[a, b, b, a, b, b, a, b, b]", _order.toString());
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void queueFull() throws Exception {
+    pool = new SharedLoaderPool(1, 1, "test");
+    SharedLoaderPool.Client c = pool.newClient(1, 1);
+    final CountDownLatch _release = new CountDownLatch(1);
+    Runnable r = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          _release.await();
+        } catch (InterruptedException ignore) {
+        }
+      }
+    };
+    try {
+      c.execute(r);
+      c.execute(r);
+      c.execute(r);
+    } finally {
+      _release.countDown();
+    }
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void closedClientRejects() {
+    pool = new SharedLoaderPool(1, 1, "test");
+    SharedLoaderPool.Client c = pool.newClient(1, 1);
+    c.close();
+    c.execute(new Runnable() {
+      @Override
+      public void run() { }
+    });
+  }
+
+  /**
+   * A task throwing an exception does not end the worker, the next tasks are executed.
+   */
+  @Test
+  public void throwingTask() throws Exception {
+    pool = new SharedLoaderPool(1, 100, "test");
+    SharedLoaderPool.Client c = pool.newClient(1, 1);
+    c.execute(new Runnable() {
+      @Override
+      public void run() {
+        throw new IllegalStateException("test exception, ignore");
+      }
+    });
+    final CountDownLatch _done = new CountDownLatch(3);
+    for (int i = 0; i < 3; i++) {
+      c.execute(new Runnable() {
+        @Override
+        public void run() {
+          _done.countDown();
+        }
+      });
+    }
+    assertTrue(_done.await(5, TimeUnit.SECONDS));
+    assertEquals(4, c.getStartedCount());
+  }
+
+  @Test
+  public void cachesShareOnePool() throws Exception {
+    CacheManager cm = CacheManager.getInstance(getClass().getName() + ".cachesShareOnePool");
+    CacheLoader<Integer, Integer> _loader = new CacheLoader<Integer, Integer>() {
+      @Override
+      public Integer load(final Integer key) {
+        return key * 2;
+      }
+    };
+    Cache<Integer, Integer> c1 = Cache2kBuilder.of(Integer.class, Integer.class)
+      .manager(cm).name("c1").sharedLoaderPool(true).loader(_loader).build();
+    Cache<Integer, Integer> c2 = Cache2kBuilder.of(Integer.class, Integer.class)
+      .manager(cm).name("c2").sharedLoaderPool(true).loaderThreadCount(1)
+      .loaderPoolWeight(2).loader(_loader).build();
+    HeapCache h1 = c1.requestInterface(HeapCache.class);
+    HeapCache h2 = c2.requestInterface(HeapCache.class);
+    assertTrue(h1.loaderExecutor instanceof SharedLoaderPool.Client);
+    assertEquals(1, ((SharedLoaderPool.Client) h2.loaderExecutor).getMaxConcurrency());
+    final CountDownLatch _done = new CountDownLatch(2);
+    CacheOperationCompletionListener l = new CacheOperationCompletionListener() {
+      @Override
+      public void onCompleted() {
+        _done.countDown();
+      }
+
+      @Override
+      public void onException(final Throwable exception) { }
+    };
+    c1.loadAll(Arrays.asList(1, 2, 3), l);
+    c2.loadAll(Arrays.asList(1, 2, 3), l);
+    assertTrue(_done.await(5, TimeUnit.SECONDS));
+    assertEquals((Integer) 6, c1.peek(3));
+    assertEquals((Integer) 4, c2.peek(2));
+    assertSame(((CacheManagerImpl) cm).getSharedLoaderPool(), ((CacheManagerImpl) cm).getSharedLoaderPool());
+    cm.close();
+  }
+
+  static class Recorder implements Runnable {
+
+    final String name;
+    final List<String> order;
+    final CountDownLatch done;
+
+    Recorder(final String _name, final List<String> _order, final CountDownLatch _done) {
+      name = _name;
+      order = _order;
+      done = _done;
+    }
+
+    @Override
+    public void run() {
+      order.add(name);
+      done.countDown();
+    }
+  }
+
+}
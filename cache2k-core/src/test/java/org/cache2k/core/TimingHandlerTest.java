@@ -28,12 +28,15 @@ import org.cache2k.core.util.InternalClock;
 import org.cache2k.core.util.TunableFactory;
 import org.cache2k.expiry.ExpiryPolicy;
 import org.cache2k.integration.CacheLoader;
+import org.cache2k.integration.CacheLoaderException;
+import org.cache2k.integration.CircuitBreakerOpenException;
 import org.cache2k.testing.category.FastTests;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -69,6 +72,69 @@ public class TimingHandlerTest {
     assertEquals(TimingHandler.ETERNAL_IMMEDIATE.getClass(), h.getClass());
   }
 
+  /**
+   * The circuit breaker is implemented by the resilience policy, so a handler
+   * with resilience support is needed.
+   */
+  @Test
+  public void circuitBreaker_eternalNotSpecified() {
+    TimingHandler h = TimingHandler.of(
+      CLOCK,
+      Cache2kBuilder.forUnknownTypes()
+        .circuitBreakerThreshold(3)
+        .toConfiguration()
+    );
+    assertEquals(TimingHandler.Static.class, h.getClass());
+  }
+
+  @Test
+  public void circuitBreaker_expireImmediately() {
+    TimingHandler h = TimingHandler.of(
+      CLOCK,
+      Cache2kBuilder.forUnknownTypes()
+        .expireAfterWrite(0, TimeUnit.MILLISECONDS)
+        .circuitBreakerThreshold(3)
+        .toConfiguration()
+    );
+    assertEquals(TimingHandler.Static.class, h.getClass());
+    assertEquals(0, h.calculateNextRefreshTime(ENTRY, null, NOW));
+  }
+
+  /**
+   * Loads fail without calling the loader after the threshold is reached, also
+   * if no expiry is configured.
+   */
+  @Test
+  public void circuitBreaker_opensWithoutExpiry() {
+    final AtomicInteger _loaderCalls = new AtomicInteger();
+    Cache<Integer, Integer> c = Cache2kBuilder.of(Integer.class, Integer.class)
+      .circuitBreakerThreshold(2)
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) throws Exception {
+          _loaderCalls.incrementAndGet();
+          throw new IllegalStateException("backend down");
+        }
+      })
+      .build();
+    for (int i = 1; i <= 2; i++) {
+      try {
+        c.get(i);
+        fail("exception expected");
+      } catch (CacheLoaderException ex) {
+        assertEquals(IllegalStateException.class, ex.getCause().getClass());
+      }
+    }
+    try {
+      c.get(3);
+      fail("exception expected");
+    } catch (CacheLoaderException ex) {
+      assertEquals(CircuitBreakerOpenException.class, ex.getCause().getClass());
+    }
+    assertEquals(2, _loaderCalls.get());
+    c.close();
+  }
+
   @Test
   public void expireAfterWrite_overflow() {
     TimingHandler h = TimingHandler.of(
@@ -282,4 +348,39 @@ public class TimingHandlerTest {
     c.close();
   }
 
+  /**
+   * Refresh timer is moved ahead within the jitter window, but never more than
+   * half of the remaining time.
+   */
+  @Test
+  public void refreshAheadJitter() {
+    long _JITTER = 1000;
+    TimingHandler.Static h = (TimingHandler.Static) TimingHandler.of(
+      CLOCK,
+      Cache2kBuilder.forUnknownTypes()
+        .expireAfterWrite(5, TimeUnit.MINUTES)
+        .refreshAhead(true)
+        .refreshAheadJitter(_JITTER, TimeUnit.MILLISECONDS)
+        .toConfiguration()
+    );
+    CommonMetrics.Updater _metrics = new StandardCommonMetrics();
+    h.setCommonMetrics(_metrics);
+    long _expiry = NOW + TimeUnit.MINUTES.toMillis(5);
+    long _minimum = Long.MAX_VALUE;
+    long _maximum = 0;
+    for (int i = 0; i < 100; i++) {
+      long t = h.jitterRefreshTime(HeapCache.modifiedHash(Integer.valueOf(i).hashCode()), _expiry, NOW);
+      assertTrue(t <= _expiry);
+      assertTrue(t >= _expiry - _JITTER);
+      _minimum = Math.min(_minimum, t);
+      _maximum = Math.max(_maximum, t);
+    }
+    assertTrue("spread within window", _maximum - _minimum > _JITTER / 2);
+    assertTrue(_metrics.getRefreshJitterCount() > 0);
+    assertTrue(_metrics.getRefreshJitterMillis() > 0);
+    long t = h.jitterRefreshTime(4711, NOW + 100, NOW);
+    assertTrue("limited to half the remaining time", t >= NOW + 50);
+    assertEquals(NOW + 1, h.jitterRefreshTime(4711, NOW + 1, NOW));
+  }
+
 }
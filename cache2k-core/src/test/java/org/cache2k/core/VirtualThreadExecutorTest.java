@@ -0,0 +1,106 @@
+package org.cache2k.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.core.concurrency.VirtualThreadExecutor;
+import org.cache2k.integration.CacheLoader;
+import org.cache2k.testing.category.FastTests;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jens Wilke
+ */
+@Category(FastTests.class)
+public class VirtualThreadExecutorTest {
+
+  static boolean jvmHasVirtualThreads() {
+    String v = System.getProperty("java.specification.version");
+    return !v.startsWith("1.") && Integer.parseInt(v) >= 21;
+  }
+
+  @Test
+  public void supportDependsOnJvm() {
+    assertEquals(jvmHasVirtualThreads(), VirtualThreadExecutor.isSupported());
+  }
+
+  @Test
+  public void constructionFailsWithoutSupport() {
+    if (VirtualThreadExecutor.isSupported()) {
+      return;
+    }
+    try {
+      new VirtualThreadExecutor("test");
+      fail("exception expected");
+    } catch (UnsupportedOperationException expected) {
+    }
+  }
+
+  @Test
+  public void execute() throws Exception {
+    if (!VirtualThreadExecutor.isSupported()) {
+      return;
+    }
+    VirtualThreadExecutor ex = new VirtualThreadExecutor("test");
+    final AtomicReference<String> _name = new AtomicReference<String>();
+    final CountDownLatch _done = new CountDownLatch(1);
+    ex.execute(new Runnable() {
+      @Override
+      public void run() {
+        _name.set(Thread.currentThread().getName());
+        _done.countDown();
+      }
+    });
+    assertTrue(_done.await(5, TimeUnit.SECONDS));
+    assertTrue(_name.get().startsWith("test-"));
+    ex.close();
+  }
+
+  /**
+   * The cache uses virtual threads or falls back to the usual loader thread pool.
+   */
+  @Test
+  public void cacheWithVirtualThreads() {
+    Cache<Integer, Integer> c = Cache2kBuilder.of(Integer.class, Integer.class)
+      .virtualThreads(true)
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) {
+          return key;
+        }
+      })
+      .build();
+    assertEquals((Integer) 1, c.get(1));
+    HeapCache h = c.requestInterface(HeapCache.class);
+    assertEquals(VirtualThreadExecutor.isSupported(),
+      h.loaderExecutor instanceof VirtualThreadExecutor);
+    c.close();
+  }
+
+}
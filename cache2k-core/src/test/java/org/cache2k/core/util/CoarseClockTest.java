@@ -0,0 +1,59 @@
+package org.cache2k.core.util;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Jens Wilke
+ */
+public class CoarseClockTest {
+
+  @Test(timeout = 10000)
+  public void clockAdvancing() throws Exception {
+    CoarseClock clock = new CoarseClock(3);
+    try {
+      long t0 = clock.millis();
+      assertTrue(Math.abs(System.currentTimeMillis() - t0) < 1000);
+      while (clock.millis() == t0) {
+        clock.sleep(1);
+      }
+      assertTrue(clock.millis() > t0);
+    } finally {
+      clock.close();
+    }
+  }
+
+  @Test
+  public void sharedInstance() {
+    CoarseClock clock = CoarseClock.getShared(7);
+    assertSame(clock, CoarseClock.getShared(4711));
+    assertEquals(7, clock.getTickMillis());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void illegalTick() {
+    new CoarseClock(0);
+  }
+
+}
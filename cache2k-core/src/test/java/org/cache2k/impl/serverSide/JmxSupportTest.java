@@ -231,6 +231,7 @@ public class JmxSupportTest {
     checkAttribute("MissCount", 0L);
     checkAttribute("RefreshCount", 0L);
     checkAttribute("RefreshFailedCount", 0L);
+    checkAttribute("RefreshSkippedCount", 0L);
     checkAttribute("RefreshedHitCount", 0L);
     checkAttribute("ExpiredCount", 0L);
     checkAttribute("EvictedCount", 0L);
@@ -245,6 +246,12 @@ public class JmxSupportTest {
     checkAttribute("HashQuality", 100);
     checkAttribute("MillisPerLoad", 0.0);
     checkAttribute("TotalLoadMillis", 0L);
+    checkAttribute("LoadMillisP99", 0L);
+    checkAttribute("LoadMillisP999", 0L);
+    checkAttribute("RefreshMillisP99", 0L);
+    checkAttribute("RefreshMillisP999", 0L);
+    checkAttribute("LoadExceptionMillisP99", 0L);
+    checkAttribute("LoadExceptionMillisP999", 0L);
     checkAttribute("Implementation", "LongHeapCache");
     checkAttribute("ClearedTime", null);
     checkAttribute("Alert", 0);
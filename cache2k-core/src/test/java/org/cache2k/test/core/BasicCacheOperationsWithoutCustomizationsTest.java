@@ -63,6 +63,9 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.cache2k.test.core.StaticUtil.toIterable;
 import static org.junit.Assert.*;
@@ -395,6 +398,22 @@ public class BasicCacheOperationsWithoutCustomizationsTest {
     checkRefreshTime(cache.peekEntry(KEY));
   }
 
+  /**
+   * Enough entries for the chunked put, existing and new keys mixed.
+   */
+  @Test
+  public void putAll_many() {
+    cache.put(KEY, VALUE);
+    Map<Integer, Integer> map = new HashMap<Integer, Integer>();
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i + 4711);
+    }
+    cache.putAll(map);
+    for (int i = 0; i < 100; i++) {
+      assertEquals((Integer) (i + 4711), cache.peek(i));
+    }
+  }
+
   @Test(expected = NullPointerException.class)
   public void putAll_NullKey() {
     Map<Integer, Integer> map = new HashMap<Integer, Integer>();
@@ -963,6 +982,36 @@ public class BasicCacheOperationsWithoutCustomizationsTest {
     cache.peekAll(toIterable(new Integer[]{null}));
   }
 
+  @Test
+  public void peekAll_action() {
+    final Map<Integer, Integer> m = new HashMap<Integer, Integer>();
+    cache.peekAll(toIterable(KEY, OTHER_KEY), collect(m));
+    assertTrue(m.isEmpty());
+    cache.put(KEY, VALUE);
+    cache.peekAll(toIterable(KEY, OTHER_KEY), collect(m));
+    assertEquals(1, m.size());
+    assertEquals(VALUE, m.get(KEY));
+  }
+
+  @Test
+  public void peekAll_action_Exception() {
+    assignException(KEY);
+    try {
+      cache.peekAll(toIterable(KEY, OTHER_KEY), collect(new HashMap<Integer, Integer>()));
+      fail("Exception expected");
+    } catch (CacheLoaderException ex) {
+    }
+  }
+
+  static BiConsumer<Integer, Integer> collect(final Map<Integer, Integer> _map) {
+    return new BiConsumer<Integer, Integer>() {
+      @Override
+      public void accept(final Integer k, final Integer v) {
+        _map.put(k, v);
+      }
+    };
+  }
+
   @Test
   public void peekAll_Exception() {
     assignException(KEY);
@@ -1075,6 +1124,23 @@ public class BasicCacheOperationsWithoutCustomizationsTest {
     assertEquals(0, m.size());
   }
 
+  @Test
+  public void getAll_action() {
+    cache.put(KEY, VALUE);
+    cache.put(OTHER_KEY, null);
+    Map<Integer, Integer> m = new HashMap<Integer, Integer>();
+    cache.getAll(toIterable(KEY, OTHER_KEY, 4711), collect(m));
+    assertEquals(2, m.size());
+    assertEquals(VALUE, m.get(KEY));
+    assertTrue(m.containsKey(OTHER_KEY));
+    assertNull(m.get(OTHER_KEY));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void getAll_action_NullKey() {
+    cache.getAll(toIterable(new Integer[]{null}), collect(new HashMap<Integer, Integer>()));
+  }
+
   /*
    * remove(k)
    */
@@ -1456,6 +1522,80 @@ public class BasicCacheOperationsWithoutCustomizationsTest {
     assertFalse(cache.keys().iterator().hasNext());
   }
 
+  @Test
+  public void removeAll_many() {
+    List<Integer> _keys = new ArrayList<Integer>();
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+      if (i % 2 == 0) {
+        _keys.add(i);
+      }
+    }
+    _keys.add(4711);
+    _keys.add(0);
+    cache.removeAll(_keys);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 2 != 0, cache.containsKey(i));
+    }
+  }
+
+  /*
+   * scan, parallelScan, removeIf
+   */
+
+  static final Predicate<CacheEntry<Integer, Integer>> EVEN_VALUE =
+    new Predicate<CacheEntry<Integer, Integer>>() {
+      @Override
+      public boolean test(final CacheEntry<Integer, Integer> e) {
+        return e.getValue() % 2 == 0;
+      }
+    };
+
+  @Test
+  public void scan() {
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i + 4711);
+    }
+    final List<Integer> _keys = new ArrayList<Integer>();
+    cache.scan(EVEN_VALUE, new Consumer<CacheEntry<Integer, Integer>>() {
+      @Override
+      public void accept(final CacheEntry<Integer, Integer> e) {
+        assertEquals((Integer) (e.getKey() + 4711), e.getValue());
+        _keys.add(e.getKey());
+      }
+    });
+    assertEquals(50, _keys.size());
+    for (int k : _keys) {
+      assertTrue(k % 2 == 1);
+    }
+  }
+
+  @Test
+  public void parallelScan() {
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+    final Set<Integer> _keys = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+    cache.parallelScan(EVEN_VALUE, new Consumer<CacheEntry<Integer, Integer>>() {
+      @Override
+      public void accept(final CacheEntry<Integer, Integer> e) {
+        _keys.add(e.getKey());
+      }
+    });
+    assertEquals(50, _keys.size());
+  }
+
+  @Test
+  public void removeIf() {
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+    cache.removeIf(EVEN_VALUE);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 2 != 0, cache.containsKey(i));
+    }
+  }
+
   @Test(expected=UnsupportedOperationException.class)
   public void loadAll() {
     cache.loadAll(toIterable(KEY, OTHER_KEY), null);
@@ -177,6 +177,30 @@ public class BasicCacheTest extends TestingBase {
     assertEquals(2, (int) m.get((int) 2));
   }
 
+  /**
+   * A failing put within the chunked {@code putAll} leaves no entries without value.
+   */
+  @Test
+  public void testPutAllNullValue() {
+    Cache<Integer, Integer> c = freshCache(Integer.class, Integer.class, null, 100, -1);
+    Map<Integer, Integer> map = new HashMap<Integer, Integer>();
+    for (int i = 0; i < 20; i++) {
+      map.put(i, i == 10 ? null : i);
+    }
+    try {
+      c.putAll(map);
+      fail("exception expected");
+    } catch (NullPointerException expected) {
+    }
+    int _count = 0;
+    for (int k : c.keys()) {
+      _count++;
+    }
+    assertEquals(_count, getInfo().getSize());
+    c.put(10, 10);
+    assertEquals((Integer) 10, c.peek(10));
+  }
+
   @Test
   public void testPutWithFaultyKeyimplementation() {
     Cache<FaultyKey, String> c =
@@ -20,9 +20,14 @@ package org.cache2k.test.core;
  * #L%
  */
 
+import org.cache2k.core.InternalCache;
+import org.cache2k.core.WiredCache;
 import org.cache2k.integration.AsyncCacheLoader;
+import org.cache2k.integration.BulkCacheLoader;
+import org.cache2k.integration.BulkCacheLoaderException;
 import org.cache2k.integration.CacheLoaderException;
 import org.cache2k.integration.FunctionalCacheLoader;
+import org.cache2k.integration.LoaderConcurrencyLimiter;
 import org.cache2k.test.util.CacheRule;
 import org.cache2k.test.util.Condition;
 import org.cache2k.integration.AdvancedCacheLoader;
@@ -41,13 +46,22 @@ import org.junit.experimental.categories.Category;
 import org.junit.rules.Timeout;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 import static org.junit.Assert.*;
 import static org.hamcrest.Matchers.*;
@@ -1037,6 +1051,333 @@ public class CacheLoaderTest extends TestingBase {
     assertTrue(c.peek(1802) != o1);
   }
 
+  /**
+   * Bulk loader returning twice the key. Keys ending with 7 produce an exception,
+   * keys ending with 9 are missing from a bulk result with more than one key.
+   */
+  static class CountingBulkLoader extends BulkCacheLoader<Integer, Integer> {
+
+    final AtomicInteger bulkCallCount = new AtomicInteger();
+    final AtomicInteger keyCount = new AtomicInteger();
+
+    @Override
+    public Map<Integer, Integer> loadAll(final Set<Integer> keys) throws Exception {
+      bulkCallCount.incrementAndGet();
+      Map<Integer, Integer> _result = new HashMap<Integer, Integer>();
+      Map<Integer, Throwable> _exceptions = new HashMap<Integer, Throwable>();
+      for (Integer k : keys) {
+        if (k % 10 == 9 && keys.size() > 1) {
+          continue;
+        }
+        keyCount.incrementAndGet();
+        if (k % 10 == 7) {
+          _exceptions.put(k, new IOException("no value for " + k));
+        } else {
+          _result.put(k, k * 2);
+        }
+      }
+      if (!_exceptions.isEmpty()) {
+        throw new BulkCacheLoaderException(_result, _exceptions);
+      }
+      return _result;
+    }
+
+  }
+
+  protected Cache<Integer, Integer> cacheWithBulkLoader(final CountingBulkLoader l) {
+    return target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.loader(l);
+      }
+    });
+  }
+
+  /**
+   * The heap cache loads all missing keys with one bulk call. With listeners or writer
+   * each key is loaded separately.
+   */
+  protected int expectedBulkCalls(Cache<Integer, Integer> c, int _keyCount) {
+    return c.requestInterface(InternalCache.class) instanceof WiredCache ? _keyCount : 1;
+  }
+
+  @Test
+  public void testBulkLoader_getAll() {
+    CountingBulkLoader l = new CountingBulkLoader();
+    Cache<Integer, Integer> c = cacheWithBulkLoader(l);
+    c.put(1, 1);
+    Map<Integer, Integer> m = c.getAll(toIterable(1, 2, 3, 4));
+    assertEquals(4, m.size());
+    assertEquals((Integer) 1, m.get(1));
+    assertEquals((Integer) 6, m.get(3));
+    assertEquals(3, l.keyCount.get());
+    assertEquals(expectedBulkCalls(c, 3), l.bulkCallCount.get());
+  }
+
+  /**
+   * The action receives the values in the order of the keys, with one bulk load.
+   */
+  @Test
+  public void testBulkLoader_getAllAction() {
+    CountingBulkLoader l = new CountingBulkLoader();
+    Cache<Integer, Integer> c = cacheWithBulkLoader(l);
+    c.put(5, 5);
+    final List<Integer> _keys = new ArrayList<Integer>();
+    final List<Integer> _values = new ArrayList<Integer>();
+    c.getAll(toIterable(8, 5, 2, 4, 6), new BiConsumer<Integer, Integer>() {
+      @Override
+      public void accept(final Integer k, final Integer v) {
+        _keys.add(k);
+        _values.add(v);
+      }
+    });
+    assertEquals("[8, 5, 2, 4, 6]", _keys.toString());
+    assertEquals("[16, 5, 4, 8, 12]", _values.toString());
+    assertEquals(4, l.keyCount.get());
+    assertEquals(expectedBulkCalls(c, 4), l.bulkCallCount.get());
+  }
+
+  @Test
+  public void testBulkLoader_partialResultAndException() {
+    CountingBulkLoader l = new CountingBulkLoader();
+    Cache<Integer, Integer> c = cacheWithBulkLoader(l);
+    Map<Integer, Integer> m = c.getAll(toIterable(1, 7, 9));
+    assertEquals((Integer) 2, m.get(1));
+    assertEquals((Integer) 18, m.get(9));
+    try {
+      m.get(7);
+      fail("exception expected");
+    } catch (CacheLoaderException ex) {
+      assertThat(ex.getCause(), instanceOf(IOException.class));
+    }
+    assertEquals(3, l.keyCount.get());
+  }
+
+  @Test
+  public void testBulkLoader_loadAll() {
+    CountingBulkLoader l = new CountingBulkLoader();
+    Cache<Integer, Integer> c = cacheWithBulkLoader(l);
+    c.put(1, 1);
+    CompletionWaiter w = new CompletionWaiter();
+    c.loadAll(toIterable(1, 2, 3), w);
+    w.awaitCompletion();
+    assertEquals((Integer) 1, c.peek(1));
+    assertEquals((Integer) 4, c.peek(2));
+    assertEquals((Integer) 6, c.peek(3));
+    assertEquals(expectedBulkCalls(c, 2), l.bulkCallCount.get());
+    w = new CompletionWaiter();
+    c.prefetchAll(toIterable(4, 5), w);
+    w.awaitCompletion();
+    assertEquals((Integer) 10, c.peek(5));
+    assertEquals(4, l.keyCount.get());
+  }
+
+  /**
+   * Concurrent single loads within the batch window are coalesced into fewer bulk loads.
+   */
+  @Test
+  public void testBulkLoader_batchConcurrentLoads() throws Exception {
+    final int _THREADS = 10;
+    final CountingBulkLoader l = new CountingBulkLoader();
+    final Cache<Integer, Integer> c = target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.loader(l)
+         .loaderBatchWindow(500, TimeUnit.MILLISECONDS);
+      }
+    });
+    final CountDownLatch _start = new CountDownLatch(1);
+    final AtomicReference<Throwable> _error = new AtomicReference<Throwable>();
+    Thread[] _threads = new Thread[_THREADS];
+    for (int i = 0; i < _THREADS; i++) {
+      final int _key = i * 10;
+      _threads[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            _start.await();
+            assertEquals((Integer) (_key * 2), c.get(_key));
+          } catch (Throwable t) {
+            _error.set(t);
+          }
+        }
+      };
+      _threads[i].start();
+    }
+    _start.countDown();
+    for (Thread t : _threads) {
+      t.join();
+    }
+    assertNull(_error.get());
+    assertEquals(_THREADS, l.keyCount.get());
+    assertThat(l.bulkCallCount.get(), lessThan(_THREADS));
+  }
+
+  /**
+   * The calling thread does not wait for the loader.
+   */
+  @Test
+  public void testGetAsync() throws Exception {
+    final CountDownLatch _release = new CountDownLatch(1);
+    Cache<Integer, Integer> c = target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.loader(new CacheLoader<Integer, Integer>() {
+          @Override
+          public Integer load(final Integer key) throws Exception {
+            _release.await();
+            return key * 2;
+          }
+        });
+      }
+    });
+    CompletableFuture<Integer> f = c.getAsync(5);
+    assertFalse(f.isDone());
+    _release.countDown();
+    assertEquals((Integer) 10, f.get());
+    f = c.getAsync(5);
+    assertTrue("fresh value, completed immediately", f.isDone());
+    assertEquals((Integer) 10, f.get());
+  }
+
+  /**
+   * If the loader executor rejects, the load does not run in the calling thread.
+   * Fresh values are returned without starting a load.
+   */
+  @Test
+  public void testGetAsync_loaderExecutorRejects() throws Exception {
+    final AtomicReference<Thread> _loaderThread = new AtomicReference<Thread>();
+    final AtomicInteger _loadCount = new AtomicInteger();
+    Cache<Integer, Integer> c = target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.loaderExecutor(new Executor() {
+          @Override
+          public void execute(final Runnable command) {
+            throw new RejectedExecutionException();
+          }
+        });
+        b.loader(new CacheLoader<Integer, Integer>() {
+          @Override
+          public Integer load(final Integer key) throws Exception {
+            _loaderThread.set(Thread.currentThread());
+            _loadCount.incrementAndGet();
+            return key * 2;
+          }
+        });
+      }
+    });
+    assertEquals((Integer) 10, c.getAsync(5).get());
+    assertNotSame(Thread.currentThread(), _loaderThread.get());
+    c.put(1, 1);
+    Map<Integer, Integer> m = c.getAllAsync(toIterable(1, 2, 5)).get();
+    assertEquals(3, m.size());
+    assertEquals((Integer) 1, m.get(1));
+    assertEquals((Integer) 4, m.get(2));
+    assertEquals("only key 2 loaded", 2, _loadCount.get());
+    assertNotSame(Thread.currentThread(), _loaderThread.get());
+  }
+
+  /**
+   * With a limit of one, a load is rejected while another load is running.
+   */
+  @Test
+  public void testLoaderConcurrencyLimiter() throws Exception {
+    final LoaderConcurrencyLimiter _limiter = new LoaderConcurrencyLimiter(1, 1, 0, 2.0);
+    final CountDownLatch _started = new CountDownLatch(1);
+    final CountDownLatch _release = new CountDownLatch(1);
+    Cache<Integer, Integer> c = target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.loaderConcurrencyLimiter(_limiter);
+        b.loader(new CacheLoader<Integer, Integer>() {
+          @Override
+          public Integer load(final Integer key) throws Exception {
+            if (key == 5) {
+              _started.countDown();
+              _release.await();
+            }
+            return key * 2;
+          }
+        });
+      }
+    });
+    CompletableFuture<Integer> f = c.getAsync(5);
+    _started.await();
+    try {
+      c.get(7);
+      fail("exception expected");
+    } catch (CacheLoaderException ex) {
+      assertTrue(ex.getCause() instanceof RejectedExecutionException);
+    }
+    assertEquals(1, _limiter.getRejectedCount());
+    _release.countDown();
+    assertEquals((Integer) 10, f.get());
+    assertEquals(0, _limiter.getInFlight());
+    assertEquals((Integer) 18, c.get(9));
+  }
+
+  @Test
+  public void testGetAsync_asyncLoader() throws Exception {
+    final CountDownLatch _release = new CountDownLatch(1);
+    Cache<Integer, Integer> c = target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.loader(new AsyncCacheLoader<Integer, Integer>() {
+          @Override
+          public void load(final Integer key, final Context<Integer, Integer> context,
+                           final Callback<Integer> callback) {
+            new Thread() {
+              @Override
+              public void run() {
+                try {
+                  _release.await();
+                } catch (InterruptedException ex) {
+                  Thread.currentThread().interrupt();
+                }
+                callback.onLoadSuccess(key * 2);
+              }
+            }.start();
+          }
+        });
+      }
+    });
+    CompletableFuture<Map<Integer, Integer>> f = c.getAllAsync(toIterable(1, 2, 3));
+    assertFalse(f.isDone());
+    _release.countDown();
+    Map<Integer, Integer> m = f.get();
+    assertEquals(3, m.size());
+    assertEquals((Integer) 6, m.get(3));
+    assertEquals((Integer) 4, c.getAsync(2).get());
+  }
+
+  @Test
+  public void testGetAsync_exception() throws Exception {
+    Cache<Integer, Integer> c = target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.loader(new CacheLoader<Integer, Integer>() {
+          @Override
+          public Integer load(final Integer key) throws Exception {
+            throw new IOException("ouch");
+          }
+        });
+      }
+    });
+    try {
+      c.getAsync(1).get();
+      fail("exception expected");
+    } catch (ExecutionException ex) {
+      assertThat(ex.getCause(), instanceOf(CacheLoaderException.class));
+    }
+    Map<Integer, Integer> m = c.getAllAsync(toIterable(1, 2)).get();
+    try {
+      m.get(2);
+      fail("exception expected");
+    } catch (CacheLoaderException expected) {
+    }
+  }
+
   volatile int loaderExecutionCount = 0;
 
   protected Cache<Integer, Integer> cacheWithLoader() {
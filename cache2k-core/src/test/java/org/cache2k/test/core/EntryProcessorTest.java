@@ -43,6 +43,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
@@ -262,6 +264,48 @@ public class EntryProcessorTest {
     }
   }
 
+  @Test
+  public void invokeAll_parallel() {
+    Cache<Integer, Integer> c = target.cache(new CacheRule.Specialization<Integer, Integer>() {
+      @Override
+      public void extend(final Cache2kBuilder<Integer, Integer> b) {
+        b.parallelInvokeAll(true);
+      }
+    });
+    final int _COUNT = 1000;
+    List<Integer> _keys = new ArrayList<Integer>();
+    for (int i = 0; i < _COUNT; i++) {
+      _keys.add(i);
+    }
+    Map<Integer, EntryProcessingResult<Integer>> _resultMap =
+      c.invokeAll(_keys, new EntryProcessor<Integer, Integer, Integer>() {
+        @Override
+        public Integer process(final MutableCacheEntry<Integer, Integer> e) {
+          if (e.getKey() % 100 == 7) {
+            throw new IllegalStateException("test");
+          }
+          e.setValue(e.getKey() * 2);
+          return e.getKey() % 2 == 0 ? e.getKey() : null;
+        }
+      });
+    int _exceptionCount = 0;
+    for (int i = 0; i < _COUNT; i++) {
+      EntryProcessingResult<Integer> r = _resultMap.get(i);
+      if (i % 100 == 7) {
+        assertEquals(IllegalStateException.class, r.getException().getClass());
+        assertFalse(c.containsKey(i));
+        _exceptionCount++;
+      } else if (i % 2 == 0) {
+        assertEquals((Integer) i, r.getResult());
+        assertEquals((Integer) (i * 2), c.peek(i));
+      } else {
+        assertNull(r);
+        assertEquals((Integer) (i * 2), c.peek(i));
+      }
+    }
+    assertEquals(_COUNT / 2 + _exceptionCount, _resultMap.size());
+  }
+
   @Test
   public void nomap_getRefreshTime() {
     Cache<Integer,Integer> c = target.cache();
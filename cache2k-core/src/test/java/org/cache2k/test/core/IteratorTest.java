@@ -29,8 +29,10 @@ import org.junit.After;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -76,6 +78,41 @@ public class IteratorTest {
     assertTrue(_keysSeen.contains(19));
   }
 
+  /**
+   * Every key present at the start is returned exactly once, also when the hash
+   * table expands multiple times during the iteration.
+   */
+  @Test
+  public void testExpansionNoDuplicates() {
+    Cache<Integer, Integer> c = createCacheWith20Entries();
+    Iterator<Integer> it = c.keys().iterator();
+    List<Integer> _keys = new ArrayList<Integer>();
+    for (int i = 0; i < 5; i++) {
+      _keys.add(it.next());
+    }
+    for (int i = 20; i < 9999; i++) {
+      c.put(i,i);
+    }
+    while (it.hasNext()) {
+      _keys.add(it.next());
+    }
+    Set<Integer> _keysSeen = new HashSet<Integer>(_keys);
+    assertEquals(_keys.size(), _keysSeen.size());
+    for (int i = 0; i < 20; i++) {
+      assertTrue(_keysSeen.contains(i));
+    }
+  }
+
+  @Test
+  public void testClearStopsIteration() {
+    Cache<Integer, Integer> c = createCacheWith20Entries();
+    Iterator<Integer> it = c.keys().iterator();
+    it.next();
+    c.clear();
+    c.put(1, 1);
+    assertFalse(it.hasNext());
+  }
+
   @Test
   public void testIterateEmpty_hasNext() {
     Cache<Integer, Integer> c = createEmptyCache();
@@ -0,0 +1,169 @@
+package org.cache2k.test.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.integration.CacheWriter;
+import org.cache2k.testing.category.FastTests;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the ordered key index with composite string keys.
+ *
+ * @author Jens Wilke
+ */
+@Category(FastTests.class)
+public class OrderedKeysTest {
+
+  Cache<String, Integer> cache;
+
+  @After
+  public void tearDown() {
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  Cache2kBuilder<String, Integer> builder() {
+    return Cache2kBuilder.of(String.class, Integer.class)
+      .eternal(true)
+      .orderedKeys(true);
+  }
+
+  static String key(int i) {
+    return "region" + (i % 3) + "/customer" + (i % 5) + "/item" + i;
+  }
+
+  void fill() {
+    for (int i = 0; i < 100; i++) {
+      cache.put(key(i), i);
+    }
+  }
+
+  @Test
+  public void removeByPrefix() {
+    cache = builder().build();
+    fill();
+    cache.removeByPrefix("region1/");
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 3 != 1, cache.containsKey(key(i)));
+    }
+    cache.removeByPrefix("region2/customer0/");
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 3 == 0 || (i % 3 == 2 && i % 5 != 0), cache.containsKey(key(i)));
+    }
+    cache.removeByPrefix("unknown");
+    cache.removeByPrefix("");
+    assertFalse(cache.keys().iterator().hasNext());
+  }
+
+  @Test
+  public void peekRange() {
+    cache = builder().build();
+    cache.put("b", 2);
+    cache.put("a", 1);
+    cache.put("d", 4);
+    cache.put("c", 3);
+    Map<String, Integer> m = cache.peekRange("b", "d");
+    assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(m.keySet()));
+    assertEquals((Integer) 3, m.get("c"));
+    cache.remove("c");
+    m = cache.peekRange("a", "z");
+    assertEquals(Arrays.asList("a", "b", "d"), new ArrayList<String>(m.keySet()));
+  }
+
+  @Test
+  public void clearAndReinsert() {
+    cache = builder().build();
+    fill();
+    cache.clear();
+    assertTrue(cache.peekRange("a", "z").isEmpty());
+    cache.put("region1/x", 1);
+    cache.put("region2/x", 2);
+    cache.removeByPrefix("region1/");
+    assertFalse(cache.containsKey("region1/x"));
+    assertTrue(cache.containsKey("region2/x"));
+  }
+
+  @Test
+  public void evictedKeysAreRemoved() {
+    cache = builder().eternal(true).entryCapacity(10).build();
+    fill();
+    assertTrue(cache.peekRange("a", "z").size() <= 10);
+  }
+
+  @Test
+  public void wiredCacheCallsWriter() {
+    final Set<String> _deleted = new HashSet<String>();
+    cache = builder()
+      .writer(new CacheWriter<String, Integer>() {
+        @Override
+        public void write(final String key, final Integer value) { }
+
+        @Override
+        public void delete(final String key) {
+          _deleted.add(key);
+        }
+      })
+      .build();
+    fill();
+    cache.removeByPrefix("region0/customer4/");
+    assertFalse(_deleted.isEmpty());
+    for (String k : _deleted) {
+      assertTrue(k.startsWith("region0/customer4/"));
+      assertFalse(cache.containsKey(k));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void notEnabled() {
+    cache = Cache2kBuilder.of(String.class, Integer.class).build();
+    cache.removeByPrefix("region1/");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void removeByPrefixNoStringKeys() {
+    Cache<Integer, Integer> c = Cache2kBuilder.of(Integer.class, Integer.class).orderedKeys(true).build();
+    try {
+      c.put(1, 1);
+      c.removeByPrefix("1");
+    } finally {
+      c.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void keyTypeNotComparable() {
+    Cache2kBuilder.of(Object.class, Integer.class).orderedKeys(true).build();
+  }
+
+}
@@ -0,0 +1,194 @@
+package org.cache2k.test.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.CacheEntry;
+import org.cache2k.IndexExtractor;
+import org.cache2k.core.InternalCache;
+import org.cache2k.event.CacheEntryRemovedListener;
+import org.cache2k.expiry.ExpiryTimeValues;
+import org.cache2k.processor.EntryProcessor;
+import org.cache2k.processor.MutableCacheEntry;
+import org.cache2k.testing.category.FastTests;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for secondary indexes, the key is mapped to the value, the index
+ * is on the value modulo 10.
+ *
+ * @author Jens Wilke
+ */
+@Category(FastTests.class)
+public class SecondaryIndexTest {
+
+  static final String INDEX = "mod10";
+
+  static final IndexExtractor<Integer, Integer> MOD10 = new IndexExtractor<Integer, Integer>() {
+    @Override
+    public Object extract(final Integer key, final Integer value) {
+      return value % 10;
+    }
+  };
+
+  Cache<Integer, Integer> cache;
+
+  @After
+  public void tearDown() {
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  Cache2kBuilder<Integer, Integer> builder() {
+    return Cache2kBuilder.of(Integer.class, Integer.class)
+      .eternal(true)
+      .addIndex(INDEX, MOD10);
+  }
+
+  @Test
+  public void insertUpdateRemove() {
+    cache = builder().build();
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+    Map<Integer, Integer> m = cache.peekAllByIndex(INDEX, 7);
+    assertEquals(10, m.size());
+    assertEquals((Integer) 17, m.get(17));
+    cache.put(17, 18);
+    assertEquals(9, cache.peekAllByIndex(INDEX, 7).size());
+    assertEquals(11, cache.peekAllByIndex(INDEX, 8).size());
+    cache.remove(27);
+    assertEquals(8, cache.peekAllByIndex(INDEX, 7).size());
+    cache.invoke(37, new EntryProcessor<Integer, Integer, Object>() {
+      @Override
+      public Object process(final MutableCacheEntry<Integer, Integer> e) {
+        e.setValue(40);
+        return null;
+      }
+    });
+    assertEquals(7, cache.peekAllByIndex(INDEX, 7).size());
+    assertTrue(cache.peekAllByIndex(INDEX, 4711).isEmpty());
+  }
+
+  @Test
+  public void expireAndClear() {
+    cache = builder().build();
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+    cache.expireAt(3, ExpiryTimeValues.NOW);
+    assertEquals(9, cache.peekAllByIndex(INDEX, 3).size());
+    cache.clear();
+    assertTrue(cache.peekAllByIndex(INDEX, 3).isEmpty());
+    cache.put(3, 3);
+    assertEquals(1, cache.peekAllByIndex(INDEX, 3).size());
+  }
+
+  @Test
+  public void eviction() {
+    cache = builder().entryCapacity(100).build();
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, i);
+    }
+    int _count = 0;
+    for (int i = 0; i < 10; i++) {
+      Map<Integer, Integer> m = cache.peekAllByIndex(INDEX, i);
+      for (Map.Entry<Integer, Integer> e : m.entrySet()) {
+        assertTrue(cache.containsKey(e.getKey()));
+      }
+      _count += m.size();
+    }
+    assertEquals(cache.asMap().size(), _count);
+  }
+
+  @Test
+  public void wiredCacheWithListener() {
+    final AtomicInteger _removed = new AtomicInteger();
+    cache = builder()
+      .addListener(new CacheEntryRemovedListener<Integer, Integer>() {
+        @Override
+        public void onEntryRemoved(final Cache<Integer, Integer> c, final CacheEntry<Integer, Integer> e) {
+          _removed.incrementAndGet();
+        }
+      })
+      .build();
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, i);
+    }
+    assertEquals(10, cache.peekAllByIndex(INDEX, 1).size());
+    cache.put(11, 12);
+    cache.remove(21);
+    assertEquals(1, _removed.get());
+    assertEquals(8, cache.peekAllByIndex(INDEX, 1).size());
+  }
+
+  /**
+   * An extractor exception is contained, the value is stored but not indexed.
+   */
+  @Test
+  public void extractorException() {
+    cache = Cache2kBuilder.of(Integer.class, Integer.class)
+      .eternal(true)
+      .addIndex(INDEX, new IndexExtractor<Integer, Integer>() {
+        @Override
+        public Object extract(final Integer key, final Integer value) {
+          if (value == 13) {
+            throw new IllegalArgumentException("test exception, ignore");
+          }
+          return value % 10;
+        }
+      })
+      .build();
+    cache.put(3, 3);
+    cache.put(13, 13);
+    assertEquals((Integer) 13, cache.peek(13));
+    assertEquals(1, cache.peekAllByIndex(INDEX, 3).size());
+    cache.put(13, 13);
+    cache.put(3, 13);
+    assertTrue(cache.peekAllByIndex(INDEX, 3).isEmpty());
+    cache.put(13, 23);
+    assertEquals((Integer) 23, cache.peekAllByIndex(INDEX, 3).get(13));
+    cache.remove(3);
+    assertFalse(cache.containsKey(3));
+    assertTrue(cache.requestInterface(InternalCache.class).getLatestInfo().getInternalExceptionCount() > 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownIndex() {
+    cache = builder().build();
+    cache.peekAllByIndex("unknown", 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void duplicateIndex() {
+    builder().addIndex(INDEX, MOD10);
+  }
+
+}
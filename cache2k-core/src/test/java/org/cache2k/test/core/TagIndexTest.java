@@ -0,0 +1,175 @@
+package org.cache2k.test.core;
+
+/*
+ * #%L
+ * cache2k implementation
+ * %%
+ * Copyright (C) 2000 - 2019 headissue GmbH, Munich
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.cache2k.TagExtractor;
+import org.cache2k.integration.CacheWriter;
+import org.cache2k.testing.category.FastTests;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the tag index, the tags are the comma separated parts of the value.
+ *
+ * @author Jens Wilke
+ */
+@Category(FastTests.class)
+public class TagIndexTest {
+
+  static final TagExtractor<Integer, String> SPLIT = new TagExtractor<Integer, String>() {
+    @Override
+    public Collection<?> extractTags(final Integer key, final String value) {
+      return Arrays.asList(value.split(","));
+    }
+  };
+
+  Cache<Integer, String> cache;
+
+  @After
+  public void tearDown() {
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  Cache2kBuilder<Integer, String> builder() {
+    return Cache2kBuilder.of(Integer.class, String.class)
+      .eternal(true)
+      .tagExtractor(SPLIT);
+  }
+
+  void fill() {
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, "tenant:" + (i % 3) + ",product:" + (i % 5));
+    }
+  }
+
+  @Test
+  public void removeAllWithTag() {
+    cache = builder().build();
+    fill();
+    cache.removeAllWithTag("tenant:1");
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 3 != 1, cache.containsKey(i));
+    }
+    cache.removeAllWithTag("product:0");
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % 3 != 1 && i % 5 != 0, cache.containsKey(i));
+    }
+    cache.removeAllWithTag("unknown");
+  }
+
+  @Test
+  public void updateChangesTags() {
+    cache = builder().build();
+    fill();
+    cache.put(0, "tenant:1");
+    cache.put(1, "tenant:2");
+    cache.removeAllWithTag("tenant:1");
+    assertFalse(cache.containsKey(0));
+    assertTrue(cache.containsKey(1));
+    cache.removeAllWithTag("product:0");
+    assertTrue(cache.containsKey(3));
+    assertFalse(cache.containsKey(5));
+  }
+
+  @Test
+  public void clearAndReinsert() {
+    cache = builder().build();
+    fill();
+    cache.clear();
+    cache.put(1, "tenant:1");
+    cache.put(2, "tenant:2");
+    cache.removeAllWithTag("tenant:1");
+    assertFalse(cache.containsKey(1));
+    assertTrue(cache.containsKey(2));
+  }
+
+  @Test
+  public void wiredCacheCallsWriter() {
+    final Set<Integer> _deleted = new HashSet<Integer>();
+    cache = builder()
+      .writer(new CacheWriter<Integer, String>() {
+        @Override
+        public void write(final Integer key, final String value) { }
+
+        @Override
+        public void delete(final Integer key) {
+          _deleted.add(key);
+        }
+      })
+      .build();
+    fill();
+    cache.removeAllWithTag("product:4");
+    assertEquals(20, _deleted.size());
+    for (int k : _deleted) {
+      assertEquals(4, k % 5);
+      assertFalse(cache.containsKey(k));
+    }
+  }
+
+  /**
+   * An extractor exception is contained, the value is stored without tags.
+   */
+  @Test
+  public void extractorException() {
+    cache = Cache2kBuilder.of(Integer.class, String.class)
+      .eternal(true)
+      .tagExtractor(new TagExtractor<Integer, String>() {
+        @Override
+        public Collection<?> extractTags(final Integer key, final String value) {
+          if (value.startsWith("bad")) {
+            throw new IllegalArgumentException("test exception, ignore");
+          }
+          return SPLIT.extractTags(key, value);
+        }
+      })
+      .build();
+    cache.put(1, "tenant:1");
+    cache.put(2, "tenant:1");
+    cache.put(2, "bad");
+    assertEquals("bad", cache.peek(2));
+    cache.put(2, "bad,tenant:1");
+    cache.removeAllWithTag("tenant:1");
+    assertFalse(cache.containsKey(1));
+    assertTrue(cache.containsKey(2));
+    cache.put(2, "tenant:2");
+    cache.removeAllWithTag("tenant:2");
+    assertFalse(cache.containsKey(2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void noTagExtractor() {
+    cache = Cache2kBuilder.of(Integer.class, String.class).build();
+    cache.removeAllWithTag("tenant:1");
+  }
+
+}
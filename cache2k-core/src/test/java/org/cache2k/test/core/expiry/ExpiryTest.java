@@ -38,7 +38,11 @@ import org.cache2k.test.util.Condition;
 import org.cache2k.Cache;
 import org.cache2k.Cache2kBuilder;
 import org.cache2k.CacheEntry;
+import org.cache2k.event.CacheEntryCreatedListener;
+import org.cache2k.event.CacheEntryRemovedListener;
+import org.cache2k.event.CacheEntryUpdatedListener;
 import org.cache2k.expiry.ExpiryPolicy;
+import org.cache2k.core.HeapCache;
 import org.cache2k.core.InternalCache;
 import org.cache2k.testing.category.FastTests;
 import org.cache2k.test.util.TimeBox;
@@ -53,6 +57,7 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 import static org.hamcrest.Matchers.*;
@@ -948,6 +953,333 @@ public class ExpiryTest extends TestingBase {
     });
   }
 
+  /**
+   * Entries without access after the load are cold and not refreshed.
+   */
+  @Test
+  public void testRefreshSkipCold() {
+    final int _COUNT = 3;
+    IntCountingCacheSource _countingLoader = new IntCountingCacheSource();
+    Cache<Integer, Integer> c = builder(Integer.class, Integer.class)
+      .refreshAhead(true)
+      .refreshAheadSkipCold(true)
+      .eternal(true)
+      .expiryPolicy(new ExpiryPolicy<Integer, Integer>() {
+        @Override
+        public long calculateExpiryTime(final Integer key, final Integer value, final long loadTime, final CacheEntry<Integer, Integer> oldEntry) {
+          return loadTime;
+        }
+      })
+      .loader(_countingLoader)
+      .build();
+    c.get(1);
+    c.get(2);
+    c.get(3);
+    await("All skipped", new Condition() {
+      @Override
+      public boolean check() {
+        return getInfo().getRefreshSkippedCount() >= _COUNT;
+      }
+    });
+    await("All expired", new Condition() {
+      @Override
+      public boolean check() {
+        return getInfo().getExpiredCount() >= _COUNT;
+      }
+    });
+    assertEquals(0, getInfo().getRefreshCount());
+    assertEquals(_COUNT, _countingLoader.getLoaderCalledCount());
+  }
+
+  /**
+   * An entry that was accessed before, is cold after it got loaded again and was
+   * not accessed since then.
+   */
+  @Test
+  public void testRefreshSkipColdAfterReload() {
+    IntCountingCacheSource _countingLoader = new IntCountingCacheSource();
+    Cache<Integer, Integer> c = cache = builder(Integer.class, Integer.class)
+      .refreshAhead(true)
+      .refreshAheadSkipCold(true)
+      .eternal(true)
+      .expiryPolicy(new ExpiryPolicy<Integer, Integer>() {
+        @Override
+        public long calculateExpiryTime(final Integer key, final Integer value, final long loadTime, final CacheEntry<Integer, Integer> oldEntry) {
+          if (oldEntry == null) {
+            return ETERNAL;
+          }
+          return loadTime;
+        }
+      })
+      .loader(_countingLoader)
+      .build();
+    c.get(1);
+    c.get(1);
+    reload(1);
+    await("Skipped", new Condition() {
+      @Override
+      public boolean check() {
+        return getInfo().getRefreshSkippedCount() >= 1;
+      }
+    });
+    await("Expired", new Condition() {
+      @Override
+      public boolean check() {
+        return getInfo().getExpiredCount() >= 1;
+      }
+    });
+    assertEquals(0, getInfo().getRefreshCount());
+    assertEquals(2, _countingLoader.getLoaderCalledCount());
+  }
+
+  /**
+   * Entry accessed regularly stays, the idle entry expires.
+   */
+  @Test
+  public void testExpireAfterAccess() {
+    final Cache<Integer, Integer> c = cache = builder(Integer.class, Integer.class)
+      .eternal(true)
+      .expireAfterAccess(100, TimeUnit.MILLISECONDS)
+      .build();
+    c.put(1, 1);
+    c.put(2, 2);
+    await("Idle entry expires", new Condition() {
+      @Override
+      public boolean check() {
+        c.get(1);
+        return getInfo().getExpiredCount() > 0;
+      }
+    });
+    assertEquals(1, getInfo().getExpiredCount());
+    assertTrue(c.containsKey(1));
+    assertFalse(c.containsKey(2));
+  }
+
+  /**
+   * More entries than fit in one batch of the idle scan. All idle entries expire,
+   * the accessed entry stays.
+   */
+  @Test
+  public void testExpireAfterAccessBatches() {
+    final int _COUNT = HeapCache.TUNABLE.idleScanBatchSize * 2 + 7;
+    final Cache<Integer, Integer> c = cache = builder(Integer.class, Integer.class)
+      .eternal(true)
+      .entryCapacity(_COUNT * 2)
+      .expireAfterAccess(100, TimeUnit.MILLISECONDS)
+      .build();
+    for (int i = 0; i < _COUNT; i++) {
+      c.put(i, i);
+    }
+    await("Idle entries expire", new Condition() {
+      @Override
+      public boolean check() {
+        c.get(0);
+        return getInfo().getExpiredCount() >= _COUNT - 1;
+      }
+    });
+    assertEquals(_COUNT - 1, getInfo().getExpiredCount());
+    assertTrue(c.containsKey(0));
+  }
+
+  /**
+   * After expiry the stale value is returned and the load runs in a loader thread,
+   * not in the thread calling get.
+   */
+  @Test
+  public void testStaleWhileRevalidate() {
+    final AtomicInteger _loadCount = new AtomicInteger();
+    final AtomicReference<Thread> _reloadThread = new AtomicReference<Thread>();
+    final Cache<Integer, Integer> c = cache = builder(Integer.class, Integer.class)
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) {
+          int v = _loadCount.incrementAndGet();
+          if (v > 1) {
+            _reloadThread.compareAndSet(null, Thread.currentThread());
+          }
+          return v;
+        }
+      })
+      .expireAfterWrite(100, TimeUnit.MILLISECONDS)
+      .staleWhileRevalidate(LONG_DELTA, TimeUnit.MILLISECONDS)
+      .build();
+    assertEquals(1, (int) c.get(1));
+    await("Reloaded value returned", new Condition() {
+      @Override
+      public boolean check() {
+        return c.get(1) > 1;
+      }
+    });
+    assertNotNull(_reloadThread.get());
+    assertNotSame(Thread.currentThread(), _reloadThread.get());
+  }
+
+  @Test
+  public void testNegativeCacheDuration() {
+    final AtomicInteger _nullLoadCount = new AtomicInteger();
+    final AtomicInteger _valueLoadCount = new AtomicInteger();
+    final Cache<Integer, Integer> c = cache = builder(Integer.class, Integer.class)
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) {
+          if (key == 1) {
+            _nullLoadCount.incrementAndGet();
+            return null;
+          }
+          _valueLoadCount.incrementAndGet();
+          return key;
+        }
+      })
+      .eternal(true)
+      .negativeCacheDuration(100, TimeUnit.MILLISECONDS)
+      .build();
+    assertNull(c.get(1));
+    assertEquals(2, (int) c.get(2));
+    assertNull(c.get(1));
+    assertEquals(1, _nullLoadCount.get());
+    await("Absence expires", new Condition() {
+      @Override
+      public boolean check() {
+        c.get(1);
+        return _nullLoadCount.get() > 1;
+      }
+    });
+    assertEquals(2, (int) c.get(2));
+    assertEquals(1, _valueLoadCount.get());
+  }
+
+  private Cache<Integer, Integer> buildNegativeCachingCache(final AtomicInteger _loadCount,
+                                                           final Cache2kBuilder<Integer, Integer> b) {
+    return cache = b
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) {
+          _loadCount.incrementAndGet();
+          return key == 1 ? null : key;
+        }
+      })
+      .eternal(true)
+      .negativeCacheDuration(5, TimeUnit.MINUTES)
+      .build();
+  }
+
+  /**
+   * The negatively cached key is absent for all operations, but get does not load it again.
+   */
+  @Test
+  public void testNegativeCacheDuration_absent() {
+    final AtomicInteger _loadCount = new AtomicInteger();
+    Cache<Integer, Integer> c = buildNegativeCachingCache(_loadCount, builder(Integer.class, Integer.class));
+    assertNull(c.get(1));
+    assertEquals(1, _loadCount.get());
+    assertNull(c.getEntry(1));
+    assertNull(c.get(1));
+    assertEquals(1, _loadCount.get());
+    assertFalse(c.containsKey(1));
+    assertNull(c.peek(1));
+    assertNull(c.peekEntry(1));
+    assertFalse(c.peekAll(toIterable(1)).containsKey(1));
+    assertFalse(c.getAll(toIterable(1)).containsKey(1));
+    assertFalse(c.asMap().containsKey(1));
+    assertFalse(c.keys().iterator().hasNext());
+    assertFalse(c.entries().iterator().hasNext());
+    assertFalse(c.invoke(1, new EntryProcessor<Integer, Integer, Boolean>() {
+      @Override
+      public Boolean process(final MutableCacheEntry<Integer, Integer> e) {
+        return e.exists();
+      }
+    }));
+    assertNull(c.invoke(1, new EntryProcessor<Integer, Integer, Integer>() {
+      @Override
+      public Integer process(final MutableCacheEntry<Integer, Integer> e) {
+        return e.getValue();
+      }
+    }));
+    assertFalse(c.replace(1, 2));
+    assertNull(c.get(1));
+    assertEquals(1, _loadCount.get());
+    assertFalse(c.containsAndRemove(1));
+    assertNull(c.get(1));
+    assertEquals("removed, loads again", 2, _loadCount.get());
+    assertTrue(c.putIfAbsent(1, 2));
+    assertEquals((Integer) 2, c.get(1));
+  }
+
+  /**
+   * Expiring the negatively cached key removes it, the next get calls the loader.
+   */
+  @Test
+  public void testNegativeCacheDuration_expire() {
+    final AtomicInteger _loadCount = new AtomicInteger();
+    Cache<Integer, Integer> c = buildNegativeCachingCache(_loadCount, builder(Integer.class, Integer.class));
+    assertNull(c.get(1));
+    c.expireAt(1, ExpiryTimeValues.NOW);
+    assertNull(c.get(1));
+    assertEquals(2, _loadCount.get());
+  }
+
+  /**
+   * No events are sent for the negatively cached key. A reload yielding {@code null}
+   * removes the value.
+   */
+  @Test
+  public void testNegativeCacheDuration_listeners() {
+    final AtomicInteger _loadCount = new AtomicInteger();
+    final AtomicInteger _createdCount = new AtomicInteger();
+    final AtomicInteger _removedCount = new AtomicInteger();
+    final AtomicInteger _updatedCount = new AtomicInteger();
+    final AtomicReference<Integer> _nextValue = new AtomicReference<Integer>();
+    Cache2kBuilder<Integer, Integer> b = builder(Integer.class, Integer.class)
+      .addListener(new CacheEntryCreatedListener<Integer, Integer>() {
+        @Override
+        public void onEntryCreated(final Cache<Integer, Integer> cache, final CacheEntry<Integer, Integer> entry) {
+          _createdCount.incrementAndGet();
+        }
+      })
+      .addListener(new CacheEntryRemovedListener<Integer, Integer>() {
+        @Override
+        public void onEntryRemoved(final Cache<Integer, Integer> cache, final CacheEntry<Integer, Integer> entry) {
+          assertNotNull(entry.getValue());
+          _removedCount.incrementAndGet();
+        }
+      })
+      .addListener(new CacheEntryUpdatedListener<Integer, Integer>() {
+        @Override
+        public void onEntryUpdated(final Cache<Integer, Integer> cache, final CacheEntry<Integer, Integer> currentEntry,
+                                   final CacheEntry<Integer, Integer> entryWithNewData) {
+          _updatedCount.incrementAndGet();
+        }
+      })
+      .loader(new CacheLoader<Integer, Integer>() {
+        @Override
+        public Integer load(final Integer key) {
+          _loadCount.incrementAndGet();
+          return _nextValue.get();
+        }
+      })
+      .eternal(true)
+      .negativeCacheDuration(5, TimeUnit.MINUTES);
+    Cache<Integer, Integer> c = cache = b.build();
+    assertNull(c.get(1));
+    assertEquals(0, _createdCount.get());
+    c.remove(1);
+    assertEquals(0, _removedCount.get());
+    assertNull(c.get(1));
+    c.put(1, 1);
+    assertEquals("negative entry was absent", 1, _createdCount.get());
+    assertEquals(0, _updatedCount.get());
+    _nextValue.set(null);
+    c.reloadAll(toIterable(1), null);
+    await("reload done", new Condition() {
+      @Override
+      public boolean check() {
+        return _removedCount.get() == 1;
+      }
+    });
+    assertFalse(c.containsKey(1));
+    assertEquals(0, _updatedCount.get());
+  }
+
   static final long FUTURE_TIME = Timestamp.valueOf("2058-02-18 23:42:15").getTime();
 
   @Test(expected = IllegalArgumentException.class)